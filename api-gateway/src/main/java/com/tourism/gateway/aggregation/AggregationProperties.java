@@ -0,0 +1,53 @@
+package com.tourism.gateway.aggregation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tour page aggregation settings, bound from {@code gateway.aggregation.*}.
+ *
+ * Each part has its own timeout. Only the tour itself is required; any other
+ * part that is late or failing is left out of the page.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.aggregation")
+public class AggregationProperties {
+
+    private String coreServiceUri = "http://tourism-core-service";
+
+    private String itineraryServiceUri = "http://itinerary-service";
+
+    private Duration tourTimeout = Duration.ofSeconds(3);
+
+    private Duration packagesTimeout = Duration.ofSeconds(1);
+
+    private Duration itineraryTimeout = Duration.ofMillis(1500);
+
+    private Duration statsTimeout = Duration.ofMillis(500);
+
+    private int maxBodyBytes = 2 * 1024 * 1024;
+
+    // Getters and Setters
+    public String getCoreServiceUri() { return coreServiceUri; }
+    public void setCoreServiceUri(String coreServiceUri) { this.coreServiceUri = coreServiceUri; }
+
+    public String getItineraryServiceUri() { return itineraryServiceUri; }
+    public void setItineraryServiceUri(String itineraryServiceUri) { this.itineraryServiceUri = itineraryServiceUri; }
+
+    public Duration getTourTimeout() { return tourTimeout; }
+    public void setTourTimeout(Duration tourTimeout) { this.tourTimeout = tourTimeout; }
+
+    public Duration getPackagesTimeout() { return packagesTimeout; }
+    public void setPackagesTimeout(Duration packagesTimeout) { this.packagesTimeout = packagesTimeout; }
+
+    public Duration getItineraryTimeout() { return itineraryTimeout; }
+    public void setItineraryTimeout(Duration itineraryTimeout) { this.itineraryTimeout = itineraryTimeout; }
+
+    public Duration getStatsTimeout() { return statsTimeout; }
+    public void setStatsTimeout(Duration statsTimeout) { this.statsTimeout = statsTimeout; }
+
+    public int getMaxBodyBytes() { return maxBodyBytes; }
+    public void setMaxBodyBytes(int maxBodyBytes) { this.maxBodyBytes = maxBodyBytes; }
+}
@@ -0,0 +1,105 @@
+package com.tourism.gateway.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fetches the parts of a tour page from the core and itinerary services in
+ * parallel and merges them.
+ *
+ * The page takes as long as the slowest part, capped by that part's timeout.
+ * A failed or late optional part is dropped rather than failing the page; a
+ * failure to load the tour itself is propagated.
+ */
+@Component
+public class TourPageAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(TourPageAggregator.class);
+
+    public static final String PART_PACKAGES = "packages";
+    public static final String PART_ITINERARY = "itinerary";
+    public static final String PART_ITINERARY_STATS = "itineraryStats";
+
+    private final AggregationProperties properties;
+    private final WebClient webClient;
+
+    public TourPageAggregator(AggregationProperties properties, WebClient.Builder webClientBuilder,
+                              ReactorLoadBalancerExchangeFilterFunction loadBalancer) {
+        this.properties = properties;
+        this.webClient = webClientBuilder
+                .filter(loadBalancer)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(properties.getMaxBodyBytes()))
+                .build();
+    }
+
+    /**
+     * @param forwardedHeaders headers passed on to every downstream call
+     */
+    public Mono<TourPageResponse> aggregate(Long tourId, HttpHeaders forwardedHeaders) {
+        Mono<JsonNode> tour = fetch(properties.getCoreServiceUri() + "/api/v1/tours/{id}", tourId, forwardedHeaders)
+                .timeout(properties.getTourTimeout());
+
+        Mono<Optional<JsonNode>> packages = optional(PART_PACKAGES,
+                fetch(properties.getCoreServiceUri() + "/api/v1/packages/tour/{tourId}", tourId, forwardedHeaders),
+                properties.getPackagesTimeout());
+        Mono<Optional<JsonNode>> itinerary = optional(PART_ITINERARY,
+                fetch(properties.getItineraryServiceUri() + "/api/itineraries/tour/{tourId}", tourId, forwardedHeaders),
+                properties.getItineraryTimeout());
+        Mono<Optional<JsonNode>> stats = optional(PART_ITINERARY_STATS,
+                fetch(properties.getItineraryServiceUri() + "/api/itineraries/tour/{tourId}/stats", tourId, forwardedHeaders),
+                properties.getStatsTimeout());
+
+        // Mono.zip subscribes to every part at once, so the calls run in parallel
+        return Mono.zip(tour, packages, itinerary, stats)
+                .map(parts -> {
+                    List<String> unavailable = new ArrayList<>();
+                    JsonNode packagesData = orMissing(parts.getT2(), PART_PACKAGES, unavailable);
+                    JsonNode itineraryData = orMissing(parts.getT3(), PART_ITINERARY, unavailable);
+                    JsonNode statsData = orMissing(parts.getT4(), PART_ITINERARY_STATS, unavailable);
+                    return new TourPageResponse(parts.getT1(), packagesData, itineraryData, statsData, unavailable);
+                });
+    }
+
+    /**
+     * GET an ApiResponse and unwrap its {@code data}
+     */
+    private Mono<JsonNode> fetch(String uriTemplate, Long tourId, HttpHeaders forwardedHeaders) {
+        return webClient.get()
+                .uri(uriTemplate, tourId)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.addAll(forwardedHeaders))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.path("data"));
+    }
+
+    private Mono<Optional<JsonNode>> optional(String part, Mono<JsonNode> call, Duration timeout) {
+        return call.timeout(timeout)
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    log.warn("Tour page part '{}' unavailable: {}", part, e.toString());
+                    return Mono.just(Optional.empty());
+                })
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private static JsonNode orMissing(Optional<JsonNode> part, String name, List<String> unavailable) {
+        if (part.isEmpty()) {
+            unavailable.add(name);
+            return null;
+        }
+        return part.get();
+    }
+}
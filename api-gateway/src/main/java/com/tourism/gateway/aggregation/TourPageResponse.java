@@ -0,0 +1,50 @@
+package com.tourism.gateway.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Everything needed to render a tour page, assembled from several services.
+ *
+ * Parts that could not be fetched in time are null and listed in
+ * {@code unavailable}, so the client can render the rest and retry them.
+ */
+public class TourPageResponse {
+
+    private JsonNode tour;
+    private JsonNode packages;
+    private JsonNode itinerary;
+    private JsonNode itineraryStats;
+    private List<String> unavailable;
+
+    public TourPageResponse() {
+    }
+
+    public TourPageResponse(JsonNode tour, JsonNode packages, JsonNode itinerary,
+                            JsonNode itineraryStats, List<String> unavailable) {
+        this.tour = tour;
+        this.packages = packages;
+        this.itinerary = itinerary;
+        this.itineraryStats = itineraryStats;
+        this.unavailable = unavailable;
+    }
+
+    public boolean isPartial() { return unavailable != null && !unavailable.isEmpty(); }
+
+    // Getters and Setters
+    public JsonNode getTour() { return tour; }
+    public void setTour(JsonNode tour) { this.tour = tour; }
+
+    public JsonNode getPackages() { return packages; }
+    public void setPackages(JsonNode packages) { this.packages = packages; }
+
+    public JsonNode getItinerary() { return itinerary; }
+    public void setItinerary(JsonNode itinerary) { this.itinerary = itinerary; }
+
+    public JsonNode getItineraryStats() { return itineraryStats; }
+    public void setItineraryStats(JsonNode itineraryStats) { this.itineraryStats = itineraryStats; }
+
+    public List<String> getUnavailable() { return unavailable; }
+    public void setUnavailable(List<String> unavailable) { this.unavailable = unavailable; }
+}
@@ -0,0 +1,57 @@
+package com.tourism.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiFunction;
+
+/**
+ * Buffers the proxied response body into a byte array and hands it to a
+ * handler, which decides what is finally written to the client.
+ *
+ * Only plain {@code writeWith} responses are captured. Streaming responses
+ * written through {@code writeAndFlushWith} pass through untouched.
+ */
+public class BodyCaptureResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final BiFunction<ServerHttpResponse, byte[], Mono<Void>> handler;
+
+    /**
+     * @param handler receives the undecorated response and the full body, and
+     *                returns the write to perform
+     */
+    public BodyCaptureResponseDecorator(ServerHttpResponse delegate,
+                                        BiFunction<ServerHttpResponse, byte[], Mono<Void>> handler) {
+        super(delegate);
+        this.handler = handler;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return DataBufferUtils.join(Flux.from(body))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> handler.apply(getDelegate(), bytes));
+    }
+
+    /**
+     * Write a byte array as the complete response body
+     */
+    public static Mono<Void> write(ServerHttpResponse response, byte[] body) {
+        response.getHeaders().setContentLength(body.length);
+        if (body.length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
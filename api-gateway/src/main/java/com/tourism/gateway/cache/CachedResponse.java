@@ -0,0 +1,65 @@
+package com.tourism.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A complete upstream response held in memory: status, the headers worth
+ * replaying and the body bytes.
+ */
+public final class CachedResponse {
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final String etag;
+    private final long storedAtMillis;
+    private final long freshUntilMillis;
+
+    public CachedResponse(int status, HttpHeaders headers, byte[] body, String etag,
+                          long storedAtMillis, long freshUntilMillis) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.etag = etag;
+        this.storedAtMillis = storedAtMillis;
+        this.freshUntilMillis = freshUntilMillis;
+    }
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < freshUntilMillis;
+    }
+
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+
+    /**
+     * Whether a client's If-None-Match header matches this entry
+     */
+    public boolean matchesEtag(String ifNoneMatch) {
+        if (etag == null || ifNoneMatch == null) {
+            return false;
+        }
+        if ("*".equals(ifNoneMatch.trim())) {
+            return true;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Getters
+    public int getStatus() { return status; }
+    public HttpHeaders getHeaders() { return headers; }
+    public byte[] getBody() { return body; }
+    public String getEtag() { return etag; }
+    public long getStoredAtMillis() { return storedAtMillis; }
+    public long getFreshUntilMillis() { return freshUntilMillis; }
+}
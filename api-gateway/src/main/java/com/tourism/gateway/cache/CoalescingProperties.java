@@ -0,0 +1,54 @@
+package com.tourism.gateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request coalescing settings, bound from {@code gateway.coalescing.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Path patterns whose anonymous GETs may share one upstream call
+     */
+    private List<String> paths = new ArrayList<>(List.of(
+            "/api/v1/tours/{id}",
+            "/api/itineraries/tour/{tourId}",
+            "/api/v1/itineraries/tour/{tourId}"));
+
+    /**
+     * How long a follower waits for the shared response before calling upstream itself
+     */
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    /**
+     * Followers per in-flight request; further requests go upstream on their own
+     */
+    private int maxWaiters = 1000;
+
+    private int maxBodyBytes = 1024 * 1024;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<String> getPaths() { return paths; }
+    public void setPaths(List<String> paths) { this.paths = paths; }
+
+    public Duration getMaxWait() { return maxWait; }
+    public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+    public int getMaxWaiters() { return maxWaiters; }
+    public void setMaxWaiters(int maxWaiters) { this.maxWaiters = maxWaiters; }
+
+    public int getMaxBodyBytes() { return maxBodyBytes; }
+    public void setMaxBodyBytes(int maxBodyBytes) { this.maxBodyBytes = maxBodyBytes; }
+}
@@ -0,0 +1,110 @@
+package com.tourism.gateway.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded, least-recently-used store of upstream responses.
+ *
+ * Bounded both by entry count and by total body bytes. Entries are kept past
+ * their freshness for up to {@code max-stale} so they can still be served
+ * when the upstream is down.
+ */
+@Component
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    // Bumped by clear(), so a fetch that started before a write does not store its result
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Look up an entry that is still within its stale window, fresh or not
+     */
+    public synchronized CachedResponse get(String key) {
+        CachedResponse entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() > entry.getFreshUntilMillis() + properties.getMaxStale().toMillis()) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void put(String key, CachedResponse response) {
+        put(key, response, generation);
+    }
+
+    /**
+     * Store an entry unless the cache was cleared since {@code fetchGeneration} was read
+     */
+    public synchronized void put(String key, CachedResponse response, long fetchGeneration) {
+        if (fetchGeneration != generation || response.getBody().length > properties.getMaxEntryBytes()) {
+            return;
+        }
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            totalBytes -= previous.getBody().length;
+        }
+        totalBytes += response.getBody().length;
+
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > properties.getMaxEntries() || totalBytes > properties.getMaxBytes()) && eldest.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = eldest.next();
+            totalBytes -= entry.getValue().getBody().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.getBody().length;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+        generation++;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public void recordHit(boolean stale) {
+        (stale ? staleHits : hits).incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getStaleHits() { return staleHits.get(); }
+    public long getMisses() { return misses.get(); }
+}
@@ -0,0 +1,73 @@
+package com.tourism.gateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway response cache settings, bound from {@code gateway.response-cache.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Path patterns whose GET responses may be cached; a successful write to one clears the cache
+     */
+    private List<String> paths = new ArrayList<>(List.of(
+            "/api/v1/tours", "/api/v1/tours/**",
+            "/api/v1/packages", "/api/v1/packages/**",
+            "/api/tours", "/api/tours/**",
+            "/api/packages", "/api/packages/**"));
+
+    /**
+     * Freshness used when the upstream sends no max-age
+     */
+    private Duration defaultTtl = Duration.ofSeconds(30);
+
+    /**
+     * How long past freshness an entry may still be served when the upstream is unavailable
+     */
+    private Duration maxStale = Duration.ofMinutes(10);
+
+    /**
+     * How long concurrent requests wait for an in-flight fetch of the same key
+     */
+    private Duration maxWait = Duration.ofSeconds(3);
+
+    private int maxEntries = 2000;
+
+    private long maxBytes = 32L * 1024 * 1024;
+
+    private int maxEntryBytes = 1024 * 1024;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<String> getPaths() { return paths; }
+    public void setPaths(List<String> paths) { this.paths = paths; }
+
+    public Duration getDefaultTtl() { return defaultTtl; }
+    public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+
+    public Duration getMaxStale() { return maxStale; }
+    public void setMaxStale(Duration maxStale) { this.maxStale = maxStale; }
+
+    public Duration getMaxWait() { return maxWait; }
+    public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+    public long getMaxBytes() { return maxBytes; }
+    public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+
+    public int getMaxEntryBytes() { return maxEntryBytes; }
+    public void setMaxEntryBytes(int maxEntryBytes) { this.maxEntryBytes = maxEntryBytes; }
+}
@@ -0,0 +1,67 @@
+package com.tourism.gateway.capture;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One line of a capture file. Field names are kept short because there are
+ * many lines.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CapturedRequest {
+
+    /**
+     * Milliseconds since the capture started
+     */
+    private long t;
+
+    private String method;
+
+    /**
+     * Raw path and query
+     */
+    private String uri;
+
+    private String route;
+
+    private Map<String, List<String>> headers;
+
+    /**
+     * Base64-encoded body, absent when there was none or it was too large
+     */
+    private String body;
+
+    public CapturedRequest() {
+    }
+
+    public CapturedRequest(long t, String method, String uri, String route,
+                           Map<String, List<String>> headers, String body) {
+        this.t = t;
+        this.method = method;
+        this.uri = uri;
+        this.route = route;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    // Getters and Setters
+    public long getT() { return t; }
+    public void setT(long t) { this.t = t; }
+
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+
+    public String getUri() { return uri; }
+    public void setUri(String uri) { this.uri = uri; }
+
+    public String getRoute() { return route; }
+    public void setRoute(String route) { this.route = route; }
+
+    public Map<String, List<String>> getHeaders() { return headers; }
+    public void setHeaders(Map<String, List<String>> headers) { this.headers = headers; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+}
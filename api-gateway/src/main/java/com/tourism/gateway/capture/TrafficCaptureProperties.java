@@ -0,0 +1,76 @@
+package com.tourism.gateway.capture;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Traffic capture settings, bound from {@code gateway.capture.*}. Off by default.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.capture")
+public class TrafficCaptureProperties {
+
+    private boolean enabled = false;
+
+    private String file = "captures/gateway-traffic.jsonl";
+
+    /**
+     * Fraction of requests captured, between 0 and 1
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Larger request bodies are not captured; the request is recorded without one
+     */
+    private int maxBodyBytes = 64 * 1024;
+
+    /**
+     * Capture stops once the file reaches this size
+     */
+    private long maxFileBytes = 512L * 1024 * 1024;
+
+    /**
+     * Records waiting to be written; when full, new records are dropped
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Headers never written to the capture file
+     */
+    private List<String> redactedHeaders = new ArrayList<>(List.of(
+            "Authorization", "Proxy-Authorization", "Cookie", "Set-Cookie",
+            "X-User-Id", "X-User-Name", "X-User-Role", "X-Token-Expires", "X-Identity-Signature"));
+
+    /**
+     * Paths never captured at all, because their bodies carry credentials
+     */
+    private List<String> excludedPaths = new ArrayList<>(List.of("/api/auth/**", "/api/v1/auth/**"));
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+
+    public double getSampleRate() { return sampleRate; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+
+    public int getMaxBodyBytes() { return maxBodyBytes; }
+    public void setMaxBodyBytes(int maxBodyBytes) { this.maxBodyBytes = maxBodyBytes; }
+
+    public long getMaxFileBytes() { return maxFileBytes; }
+    public void setMaxFileBytes(long maxFileBytes) { this.maxFileBytes = maxFileBytes; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public List<String> getRedactedHeaders() { return redactedHeaders; }
+    public void setRedactedHeaders(List<String> redactedHeaders) { this.redactedHeaders = redactedHeaders; }
+
+    public List<String> getExcludedPaths() { return excludedPaths; }
+    public void setExcludedPaths(List<String> excludedPaths) { this.excludedPaths = excludedPaths; }
+}
@@ -0,0 +1,113 @@
+package com.tourism.gateway.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends captured requests to the capture file, one JSON object per line.
+ *
+ * Request threads only offer records to a bounded queue; a single background
+ * thread serialises and writes them, so file I/O never happens on the event
+ * loop. When the queue is full or the file has reached its size limit,
+ * records are dropped and counted.
+ */
+@Component
+public class TrafficRecorder implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficRecorder.class);
+
+    private final TrafficCaptureProperties properties;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<CapturedRequest> queue;
+    private final long startMillis = System.currentTimeMillis();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public TrafficRecorder(TrafficCaptureProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        if (properties.isEnabled()) {
+            writer = new Thread(this::writeLoop, "traffic-capture-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Milliseconds since capture started, for {@link CapturedRequest#getT()}
+     */
+    public long elapsedMillis() {
+        return System.currentTimeMillis() - startMillis;
+    }
+
+    public void record(CapturedRequest request) {
+        if (!running || !queue.offer(request)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void writeLoop() {
+        Path path = Path.of(properties.getFile());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            long size = Files.exists(path) ? Files.size(path) : 0;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024)) {
+                log.info("Capturing sampled gateway traffic to {}", path.toAbsolutePath());
+                while (running || !queue.isEmpty()) {
+                    CapturedRequest request = queue.poll(1, TimeUnit.SECONDS);
+                    if (request == null) {
+                        out.flush();
+                        continue;
+                    }
+                    if (size >= properties.getMaxFileBytes()) {
+                        dropped.incrementAndGet();
+                        continue;
+                    }
+                    byte[] line = objectMapper.writeValueAsBytes(request);
+                    out.write(line);
+                    out.write('\n');
+                    size += line.length + 1;
+                    written.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Traffic capture to {} stopped: {}", path, e.getMessage());
+            running = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getWritten() { return written.get(); }
+    public long getDropped() { return dropped.get(); }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+}
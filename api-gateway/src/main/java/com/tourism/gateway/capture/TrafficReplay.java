@@ -0,0 +1,232 @@
+package com.tourism.gateway.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a capture file written by the gateway against a running stack and
+ * reports throughput, latency percentiles and errors per route.
+ *
+ * Requests are sent open-loop: each one goes out at its scheduled time
+ * whether or not earlier ones have completed, and latency is measured from
+ * the scheduled time, so a stalled server shows up as latency instead of
+ * silently lowering the offered load. Schedules are either the captured
+ * arrival times divided by {@code --speed}, or a fixed {@code --rate}.
+ *
+ * Run with replay-traffic.sh, or:
+ * {@code java -cp api-gateway.jar -Dloader.main=com.tourism.gateway.capture.TrafficReplay
+ * org.springframework.boot.loader.PropertiesLauncher --file captures/gateway-traffic.jsonl}
+ */
+public final class TrafficReplay {
+
+    // Headers the JDK client sets itself and refuses to accept
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.addAll(List.of("Connection", "Content-Length", "Expect", "Host", "Upgrade",
+                "Transfer-Encoding"));
+    }
+
+    private final Path file;
+    private final String target;
+    private final double speed;
+    private final double rate;
+    private final String token;
+    private final Duration timeout;
+    private final long limit;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+    private TrafficReplay(Map<String, String> options) {
+        this.file = Path.of(require(options, "file"));
+        this.target = options.getOrDefault("target", "http://localhost:8080").replaceAll("/+$", "");
+        this.speed = Double.parseDouble(options.getOrDefault("speed", "1"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        this.token = options.get("token");
+        this.timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "10000")));
+        this.limit = Long.parseLong(options.getOrDefault("limit", String.valueOf(Long.MAX_VALUE)));
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help") || !options.containsKey("file")) {
+            System.out.println("""
+                    Usage: TrafficReplay --file <capture.jsonl> [options]
+                      --target <url>      base URL to replay against (default http://localhost:8080)
+                      --speed <n>         replay at n times the captured pace (default 1)
+                      --rate <rps>        ignore captured timing and send at a fixed rate
+                      --token <jwt>       bearer token added to every request
+                      --timeout-ms <ms>   per-request timeout (default 10000)
+                      --limit <n>         stop after n requests""");
+            return;
+        }
+        new TrafficReplay(options).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        ConcurrentLinkedQueue<CompletableFuture<?>> pending = new ConcurrentLinkedQueue<>();
+        long startNanos = System.nanoTime();
+        long firstCapturedMillis = -1;
+        long sent = 0;
+        long late = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null && sent < limit) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                CapturedRequest captured = objectMapper.readValue(line, CapturedRequest.class);
+                if (firstCapturedMillis < 0) {
+                    firstCapturedMillis = captured.getT();
+                }
+
+                long offsetNanos = rate > 0
+                        ? (long) (sent * 1_000_000_000L / rate)
+                        : (long) ((captured.getT() - firstCapturedMillis) * 1_000_000L / speed);
+                long scheduledNanos = startNanos + offsetNanos;
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } else if (waitNanos < -1_000_000L) {
+                    late++;
+                }
+
+                pending.add(send(captured, scheduledNanos));
+                pending.removeIf(CompletableFuture::isDone);
+                sent++;
+            }
+        }
+
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        report(sent, late, System.nanoTime() - startNanos);
+    }
+
+    private CompletableFuture<?> send(CapturedRequest captured, long scheduledNanos) {
+        String route = captured.getRoute() != null ? captured.getRoute() : "-";
+        RouteStats routeStats = stats.computeIfAbsent(route, r -> new RouteStats());
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + captured.getUri()))
+                .timeout(timeout);
+        if (captured.getHeaders() != null) {
+            captured.getHeaders().forEach((name, values) -> {
+                if (!RESTRICTED_HEADERS.contains(name)) {
+                    values.forEach(value -> builder.header(name, value));
+                }
+            });
+        }
+        if (token != null) {
+            builder.setHeader("Authorization", "Bearer " + token);
+        }
+        HttpRequest.BodyPublisher body = captured.getBody() != null
+                ? HttpRequest.BodyPublishers.ofByteArray(Base64.getDecoder().decode(captured.getBody()))
+                : HttpRequest.BodyPublishers.noBody();
+        builder.method(captured.getMethod(), body);
+
+        return client.sendAsync(builder.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - scheduledNanos;
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        routeStats.record(latency, cause.getClass().getSimpleName());
+                    } else {
+                        routeStats.record(latency, (response.statusCode() / 100) + "xx");
+                    }
+                });
+    }
+
+    private void report(long sent, long late, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nReplayed %d requests in %.1f s (%.1f req/s) against %s%n",
+                sent, seconds, sent / seconds, target);
+        if (late > 0) {
+            System.out.printf("%d requests went out more than 1 ms behind schedule%n", late);
+        }
+        System.out.printf("%n%-26s %8s %9s %9s %9s %9s %9s  %s%n",
+                "route", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "outcomes");
+        new TreeMap<>(stats).forEach((route, routeStats) -> {
+            long[] latencies = routeStats.sortedLatencies();
+            System.out.printf("%-26s %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    route, latencies.length, latencies.length / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95),
+                    percentile(latencies, 0.99), percentile(latencies, 1.0),
+                    routeStats.outcomes);
+        });
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new TreeMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                continue;
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    private static class RouteStats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Long> outcomes = new TreeMap<>();
+
+        synchronized void record(long latencyNanos, String outcome) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            outcomes.merge(outcome, 1L, Long::sum);
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.tourism.gateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for one route that adapts to the upstream's latency.
+ *
+ * Follows the gradient approach: a short-term latency average is compared
+ * with a long-term baseline. While they agree the limit grows by roughly
+ * {@code sqrt(limit)} per update, probing for more capacity; once recent
+ * latency rises beyond the tolerance, queueing has started upstream and the
+ * limit shrinks in proportion. Failures and timeouts cut the limit
+ * multiplicatively. Acquiring a permit is a single CAS; limit updates are
+ * serialised, but happen once per completed request and are cheap.
+ */
+public class AdaptiveLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+
+    private final ConcurrencyLimitProperties.Limits settings;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveLimiter(ConcurrencyLimitProperties.Limits settings) {
+        this.settings = settings;
+        this.estimatedLimit = settings.getInitialLimit();
+        this.limit = settings.getInitialLimit();
+    }
+
+    /**
+     * Take a permit, or return -1 when the route is at its limit. On success
+     * the returned value is the in-flight count at acquisition, to be passed
+     * back to {@link #onSuccess} or {@link #onDropped}.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return current + 1;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            estimatedLimit = Math.max(settings.getMinLimit(), estimatedLimit * settings.getBackoffRatio());
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    /**
+     * Release a permit without learning anything, e.g. for cancelled requests
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        samples++;
+        shortRttNanos = ewma(shortRttNanos, rttNanos, SHORT_WINDOW);
+        longRttNanos = ewma(longRttNanos, rttNanos, LONG_WINDOW);
+        if (shortRttNanos <= 0) {
+            return;
+        }
+
+        // After a load spike the baseline would stay inflated for a long time; let it catch up
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // A lightly used limit says nothing about upstream capacity
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, settings.getRttTolerance() * longRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + queueSize;
+        double smoothed = estimatedLimit * (1 - settings.getSmoothing()) + target * settings.getSmoothing();
+
+        estimatedLimit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), smoothed));
+        limit = (int) estimatedLimit;
+    }
+
+    private double ewma(double current, double sample, double window) {
+        if (samples == 1) {
+            return sample;
+        }
+        double factor = 2.0 / (Math.min(samples, window) + 1);
+        return current * (1 - factor) + sample * factor;
+    }
+
+    public int getLimit() { return limit; }
+    public int getInFlight() { return inFlight.get(); }
+    public long getAccepted() { return accepted.get(); }
+    public long getRejected() { return rejected.get(); }
+
+    public synchronized double getShortRttMillis() { return shortRttNanos / 1_000_000.0; }
+    public synchronized double getLongRttMillis() { return longRttNanos / 1_000_000.0; }
+}
@@ -0,0 +1,91 @@
+package com.tourism.gateway.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits, bound from {@code gateway.concurrency-limit.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private Limits defaults = new Limits();
+
+    /**
+     * Overrides of the default bounds per route ID
+     */
+    private Map<String, Limits> routes = new HashMap<>();
+
+    /**
+     * Seconds suggested to shed clients in Retry-After
+     */
+    private int retryAfterSeconds = 1;
+
+    public Limits limitsFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    /**
+     * Starting point and bounds of a route's discovered limit
+     */
+    public static class Limits {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 500;
+
+        /**
+         * How much the recent latency may exceed the long-term baseline before the limit shrinks
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * Weight of each new estimate when moving the limit, between 0 and 1
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Multiplier applied to the limit when a request fails or times out
+         */
+        private double backoffRatio = 0.9;
+
+        public int getInitialLimit() { return initialLimit; }
+        public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+        public int getMinLimit() { return minLimit; }
+        public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+        public int getMaxLimit() { return maxLimit; }
+        public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+        public double getRttTolerance() { return rttTolerance; }
+        public void setRttTolerance(double rttTolerance) { this.rttTolerance = rttTolerance; }
+
+        public double getSmoothing() { return smoothing; }
+        public void setSmoothing(double smoothing) { this.smoothing = smoothing; }
+
+        public double getBackoffRatio() { return backoffRatio; }
+        public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Limits getDefaults() { return defaults; }
+    public void setDefaults(Limits defaults) { this.defaults = defaults; }
+
+    public Map<String, Limits> getRoutes() { return routes; }
+    public void setRoutes(Map<String, Limits> routes) { this.routes = routes; }
+
+    public int getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(int retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+}
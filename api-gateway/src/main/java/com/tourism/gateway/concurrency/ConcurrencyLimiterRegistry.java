@@ -0,0 +1,54 @@
+package com.tourism.gateway.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link AdaptiveLimiter} per route, each published as Micrometer meters
+ * tagged with the route ID.
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AdaptiveLimiter forRoute(String routeId) {
+        AdaptiveLimiter limiter = limiters.get(routeId);
+        if (limiter != null) {
+            return limiter;
+        }
+        return limiters.computeIfAbsent(routeId, id -> {
+            AdaptiveLimiter created = new AdaptiveLimiter(properties.limitsFor(id));
+            register(id, created);
+            return created;
+        });
+    }
+
+    private void register(String routeId, AdaptiveLimiter limiter) {
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveLimiter::getLimit)
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limiter, AdaptiveLimiter::getInFlight)
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.concurrency.rejected", limiter, AdaptiveLimiter::getRejected)
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+    }
+
+    public Map<String, AdaptiveLimiter> getLimiters() {
+        return limiters;
+    }
+}
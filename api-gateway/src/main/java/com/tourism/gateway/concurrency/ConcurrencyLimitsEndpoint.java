@@ -0,0 +1,49 @@
+package com.tourism.gateway.concurrency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/concurrencylimits}: the current limit, load and rejection
+ * count of every route.
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+public class ConcurrencyLimitsEndpoint {
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitsEndpoint(ConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> limits() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        registry.getLimiters().forEach((routeId, limiter) -> result.put(routeId, describe(limiter)));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> limit(@Selector String routeId) {
+        AdaptiveLimiter limiter = registry.getLimiters().get(routeId);
+        return limiter != null ? describe(limiter) : null;
+    }
+
+    private static Map<String, Object> describe(AdaptiveLimiter limiter) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("limit", limiter.getLimit());
+        details.put("inFlight", limiter.getInFlight());
+        details.put("accepted", limiter.getAccepted());
+        details.put("rejected", limiter.getRejected());
+        details.put("shortRttMs", limiter.getShortRttMillis());
+        details.put("longRttMs", limiter.getLongRttMillis());
+        return details;
+    }
+}
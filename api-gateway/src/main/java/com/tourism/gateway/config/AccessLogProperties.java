@@ -0,0 +1,44 @@
+package com.tourism.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Access log sampling, bound from {@code gateway.access-log.*}.
+ *
+ * Rates are fractions between 0 and 1. Failed requests (5xx or errors) are
+ * always logged regardless of the sample rate.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    private double sampleRate = 1.0;
+
+    private Map<String, Double> routes = new HashMap<>();
+
+    /**
+     * Sample rate for a route ID, falling back to the default rate
+     */
+    public double sampleRateFor(String routeId) {
+        if (routeId == null) {
+            return sampleRate;
+        }
+        return routes.getOrDefault(routeId, sampleRate);
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public double getSampleRate() { return sampleRate; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+
+    public Map<String, Double> getRoutes() { return routes; }
+    public void setRoutes(Map<String, Double> routes) { this.routes = routes; }
+}
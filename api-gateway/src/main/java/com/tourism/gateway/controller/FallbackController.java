@@ -0,0 +1,55 @@
+package com.tourism.gateway.controller;
+
+import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.gateway.cache.CachedResponse;
+import com.tourism.gateway.cache.ResponseCache;
+import com.tourism.gateway.filter.ResponseCacheFilter;
+import com.tourism.gateway.support.ApiErrorWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Targets of the circuit breakers' {@code fallbackUri}.
+ *
+ * When the response cache holds an entry for the failed request, it is served
+ * (however stale) with {@code X-Cache: STALE}. Otherwise the client receives a
+ * 503 in the usual {@link ApiResponse} envelope.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private final ResponseCache responseCache;
+    private final ApiErrorWriter errorWriter;
+
+    public FallbackController(ResponseCache responseCache, ApiErrorWriter errorWriter) {
+        this.responseCache = responseCache;
+        this.errorWriter = errorWriter;
+    }
+
+    @RequestMapping("/tourism-core")
+    public Mono<Void> tourismCoreFallback(ServerWebExchange exchange) {
+        return fallback(exchange, "Tourism service is temporarily unavailable. Please try again later.");
+    }
+
+    @RequestMapping("/itinerary")
+    public Mono<Void> itineraryFallback(ServerWebExchange exchange) {
+        return fallback(exchange, "Itinerary service is temporarily unavailable. Please try again later.");
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, String message) {
+        exchange.getAttributes().put(ResponseCacheFilter.FALLBACK_ATTR, Boolean.TRUE);
+
+        String key = exchange.getAttribute(ResponseCacheFilter.CACHE_KEY_ATTR);
+        CachedResponse cached = key != null ? responseCache.get(key) : null;
+        if (cached != null) {
+            responseCache.recordHit(true);
+            return ResponseCacheFilter.writeCached(exchange, cached, "STALE");
+        }
+
+        return errorWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tourism.gateway.controller;
+
+import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.gateway.aggregation.TourPageAggregator;
+import com.tourism.gateway.aggregation.TourPageResponse;
+import com.tourism.gateway.filter.RequestResponseLoggingFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Backend-for-frontend endpoint returning a whole tour page in one round trip.
+ *
+ * Clients call {@code /api/v1/pages/tours/{tourId}}, which the {@code tour-page}
+ * route forwards here, so the request passes through the same global filters
+ * (authentication, rate limiting, concurrency limits, metrics and access
+ * logging) as proxied routes. Requests that reach this path directly are
+ * refused.
+ */
+@RestController
+@RequestMapping(TourPageController.FORWARD_PATH)
+public class TourPageController {
+
+    public static final String FORWARD_PATH = "/internal/pages";
+
+    // Only these client headers are passed downstream; identity headers never are
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_LANGUAGE, RequestResponseLoggingFilter.REQUEST_ID_HEADER);
+
+    private final TourPageAggregator aggregator;
+
+    public TourPageController(TourPageAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    @GetMapping("/tours/{tourId}")
+    public Mono<ResponseEntity<ApiResponse<TourPageResponse>>> getTourPage(@PathVariable Long tourId,
+                                                                           ServerWebExchange exchange) {
+        if (exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR) == null) {
+            return Mono.just(error(HttpStatus.NOT_FOUND, "Not found"));
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders forwarded = new HttpHeaders();
+        for (String name : FORWARDED_HEADERS) {
+            List<String> values = request.getHeaders().get(name);
+            if (values != null) {
+                forwarded.put(name, values);
+            }
+        }
+
+        return aggregator.aggregate(tourId, forwarded)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(
+                        page.isPartial() ? "Tour page retrieved with some sections unavailable"
+                                : "Tour page retrieved successfully", page)))
+                .onErrorResume(WebClientResponseException.NotFound.class, e ->
+                        Mono.just(error(HttpStatus.NOT_FOUND, "Tour not found with id: " + tourId)))
+                .onErrorResume(TimeoutException.class, e ->
+                        Mono.just(error(HttpStatus.GATEWAY_TIMEOUT, "Tour service did not respond in time")))
+                .onErrorResume(e ->
+                        Mono.just(error(HttpStatus.SERVICE_UNAVAILABLE,
+                                "Tour service is temporarily unavailable. Please try again later.")));
+    }
+
+    private static ResponseEntity<ApiResponse<TourPageResponse>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(ApiResponse.error(message));
+    }
+}
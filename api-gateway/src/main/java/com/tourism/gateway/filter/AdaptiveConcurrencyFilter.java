@@ -0,0 +1,97 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.gateway.concurrency.AdaptiveLimiter;
+import com.tourism.gateway.concurrency.ConcurrencyLimitProperties;
+import com.tourism.gateway.concurrency.ConcurrencyLimiterRegistry;
+import com.tourism.gateway.support.ApiErrorWriter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load once a route has as many requests in flight as its upstream can
+ * sustain, answering the excess immediately with 503 and Retry-After.
+ *
+ * The limit per route is discovered by {@link AdaptiveLimiter} from the time
+ * to the upstream's response headers, so requests are turned away while
+ * latency is still reasonable rather than after queues inside the service
+ * have filled up and the circuit breaker has started to trip. Responses
+ * written by a circuit breaker fallback are not used as samples.
+ */
+@Component
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    private final ConcurrencyLimitProperties properties;
+    private final ConcurrencyLimiterRegistry registry;
+    private final ApiErrorWriter errorWriter;
+
+    public AdaptiveConcurrencyFilter(ConcurrencyLimitProperties properties, ConcurrencyLimiterRegistry registry,
+                                     ApiErrorWriter errorWriter) {
+        this.properties = properties;
+        this.registry = registry;
+        this.errorWriter = errorWriter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        AdaptiveLimiter limiter = registry.forRoute(route.getId());
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(properties.getRetryAfterSeconds()));
+            return errorWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Service is at capacity. Please try again shortly.");
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+
+        // Upstream time ends when its response is about to be sent on, not when the client has read it
+        exchange.getResponse().beforeCommit(() -> {
+            if (released.compareAndSet(false, true)) {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (exchange.getAttribute(ResponseCacheFilter.FALLBACK_ATTR) != null) {
+                    // Written by the circuit breaker's fallback, so its timing says nothing about the upstream
+                    limiter.onIgnore();
+                } else if (status != null && status.is5xxServerError()) {
+                    limiter.onDropped();
+                } else {
+                    limiter.onSuccess(System.nanoTime() - start, inFlight);
+                }
+            }
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (released.compareAndSet(false, true)) {
+                        if (signal == SignalType.ON_ERROR) {
+                            limiter.onDropped();
+                        } else {
+                            limiter.onIgnore();
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.CONCURRENCY_LIMIT;
+    }
+}
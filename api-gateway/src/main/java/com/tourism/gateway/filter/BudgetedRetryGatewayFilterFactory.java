@@ -0,0 +1,222 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.gateway.retry.RetryBudget;
+import com.tourism.gateway.retry.RetryBudgetRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Route filter that retries failed upstream calls within a retry budget.
+ *
+ * Only idempotent methods are retried, plus requests that carry an
+ * idempotency key. Connection failures, timeouts and the configured gateway
+ * statuses (502/503/504 by default) are retried with exponential backoff and
+ * full jitter, and every retry must be paid for from the route's
+ * {@link RetryBudget}. Use as {@code - name: BudgetedRetry} in a route.
+ */
+@Component
+public class BudgetedRetryGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<BudgetedRetryGatewayFilterFactory.Config> {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final RetryBudgetRegistry budgets;
+
+    public BudgetedRetryGatewayFilterFactory(RetryBudgetRegistry budgets) {
+        super(Config.class);
+        this.budgets = budgets;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (config.getRetries() <= 0 || !isRetryable(request, config)) {
+                return chain.filter(exchange);
+            }
+
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (route != null && "forward".equals(route.getUri().getScheme())) {
+                // Answered inside the gateway, which applies its own timeouts; there is no upstream to retry
+                return chain.filter(exchange);
+            }
+            RetryBudget budget = budgets.deposit(exchange, route != null ? route.getId() : "-");
+
+            if (hasBody(request)) {
+                // Buffer the body once so every attempt can resend it
+                return ServerWebExchangeUtils.cacheRequestBody(exchange, cached ->
+                        attempt(exchange.mutate().request(cached).build(), chain, config, budget, 0));
+            }
+            return attempt(exchange, chain, config, budget, 0);
+        };
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                               RetryBudget budget, int attempt) {
+        boolean last = attempt >= config.getRetries();
+        ServerWebExchange attemptExchange = last ? exchange : exchange.mutate()
+                .response(new RetryableStatusDecorator(exchange.getResponse(), config.getStatuses(), budget))
+                .build();
+
+        return chain.filter(attemptExchange)
+                .onErrorResume(error -> {
+                    boolean retry;
+                    if (error instanceof RetryableStatusException) {
+                        // The decorator already paid for this retry
+                        retry = true;
+                    } else {
+                        retry = !last && isRetryable(error) && !exchange.getResponse().isCommitted()
+                                && budget.tryWithdraw();
+                    }
+                    if (!retry) {
+                        return Mono.error(error);
+                    }
+                    return Mono.delay(backoff(config, attempt))
+                            .then(Mono.defer(() -> {
+                                ServerWebExchangeUtils.reset(exchange);
+                                return attempt(exchange, chain, config, budget, attempt + 1);
+                            }));
+                });
+    }
+
+    /**
+     * Exponential backoff with full jitter: uniform between zero and the capped exponential delay
+     */
+    private static Duration backoff(Config config, int attempt) {
+        long first = config.getFirstBackoff().toMillis();
+        long cap = Math.min(config.getMaxBackoff().toMillis(), first << Math.min(attempt, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    private static boolean isRetryable(ServerHttpRequest request, Config config) {
+        if (IDEMPOTENT_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String key = config.getIdempotencyKeyHeader();
+        return key != null && request.getHeaders().containsKey(key);
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return error instanceof IOException || error instanceof TimeoutException;
+    }
+
+    private static boolean hasBody(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    /**
+     * Discards a retryable error response instead of writing it, provided the
+     * budget allows another attempt, so the client never sees it
+     */
+    private static class RetryableStatusDecorator extends ServerHttpResponseDecorator {
+
+        private final List<Integer> statuses;
+        private final RetryBudget budget;
+
+        RetryableStatusDecorator(ServerHttpResponse delegate, List<Integer> statuses, RetryBudget budget) {
+            super(delegate);
+            this.statuses = statuses;
+            this.budget = budget;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (shouldRetry()) {
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(Mono.error(new RetryableStatusException()));
+            }
+            return super.writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            if (shouldRetry()) {
+                return Flux.from(body).flatMap(Flux::from).doOnNext(DataBufferUtils::release)
+                        .then(Mono.error(new RetryableStatusException()));
+            }
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            if (shouldRetry()) {
+                return Mono.error(new RetryableStatusException());
+            }
+            return super.setComplete();
+        }
+
+        private boolean shouldRetry() {
+            HttpStatusCode status = getStatusCode();
+            return status != null && statuses.contains(status.value()) && budget.tryWithdraw();
+        }
+    }
+
+    private static class RetryableStatusException extends RuntimeException {
+
+        RetryableStatusException() {
+            super(null, null, false, false);
+        }
+    }
+
+    public static class Config {
+
+        private int retries = 2;
+
+        private List<Integer> statuses = new ArrayList<>(List.of(502, 503, 504));
+
+        private Duration firstBackoff = Duration.ofMillis(50);
+
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Requests carrying this header are retried even when the method is not idempotent
+         */
+        private String idempotencyKeyHeader = "Idempotency-Key";
+
+        public int getRetries() { return retries; }
+        public void setRetries(int retries) { this.retries = retries; }
+
+        public List<Integer> getStatuses() { return statuses; }
+        public void setStatuses(List<Integer> statuses) { this.statuses = statuses; }
+
+        public Duration getFirstBackoff() { return firstBackoff; }
+        public void setFirstBackoff(Duration firstBackoff) { this.firstBackoff = firstBackoff; }
+
+        public Duration getMaxBackoff() { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+
+        public String getIdempotencyKeyHeader() { return idempotencyKeyHeader; }
+        public void setIdempotencyKeyHeader(String idempotencyKeyHeader) { this.idempotencyKeyHeader = idempotencyKeyHeader; }
+    }
+}
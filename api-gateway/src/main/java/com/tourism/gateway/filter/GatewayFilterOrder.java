@@ -0,0 +1,34 @@
+package com.tourism.gateway.filter;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Relative order of the gateway's global filters.
+ *
+ * Route filters declared in application.yml are ordered from 1 upwards, so
+ * the negative values here run before them (and before the circuit breaker).
+ * Filters that replace the routing step itself sit between the load balancer
+ * filter and the Netty routing filter.
+ */
+public final class GatewayFilterOrder {
+
+    // Outermost, so route latency covers every other filter
+    public static final int ROUTE_METRICS = -40;
+    public static final int ACCESS_LOG = -30;
+    // Before authentication and limits, so rejected traffic is part of the load profile
+    public static final int TRAFFIC_CAPTURE = -25;
+    public static final int EDGE_AUTHENTICATION = -20;
+    // After authentication so authenticated callers are limited by user ID
+    public static final int RATE_LIMIT = -15;
+    public static final int RESPONSE_CACHE = -10;
+    public static final int REQUEST_COALESCING = -5;
+    // Only requests that will actually reach an upstream hold a permit
+    public static final int CONCURRENCY_LIMIT = -3;
+
+    // After ReactiveLoadBalancerClientFilter (10150) has chosen an instance
+    public static final int UPSTREAM_TIMING = Ordered.LOWEST_PRECEDENCE - 2;
+    public static final int HEDGING = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private GatewayFilterOrder() {
+    }
+}
@@ -0,0 +1,267 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.gateway.metrics.RequestTiming;
+import com.tourism.gateway.metrics.RouteMetricsRegistry;
+import com.tourism.gateway.retry.LatencyTracker;
+import com.tourism.gateway.retry.RetryBudget;
+import com.tourism.gateway.retry.RetryBudgetRegistry;
+import com.tourism.gateway.retry.RetryProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged requests for catalogue GETs.
+ *
+ * Runs in place of the Netty routing filter for GETs on the configured paths.
+ * The request goes to the load-balanced instance as usual; if it has not
+ * answered within the route's recent p95 latency, a second attempt is sent to
+ * another instance and whichever answers first wins; the other is cancelled.
+ * Hedges draw from the same per-route budget as retries, so a slow downstream
+ * cannot be flooded by them. Each attempt is bounded by {@code response-timeout},
+ * and failures surface as errors {@code BudgetedRetry} can retry.
+ *
+ * Because the attempts overlap, they are timed here rather than by
+ * {@link UpstreamTimingFilter}: each counts as an attempt against its own
+ * instance, and the exchange's upstream time is the time until one of them
+ * was usable.
+ */
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Set while this filter handles an attempt, telling {@link UpstreamTimingFilter} it has been timed
+     */
+    public static final String TIMED_ATTR = HedgingFilter.class.getName() + ".timed";
+
+    private static final int LATENCY_WINDOW = 1024;
+
+    private final RetryProperties.Hedging properties;
+    private final RetryBudgetRegistry budgets;
+    private final RouteMetricsRegistry metrics;
+    private final LoadBalancerClientFactory loadBalancers;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final WebClient webClient;
+    private final List<PathPattern> patterns;
+    private final ConcurrentHashMap<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+    public HedgingFilter(RetryProperties properties, RetryBudgetRegistry budgets, RouteMetricsRegistry metrics,
+                         LoadBalancerClientFactory loadBalancers,
+                         ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                         WebClient.Builder webClientBuilder) {
+        this.properties = properties.getHedging();
+        this.budgets = budgets;
+        this.metrics = metrics;
+        this.loadBalancers = loadBalancers;
+        this.headersFilters = headersFilters;
+        this.webClient = webClientBuilder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(this.properties.getMaxBodyBytes()))
+                .build();
+        this.patterns = this.properties.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (!properties.isEnabled() || route == null || requestUrl == null
+                || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                || !"lb".equals(route.getUri().getScheme())
+                || exchange.getRequest().getMethod() != HttpMethod.GET
+                || !matches(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+
+        LatencyTracker tracker = latencies.computeIfAbsent(route.getId(),
+                id -> new LatencyTracker(LATENCY_WINDOW, properties.getPercentile()));
+        RetryBudget budget = budgets.deposit(exchange, route.getId());
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+        headers.remove(HttpHeaders.HOST);
+
+        RequestTiming timing = exchange.getAttribute(RequestTiming.ATTRIBUTE);
+        exchange.getAttributes().put(TIMED_ATTR, Boolean.TRUE);
+        AttemptRecorder recorder = (uri, nanos) -> {
+            if (timing != null) {
+                String instance = uri.getAuthority() != null ? uri.getAuthority() : "unknown";
+                metrics.recordConcurrentAttempt(timing, route.getId(), instance, nanos);
+            }
+        };
+        long start = System.nanoTime();
+        Runnable recordUpstream = () -> {
+            if (timing != null) {
+                metrics.recordConcurrentUpstream(timing, System.nanoTime() - start);
+            }
+        };
+
+        // Kept so the primary's outcome can be reported when neither attempt is usable,
+        // without caching the primary and so keeping it alive once the hedge has won
+        AtomicReference<ResponseEntity<byte[]>> primaryResponse = new AtomicReference<>();
+        AtomicReference<Throwable> primaryError = new AtomicReference<>();
+        Mono<ResponseEntity<byte[]>> primary = send(requestUrl, headers, tracker, recorder)
+                .doOnNext(primaryResponse::set)
+                .doOnError(primaryError::set);
+
+        long p95 = tracker.percentileNanos(properties.getMinSamples());
+        if (p95 < 0) {
+            // Not enough history to know what "slow" means yet
+            return primary.doFinally(signal -> recordUpstream.run())
+                    .flatMap(entity -> write(exchange, entity))
+                    .onErrorMap(DataBufferLimitException.class, HedgingFilter::tooLarge)
+                    .then(Mono.defer(() -> chain.filter(exchange)));
+        }
+
+        Duration delay = Duration.ofNanos(Math.max(p95, properties.getMinDelay().toNanos()));
+        String serviceId = route.getUri().getHost();
+        Mono<ResponseEntity<byte[]>> hedge = Mono.delay(delay)
+                .filter(tick -> budget.tryWithdraw())
+                .flatMap(tick -> otherInstance(serviceId, requestUrl))
+                .flatMap(uri -> send(uri, headers, tracker, recorder));
+
+        // The first usable response wins and the other attempt is cancelled, releasing its connection
+        return Mono.firstWithValue(primary.filter(HedgingFilter::isUsable), hedge.filter(HedgingFilter::isUsable))
+                .onErrorResume(e -> {
+                    // Neither attempt produced a usable response: report the primary's outcome
+                    if (primaryResponse.get() != null) {
+                        return Mono.just(primaryResponse.get());
+                    }
+                    return Mono.error(primaryError.get() != null ? primaryError.get() : e);
+                })
+                .doFinally(signal -> recordUpstream.run())
+                .flatMap(entity -> write(exchange, entity))
+                .onErrorMap(DataBufferLimitException.class, HedgingFilter::tooLarge)
+                .then(Mono.defer(() -> chain.filter(exchange)));
+    }
+
+    private Mono<ResponseEntity<byte[]>> send(URI uri, HttpHeaders headers, LatencyTracker tracker,
+                                              AttemptRecorder recorder) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri(uri)
+                    .headers(h -> h.addAll(headers))
+                    .exchangeToMono(response -> response.toEntity(byte[].class))
+                    .timeout(properties.getResponseTimeout())
+                    .doOnNext(entity -> tracker.record(System.nanoTime() - start))
+                    // Failed and cancelled attempts still went upstream, so they count too
+                    .doFinally(signal -> recorder.record(uri, System.nanoTime() - start));
+        })
+        // Surface connection failures as I/O errors so BudgetedRetry still retries them
+        .onErrorMap(WebClientRequestException.class,
+                e -> e.getCause() instanceof IOException io ? io : new IOException(e.getMessage(), e));
+    }
+
+    /**
+     * The upstream answered but the body is too large to buffer; sending the request again would not help
+     */
+    private static Throwable tooLarge(DataBufferLimitException e) {
+        return new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Upstream response exceeds the hedging body limit", e);
+    }
+
+    /**
+     * A different instance of the service, or nothing when there is no other
+     */
+    private Mono<URI> otherInstance(String serviceId, URI primaryUrl) {
+        ReactorServiceInstanceLoadBalancer loadBalancer =
+                loadBalancers.getInstance(serviceId, ReactorServiceInstanceLoadBalancer.class);
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+        return loadBalancer.choose(new DefaultRequest<>())
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .filter(instance -> !(instance.getHost().equals(primaryUrl.getHost())
+                        && instance.getPort() == primaryUrl.getPort()))
+                .map(instance -> withInstance(primaryUrl, instance));
+    }
+
+    private static URI withInstance(URI url, ServiceInstance instance) {
+        return UriComponentsBuilder.fromUri(url)
+                .scheme(instance.isSecure() ? "https" : "http")
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<byte[]> entity) {
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(entity.getStatusCode());
+
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(), entity.getHeaders(),
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        filtered.remove(HttpHeaders.TRANSFER_ENCODING);
+        filtered.remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().putAll(filtered);
+        // Lets a retry clear these headers before its next attempt
+        exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES, Set.copyOf(filtered.keySet()));
+
+        byte[] body = entity.getBody() != null ? entity.getBody() : new byte[0];
+        response.getHeaders().setContentLength(body.length);
+        if (body.length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static boolean isUsable(ResponseEntity<byte[]> entity) {
+        return !entity.getStatusCode().is5xxServerError();
+    }
+
+    private boolean matches(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.HEDGING;
+    }
+
+    @FunctionalInterface
+    private interface AttemptRecorder {
+
+        void record(URI uri, long nanos);
+    }
+}
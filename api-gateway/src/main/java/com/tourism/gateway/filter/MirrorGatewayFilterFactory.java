@@ -0,0 +1,271 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.gateway.mirror.MirrorClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route filter that copies a share of a route's traffic to a shadow upstream.
+ *
+ * GETs are mirrored, plus POSTs on explicitly listed paths that are known not
+ * to change anything (price quotes and the like). The copy is sent on
+ * {@link MirrorClient}'s own pool, is never waited for and its response is
+ * discarded; if the mirror pool is saturated the request simply is not
+ * mirrored. An exchange is mirrored at most once, however often retries
+ * send it back through this filter. Once both sides have answered, their
+ * statuses and their times to response headers are recorded per route; on
+ * the primary side only the attempt that produced the response is timed.
+ * Use as {@code - name: Mirror} with a {@code shadowUri}.
+ */
+@Component
+public class MirrorGatewayFilterFactory extends AbstractGatewayFilterFactory<MirrorGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(MirrorGatewayFilterFactory.class);
+
+    /**
+     * Set on an exchange's first pass: the {@link Primary} being compared, or FALSE when not mirrored
+     */
+    public static final String MIRRORED_ATTR = MirrorGatewayFilterFactory.class.getName() + ".mirrored";
+
+    // Bounds how long a shadow result waits for a primary that never commits a response
+    private static final Duration PRIMARY_WAIT = Duration.ofMinutes(1);
+
+    private final MirrorClient mirrorClient;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public MirrorGatewayFilterFactory(MirrorClient mirrorClient, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.mirrorClient = mirrorClient;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        URI shadow = URI.create(config.getShadowUri());
+        List<PathPattern> postPaths = config.getPostPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+
+        return (exchange, chain) -> {
+            // Retries pass through here again; the first pass decides for the whole exchange
+            Object decided = exchange.getAttribute(MIRRORED_ATTR);
+            if (decided != null) {
+                return decided instanceof Primary primary ? primary.attempt(exchange, chain) : chain.filter(exchange);
+            }
+
+            ServerHttpRequest request = exchange.getRequest();
+            boolean isGet = request.getMethod() == HttpMethod.GET;
+            boolean isSafePost = request.getMethod() == HttpMethod.POST
+                    && matches(postPaths, request.getPath().pathWithinApplication());
+            if ((!isGet && !isSafePost)
+                    || ThreadLocalRandom.current().nextDouble(100.0) >= config.getPercentage()) {
+                exchange.getAttributes().put(MIRRORED_ATTR, Boolean.FALSE);
+                return chain.filter(exchange);
+            }
+
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            Meters routeMeters = meters.computeIfAbsent(route != null ? route.getId() : "-", this::createMeters);
+
+            if (isSafePost) {
+                // Buffer the body once so both sides can send it
+                return ServerWebExchangeUtils.cacheRequestBody(exchange, cached -> {
+                    DataBuffer buffer = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+                    byte[] body = null;
+                    if (buffer != null) {
+                        // Copy without moving the read position the primary request will use
+                        int position = buffer.readPosition();
+                        body = new byte[buffer.readableByteCount()];
+                        buffer.read(body);
+                        buffer.readPosition(position);
+                    }
+                    return mirror(exchange.mutate().request(cached).build(), chain, config, shadow, body, routeMeters);
+                });
+            }
+            return mirror(exchange, chain, config, shadow, null, routeMeters);
+        };
+    }
+
+    private Mono<Void> mirror(ServerWebExchange exchange, GatewayFilterChain chain, Config config, URI shadow,
+                              byte[] body, Meters routeMeters) {
+        ServerHttpRequest request = exchange.getRequest();
+        URI target = UriComponentsBuilder.fromUri(shadow)
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(request.getHeaders());
+        headers.remove(HttpHeaders.HOST);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.set("X-Mirrored", "true");
+
+        Primary primary = new Primary();
+        exchange.getAttributes().put(MIRRORED_ATTR, primary);
+
+        // Subscribed independently; the primary response never waits on it
+        mirrorClient.send(request.getMethod(), target, headers, body, config.getTimeout())
+                .map(response -> new Result(response.getStatus(), response.getNanos()))
+                .onErrorResume(e -> {
+                    routeMeters.shadowErrors.increment();
+                    log.debug("Mirror to {} failed: {}", target, e.toString());
+                    return Mono.empty();
+                })
+                .zipWith(primary.result.asMono().timeout(PRIMARY_WAIT, Mono.empty()))
+                .subscribe(results -> compare(routeMeters, request, results.getT1(), results.getT2()));
+
+        exchange.getResponse().beforeCommit(() -> {
+            primary.result.tryEmitValue(new Result(exchange.getResponse().getStatusCode(),
+                    System.nanoTime() - primary.attemptStart));
+            return Mono.empty();
+        });
+        return primary.attempt(exchange, chain);
+    }
+
+    private void compare(Meters routeMeters, ServerHttpRequest request, Result shadow, Result primary) {
+        routeMeters.shadowLatency.record(shadow.nanos, TimeUnit.NANOSECONDS);
+        routeMeters.primaryLatency.record(primary.nanos, TimeUnit.NANOSECONDS);
+        int shadowStatus = shadow.status != null ? shadow.status.value() : 0;
+        int primaryStatus = primary.status != null ? primary.status.value() : 0;
+        if (shadowStatus == primaryStatus) {
+            routeMeters.statusMatches.increment();
+        } else {
+            routeMeters.statusMismatches.increment();
+            log.debug("Mirror status mismatch for {} {}: primary={} shadow={}",
+                    request.getMethod(), request.getPath().value(), primaryStatus, shadowStatus);
+        }
+    }
+
+    private Meters createMeters(String routeId) {
+        return new Meters(
+                Timer.builder("gateway.mirror.latency").tag("routeId", routeId).tag("target", "primary")
+                        .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry),
+                Timer.builder("gateway.mirror.latency").tag("routeId", routeId).tag("target", "shadow")
+                        .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry),
+                Counter.builder("gateway.mirror.comparisons").tag("routeId", routeId).tag("status", "match")
+                        .register(meterRegistry),
+                Counter.builder("gateway.mirror.comparisons").tag("routeId", routeId).tag("status", "mismatch")
+                        .register(meterRegistry),
+                Counter.builder("gateway.mirror.comparisons").tag("routeId", routeId).tag("status", "shadow_error")
+                        .register(meterRegistry));
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The primary side of a mirrored exchange, shared by all of its attempts
+     */
+    private static class Primary {
+
+        final Sinks.One<Result> result = Sinks.one();
+        volatile long attemptStart;
+
+        Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain) {
+            attemptStart = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                // A failed attempt may yet be retried, or answered by the error handler, which commits
+                if (signal != SignalType.ON_ERROR || exchange.getResponse().isCommitted()) {
+                    result.tryEmitEmpty();
+                }
+            });
+        }
+    }
+
+    private static class Result {
+
+        final HttpStatusCode status;
+        final long nanos;
+
+        Result(HttpStatusCode status, long nanos) {
+            this.status = status;
+            this.nanos = nanos;
+        }
+    }
+
+    private static class Meters {
+
+        final Timer primaryLatency;
+        final Timer shadowLatency;
+        final Counter statusMatches;
+        final Counter statusMismatches;
+        final Counter shadowErrors;
+
+        Meters(Timer primaryLatency, Timer shadowLatency, Counter statusMatches, Counter statusMismatches,
+               Counter shadowErrors) {
+            this.primaryLatency = primaryLatency;
+            this.shadowLatency = shadowLatency;
+            this.statusMatches = statusMatches;
+            this.statusMismatches = statusMismatches;
+            this.shadowErrors = shadowErrors;
+        }
+    }
+
+    public static class Config {
+
+        /**
+         * Where copies go, e.g. lb://tourism-core-service-canary or http://host:port
+         */
+        private String shadowUri;
+
+        /**
+         * Share of eligible requests to mirror, 0-100
+         */
+        private double percentage = 10;
+
+        /**
+         * POST paths that are safe to send twice
+         */
+        private List<String> postPaths = new ArrayList<>();
+
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public String getShadowUri() { return shadowUri; }
+        public void setShadowUri(String shadowUri) { this.shadowUri = shadowUri; }
+
+        public double getPercentage() { return percentage; }
+        public void setPercentage(double percentage) { this.percentage = percentage; }
+
+        public List<String> getPostPaths() { return postPaths; }
+        public void setPostPaths(List<String> postPaths) { this.postPaths = postPaths; }
+
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    }
+}
@@ -0,0 +1,128 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.common.security.IdentityHeaders;
+import com.tourism.gateway.ratelimit.RateLimitProperties;
+import com.tourism.gateway.ratelimit.RateLimiterRegistry;
+import com.tourism.gateway.ratelimit.TokenBucket;
+import com.tourism.gateway.support.ApiErrorWriter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Per-client, per-route rate limiting with in-memory token buckets.
+ *
+ * Authenticated callers are limited by user ID, anonymous callers by remote
+ * address. Every routed response carries RateLimit-Limit, RateLimit-Remaining
+ * and RateLimit-Reset; rejected requests get a 429 with Retry-After. No
+ * external store is involved, so limits apply per gateway instance.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private final RateLimitProperties properties;
+    private final RateLimiterRegistry registry;
+    private final ApiErrorWriter errorWriter;
+    private final List<PathRule> pathRules;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimiterRegistry registry, ApiErrorWriter errorWriter) {
+        this.properties = properties;
+        this.registry = registry;
+        this.errorWriter = errorWriter;
+        this.pathRules = properties.getPaths().stream()
+                .map(limit -> new PathRule(PathPatternParser.defaultInstance.parse(limit.getPattern()), limit))
+                .toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String client = clientKey(exchange);
+
+        // A matching path rule replaces the route limit and has its own buckets
+        String scope = "route:" + route.getId();
+        RateLimitProperties.Limit limit = properties.limitFor(route.getId());
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathRule rule : pathRules) {
+            if (rule.matches(path, request.getMethod().name())) {
+                scope = "path:" + rule.limit.getPattern();
+                limit = rule.limit;
+                break;
+            }
+        }
+
+        TokenBucket.Result result = registry.tryConsume(scope + "|" + client, limit);
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(LIMIT_HEADER, String.valueOf(result.getLimit()));
+        headers.set(REMAINING_HEADER, String.valueOf(result.getRemaining()));
+        headers.set(RESET_HEADER, String.valueOf(result.getResetSeconds()));
+
+        if (!result.isAllowed()) {
+            return tooManyRequests(exchange, result);
+        }
+        return chain.filter(exchange);
+    }
+
+    private String clientKey(ServerWebExchange exchange) {
+        IdentityHeaders identity = exchange.getAttribute(IdentityHeaders.class.getName());
+        // Tokens without a user id would otherwise all share one "user:null" bucket
+        if (identity != null && identity.getUserId() != null) {
+            return "user:" + identity.getUserId();
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + (remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString());
+    }
+
+    private Mono<Void> tooManyRequests(ServerWebExchange exchange, TokenBucket.Result result) {
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, result.getRetryAfterSeconds())));
+        return errorWriter.write(exchange, HttpStatus.TOO_MANY_REQUESTS,
+                "Too many requests. Please slow down and try again later.");
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.RATE_LIMIT;
+    }
+
+    private static class PathRule {
+
+        private final PathPattern pattern;
+        private final RateLimitProperties.PathLimit limit;
+
+        PathRule(PathPattern pattern, RateLimitProperties.PathLimit limit) {
+            this.pattern = pattern;
+            this.limit = limit;
+        }
+
+        boolean matches(PathContainer path, String method) {
+            return (limit.getMethods().isEmpty() || limit.getMethods().contains(method)) && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.common.security.IdentityHeaders;
+import com.tourism.gateway.cache.BodyCaptureResponseDecorator;
+import com.tourism.gateway.cache.CachedResponse;
+import com.tourism.gateway.cache.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collapses concurrent identical anonymous GETs into one upstream call.
+ *
+ * The first request for a key goes upstream; requests for the same key that
+ * arrive while it is in flight wait for its response and receive a copy.
+ * Followers that wait longer than {@code max-wait}, or arrive once
+ * {@code max-waiters} are already queued, call upstream themselves. Only 2xx
+ * responses are shared, and conditional requests are never coalesced. Nothing
+ * is kept once the response has been fanned out; caching is the job of
+ * {@link ResponseCacheFilter}.
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    public static final String COALESCED_HEADER = "X-Coalesced";
+
+    // Describe the body, so they are shared even when a local fallback rather than upstream wrote it
+    private static final List<String> CONTENT_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CONTENT_DISPOSITION);
+
+    private final CoalescingProperties properties;
+    private final List<PathPattern> patterns;
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter overflows;
+    private final Counter timeouts;
+
+    public RequestCoalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.patterns = properties.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+
+        this.leaders = outcomeCounter(meterRegistry, "leader");
+        this.followers = outcomeCounter(meterRegistry, "coalesced");
+        this.overflows = outcomeCounter(meterRegistry, "overflow");
+        this.timeouts = outcomeCounter(meterRegistry, "timeout");
+        Gauge.builder("gateway.coalescing.ratio", this, RequestCoalescingFilter::coalescingRatio)
+                .description("Share of eligible requests served from another request's upstream call")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, ConcurrentHashMap::size)
+                .description("Keys with an upstream call in progress")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || !isEligible(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        // Upstreams may gzip, so callers only share a body encoded the way they accept
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        String key = ResponseCacheFilter.cacheKey(request) + "|" + (accept != null ? accept : "")
+                + "|" + (acceptEncoding != null ? acceptEncoding : "");
+
+        Flight flight = new Flight();
+        Flight leader = inFlight.putIfAbsent(key, flight);
+
+        if (leader != null) {
+            if (leader.waiters.incrementAndGet() > properties.getMaxWaiters()) {
+                leader.waiters.decrementAndGet();
+                overflows.increment();
+                return chain.filter(exchange);
+            }
+            return leader.sink.asMono()
+                    .timeout(properties.getMaxWait())
+                    .doOnError(e -> timeouts.increment())
+                    .onErrorResume(e -> Mono.empty())
+                    .doFinally(signal -> leader.waiters.decrementAndGet())
+                    .flatMap(response -> {
+                        followers.increment();
+                        return replay(exchange, response);
+                    })
+                    // The leader failed or took too long; make our own call
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
+        }
+
+        leaders.increment();
+        BodyCaptureResponseDecorator capturing = new BodyCaptureResponseDecorator(exchange.getResponse(),
+                (response, body) -> {
+                    CachedResponse shared = snapshot(exchange, response, body);
+                    if (shared != null) {
+                        // Stop new followers joining before handing the result to current ones
+                        inFlight.remove(key, flight);
+                        flight.sink.tryEmitValue(shared);
+                    }
+                    return BodyCaptureResponseDecorator.write(response, body);
+                });
+
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    flight.sink.tryEmitEmpty();
+                });
+    }
+
+    /**
+     * Copy of the upstream part of the leader's response, or null if it must not be shared
+     */
+    private CachedResponse snapshot(ServerWebExchange exchange, ServerHttpResponse response, byte[] body) {
+        HttpStatusCode status = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        if (status == null || !status.is2xxSuccessful() || body.length > properties.getMaxBodyBytes()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.toLowerCase().contains("private")) {
+            return null;
+        }
+
+        // Only headers that came from upstream; per-request gateway headers stay with the leader
+        Set<String> sharedNames = new LinkedHashSet<>(exchange.getAttributeOrDefault(
+                ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES, Set.of()));
+        sharedNames.addAll(CONTENT_HEADERS);
+        HttpHeaders shared = new HttpHeaders();
+        for (String name : sharedNames) {
+            List<String> values = headers.get(name);
+            if (values != null && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                shared.put(name, values);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        return new CachedResponse(status.value(), shared, body, null, now, now);
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, CachedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(shared.getStatus()));
+        response.getHeaders().putAll(shared.getHeaders());
+        response.getHeaders().set(COALESCED_HEADER, "true");
+        return BodyCaptureResponseDecorator.write(response, shared.getBody());
+    }
+
+    private boolean isEligible(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        HttpHeaders headers = request.getHeaders();
+        // Anonymous only: responses to authenticated callers may be personalised
+        if (exchange.getAttribute(IdentityHeaders.class.getName()) != null
+                || headers.containsKey(HttpHeaders.AUTHORIZATION)
+                || headers.containsKey(HttpHeaders.COOKIE)) {
+            return false;
+        }
+        // Each conditional caller needs its own 304-or-200 answer
+        if (headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"))) {
+            return false;
+        }
+
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double coalescingRatio() {
+        double coalesced = followers.count();
+        double total = coalesced + leaders.count() + overflows.count() + timeouts.count();
+        return total == 0 ? 0.0 : coalesced / total;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("Coalescing-eligible GETs by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.REQUEST_COALESCING;
+    }
+
+    private static class Flight {
+
+        final Sinks.One<CachedResponse> sink = Sinks.one();
+        final AtomicInteger waiters = new AtomicInteger();
+    }
+}
@@ -1,53 +1,119 @@
 package com.tourism.gateway.filter;
 
+import com.tourism.gateway.config.AccessLogProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.UUID;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
+/**
+ * Writes one structured access log line per request, including latency.
+ *
+ * Lines go to the {@code com.tourism.gateway.access} logger, which is routed to
+ * a non-blocking asynchronous appender in logback-spring.xml, so event-loop
+ * threads never wait on log I/O. Successful requests are sampled per route;
+ * failures are always logged.
+ */
 @Component
 public class RequestResponseLoggingFilter implements GlobalFilter, Ordered {
-    
+
+    public static final String REQUEST_ID_HEADER = "X-Request-ID";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("com.tourism.gateway.access");
+
+    // What a caller-supplied ID may look like; anything else could forge or bloat log lines and headers
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+    // Unique per gateway process, so IDs from different instances never collide
+    private static final String ID_PREFIX = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AccessLogProperties properties;
+
+    public RequestResponseLoggingFilter(AccessLogProperties properties) {
+        this.properties = properties;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
+        long startNanos = System.nanoTime();
+
+        // Keep the caller's request ID when one was supplied and is well-formed; replace it otherwise
+        String incomingId = request.getHeaders().getFirst(REQUEST_ID_HEADER);
+        boolean keepIncoming = incomingId != null && VALID_REQUEST_ID.matcher(incomingId).matches();
+        String requestId = keepIncoming ? incomingId : ID_PREFIX + sequence.incrementAndGet();
+
+        ServerWebExchange tracedExchange = exchange;
+        if (!keepIncoming) {
+            ServerHttpRequest modifiedRequest = request.mutate()
+                    .header(REQUEST_ID_HEADER, requestId)
+                    .build();
+            tracedExchange = exchange.mutate().request(modifiedRequest).build();
+        }
+        exchange.getResponse().getHeaders().set(REQUEST_ID_HEADER, requestId);
+
+        if (!properties.isEnabled()) {
+            return chain.filter(tracedExchange);
+        }
+
+        return chain.filter(tracedExchange)
+                .doOnError(throwable -> log(exchange, requestId, startNanos, throwable))
+                .doOnSuccess(aVoid -> log(exchange, requestId, startNanos, null));
+    }
+
+    private void log(ServerWebExchange exchange, String requestId, long startNanos, Throwable error) {
         ServerHttpResponse response = exchange.getResponse();
-        
-        // Generate request ID
-        String requestId = UUID.randomUUID().toString();
-        
-        // Log request
-        System.out.println("Request ID: " + requestId + 
-                          " | Method: " + request.getMethod() + 
-                          " | Path: " + request.getPath() + 
-                          " | Remote Address: " + request.getRemoteAddress());
-        
-        // Add request ID to headers
-        ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-Request-ID", requestId)
-                .build();
-        
-        return chain.filter(exchange.mutate().request(modifiedRequest).build())
-                .doOnSuccess(aVoid -> {
-                    // Log response
-                    System.out.println("Request ID: " + requestId + 
-                                      " | Response Status: " + response.getStatusCode());
-                })
-                .doOnError(throwable -> {
-                    // Log error
-                    System.err.println("Request ID: " + requestId + 
-                                      " | Error: " + throwable.getMessage());
-                });
+        HttpStatusCode status = response.getStatusCode();
+        int statusCode = status != null ? status.value() : (error != null ? 500 : 200);
+        boolean failed = error != null || statusCode >= 500;
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "-";
+
+        if (!failed && !sampled(routeId)) {
+            return;
+        }
+
+        long latencyMicros = (System.nanoTime() - startNanos) / 1_000;
+        ServerHttpRequest request = exchange.getRequest();
+        InetSocketAddress remote = request.getRemoteAddress();
+
+        if (failed) {
+            accessLog.warn("requestId={} method={} path={} route={} status={} latencyMs={} remote={} error=\"{}\"",
+                    requestId, request.getMethod(), request.getPath().value(), routeId, statusCode,
+                    latencyMicros / 1_000.0,
+                    remote != null ? remote.getHostString() : "-",
+                    error != null ? error.getMessage() : "");
+        } else if (accessLog.isInfoEnabled()) {
+            accessLog.info("requestId={} method={} path={} route={} status={} latencyMs={} remote={}",
+                    requestId, request.getMethod(), request.getPath().value(), routeId, statusCode,
+                    latencyMicros / 1_000.0,
+                    remote != null ? remote.getHostString() : "-");
+        }
     }
-    
+
+    private boolean sampled(String routeId) {
+        double rate = properties.sampleRateFor(routeId);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
     @Override
     public int getOrder() {
-        return -1; // High priority
+        return GatewayFilterOrder.ACCESS_LOG;
     }
 }
@@ -0,0 +1,332 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.common.security.IdentityHeaders;
+import com.tourism.gateway.cache.BodyCaptureResponseDecorator;
+import com.tourism.gateway.cache.CachedResponse;
+import com.tourism.gateway.cache.ResponseCache;
+import com.tourism.gateway.cache.ResponseCacheProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory response cache for public catalogue GETs.
+ *
+ * Only anonymous requests are served from or stored in the cache. Entries are
+ * keyed on path, normalised query and the request headers the upstream lists
+ * in {@code Vary}, and honour the upstream's Cache-Control and ETag. Only 200
+ * responses are stored, and a successful write to a cached path clears the
+ * cache. On a miss only one request per key goes upstream
+ * while the others wait for its result; a stale entry is served while a
+ * single request refreshes it. Clients revalidating with If-None-Match get a
+ * 304. The cache key is stored on the exchange so the circuit-breaker
+ * fallback can serve the last known good response.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_KEY_ATTR = ResponseCacheFilter.class.getName() + ".cacheKey";
+    // Set by the fallback controller so its responses are never cached
+    public static final String FALLBACK_ATTR = ResponseCacheFilter.class.getName() + ".fallback";
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+    private final List<PathPattern> patterns;
+    private final ConcurrentHashMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    // Request headers each path and query varies on, as last reported by the upstream
+    private final ConcurrentHashMap<String, List<String>> varyByPath = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCache cache, ResponseCacheProperties properties) {
+        this.cache = cache;
+        this.properties = properties;
+        this.patterns = properties.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || !isCacheable(request)) {
+            return chain.filter(exchange);
+        }
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            // Listings embed the written resource, so drop everything rather than guess which entries it affects
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    cache.clear();
+                }
+            });
+        }
+        if (request.getMethod() != HttpMethod.GET || isAuthenticated(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        String pathKey = cacheKey(request);
+        List<String> vary = varyByPath.getOrDefault(pathKey, List.of());
+        String key = variantKey(pathKey, vary, request);
+        exchange.getAttributes().put(CACHE_KEY_ATTR, key);
+
+        long now = System.currentTimeMillis();
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            cache.recordHit(false);
+            return writeCached(exchange, cached, "HIT");
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+        if (leader != null) {
+            if (cached != null) {
+                // Someone is already refreshing this entry; serve what we have
+                cache.recordHit(true);
+                return writeCached(exchange, cached, "STALE");
+            }
+            // Wait for the in-flight fetch; fall back to our own upstream call if it produced nothing
+            return leader.asMono()
+                    .timeout(properties.getMaxWait())
+                    .onErrorResume(e -> Mono.empty())
+                    .flatMap(response -> writeCached(exchange, response, "HIT"))
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
+        }
+
+        cache.recordMiss();
+        return fetchAndStore(exchange, chain, pathKey, vary, key, sink)
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> fetchAndStore(ServerWebExchange exchange, GatewayFilterChain chain, String pathKey,
+                                     List<String> vary, String key, Sinks.One<CachedResponse> sink) {
+        long generation = cache.generation();
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+
+        // Ask upstream for the full body so it can be cached; revalidation is answered here
+        ServerHttpRequest upstreamRequest = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+
+        BodyCaptureResponseDecorator capturing = new BodyCaptureResponseDecorator(exchange.getResponse(),
+                (response, body) -> {
+                    List<String> responseVary = varyHeaders(response.getHeaders());
+                    CachedResponse stored = responseVary == null ? null
+                            : store(exchange, pathKey, responseVary, response, body, generation);
+                    if (stored == null) {
+                        return BodyCaptureResponseDecorator.write(response, body);
+                    }
+                    if (responseVary.equals(vary)) {
+                        // Waiters share our key only if it covered everything the response varies on
+                        sink.tryEmitValue(stored);
+                    }
+                    response.getHeaders().setETag(stored.getEtag());
+                    response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                    if (stored.matchesEtag(ifNoneMatch)) {
+                        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                        return response.setComplete();
+                    }
+                    return BodyCaptureResponseDecorator.write(response, body);
+                });
+
+        return chain.filter(exchange.mutate().request(upstreamRequest).response(capturing).build());
+    }
+
+    private CachedResponse store(ServerWebExchange exchange, String pathKey, List<String> vary,
+                                 ServerHttpResponse response, byte[] body, long generation) {
+        HttpStatusCode status = response.getStatusCode();
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || exchange.getAttribute(FALLBACK_ATTR) != null
+                || body.length > properties.getMaxEntryBytes()) {
+            return null;
+        }
+
+        String cacheControl = response.getHeaders().getCacheControl();
+        long ttlMillis = properties.getDefaultTtl().toMillis();
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase();
+            if (directives.contains("no-store") || directives.contains("private") || directives.contains("no-cache")) {
+                return null;
+            }
+            Matcher maxAge = MAX_AGE.matcher(directives);
+            if (maxAge.find()) {
+                ttlMillis = Long.parseLong(maxAge.group(1)) * 1000;
+            }
+        }
+        if (ttlMillis <= 0) {
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : REPLAYED_HEADERS) {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        if (cacheControl == null) {
+            headers.setCacheControl(CacheControl.maxAge(properties.getDefaultTtl()).cachePublic());
+        }
+
+        String etag = response.getHeaders().getETag();
+        if (etag == null || etag.startsWith("W/")) {
+            etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        }
+
+        if (varyByPath.size() >= properties.getMaxEntries() && !varyByPath.containsKey(pathKey)) {
+            varyByPath.clear();
+        }
+        if (vary.isEmpty()) {
+            varyByPath.remove(pathKey);
+        } else {
+            varyByPath.put(pathKey, vary);
+        }
+
+        long now = System.currentTimeMillis();
+        CachedResponse cached = new CachedResponse(status.value(), headers, body, etag, now, now + ttlMillis);
+        cache.put(variantKey(pathKey, vary, exchange.getRequest()), cached, generation);
+        return cached;
+    }
+
+    /**
+     * Replay a cached entry, answering conditional requests with 304
+     */
+    public static Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.getHeaders());
+        headers.setETag(cached.getEtag());
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(System.currentTimeMillis())));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (cached.matchesEtag(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatus()));
+        return BodyCaptureResponseDecorator.write(response, cached.getBody());
+    }
+
+    /**
+     * Lower-cased request header names from the response's Vary, or null for {@code Vary: *}
+     */
+    private static List<String> varyHeaders(HttpHeaders headers) {
+        List<String> names = new ArrayList<>();
+        for (String name : headers.getVary()) {
+            String normalised = name.trim().toLowerCase(Locale.ROOT);
+            if ("*".equals(normalised)) {
+                return null;
+            }
+            if (!normalised.isEmpty() && !names.contains(normalised)) {
+                names.add(normalised);
+            }
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private static String variantKey(String pathKey, List<String> vary, ServerHttpRequest request) {
+        if (vary.isEmpty()) {
+            return pathKey;
+        }
+        StringBuilder key = new StringBuilder(pathKey);
+        for (String name : vary) {
+            List<String> values = request.getHeaders().get(name);
+            key.append('|').append(name).append('=').append(values != null ? String.join(",", values) : "");
+        }
+        return key.toString();
+    }
+
+    /**
+     * Responses to authenticated callers may be personalised, so they neither read nor fill the cache
+     */
+    private static boolean isAuthenticated(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return exchange.getAttribute(IdentityHeaders.class.getName()) != null
+                || headers.containsKey(HttpHeaders.AUTHORIZATION)
+                || headers.containsKey(HttpHeaders.COOKIE);
+    }
+
+    private boolean isCacheable(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Path plus query parameters sorted by name, so equivalent URLs share an entry
+     */
+    public static String cacheKey(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        MultiValueMap<String, String> params = request.getQueryParams();
+        if (params.isEmpty()) {
+            return path;
+        }
+
+        StringBuilder key = new StringBuilder(path).append('?');
+        Map<String, List<String>> sorted = new TreeMap<>(params);
+        boolean first = true;
+        for (Map.Entry<String, List<String>> entry : sorted.entrySet()) {
+            List<String> values = entry.getValue() != null ? entry.getValue() : new ArrayList<>();
+            if (values.isEmpty()) {
+                values = List.of("");
+            }
+            for (String value : values) {
+                if (!first) {
+                    key.append('&');
+                }
+                key.append(entry.getKey()).append('=').append(value != null ? value : "");
+                first = false;
+            }
+        }
+        return key.toString();
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.RESPONSE_CACHE;
+    }
+}
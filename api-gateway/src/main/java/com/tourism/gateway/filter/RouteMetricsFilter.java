@@ -0,0 +1,107 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.gateway.metrics.RequestOutcome;
+import com.tourism.gateway.metrics.RequestTiming;
+import com.tourism.gateway.metrics.RouteMeters;
+import com.tourism.gateway.metrics.RouteMetricsProperties;
+import com.tourism.gateway.metrics.RouteMetricsRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records end-to-end latency, gateway overhead, payload sizes and retry
+ * counts per route.
+ *
+ * Runs outside every other gateway filter. Upstream time is contributed by
+ * {@link UpstreamTimingFilter} and {@link HedgingFilter}; what remains of the
+ * total is time spent in the gateway itself. Payload sizes are the bytes that
+ * actually streamed through, so chunked bodies are measured too.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private final RouteMetricsProperties properties;
+    private final RouteMetricsRegistry registry;
+
+    public RouteMetricsFilter(RouteMetricsProperties properties, RouteMetricsRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        exchange.getAttributes().put(RequestTiming.ATTRIBUTE, timing);
+
+        AtomicLong requestBytes = new AtomicLong();
+        AtomicLong responseBytes = new AtomicLong();
+        ServerWebExchange counted = exchange.mutate()
+                .request(new ServerHttpRequestDecorator(exchange.getRequest()) {
+                    @Override
+                    public Flux<DataBuffer> getBody() {
+                        return super.getBody().doOnNext(buffer -> requestBytes.addAndGet(buffer.readableByteCount()));
+                    }
+                })
+                .response(new ServerHttpResponseDecorator(exchange.getResponse()) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        return super.writeWith(Flux.from(body).doOnNext(
+                                buffer -> responseBytes.addAndGet(buffer.readableByteCount())));
+                    }
+
+                    @Override
+                    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                        return super.writeAndFlushWith(Flux.from(body).map(part -> Flux.from(part).doOnNext(
+                                buffer -> responseBytes.addAndGet(buffer.readableByteCount()))));
+                    }
+                })
+                .build();
+
+        return chain.filter(counted)
+                .doFinally(signal -> record(exchange, route.getId(), timing, signal == SignalType.ON_ERROR,
+                        requestBytes.get(), responseBytes.get()));
+    }
+
+    private void record(ServerWebExchange exchange, String routeId, RequestTiming timing, boolean error,
+                        long requestBytes, long responseBytes) {
+        long total = System.nanoTime() - timing.getStartNanos();
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        boolean fallback = exchange.getAttribute(ResponseCacheFilter.FALLBACK_ATTR) != null;
+        RequestOutcome outcome = RequestOutcome.of(status != null ? status.value() : 500, fallback, error);
+
+        RouteMeters meters = registry.forRoute(routeId);
+        meters.recordTotal(outcome, total);
+        if (timing.getAttempts() > 0) {
+            meters.recordOverhead(total - timing.getUpstreamNanos());
+            meters.recordRetries(timing.getAttempts() - 1);
+        }
+        // Bodyless requests are left out rather than recorded as zero
+        boolean requestHasBody = requestBytes > 0 || exchange.getRequest().getHeaders().getContentLength() >= 0;
+        meters.recordSizes(requestHasBody ? requestBytes : -1, responseBytes);
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.ROUTE_METRICS;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.gateway.capture.CapturedRequest;
+import com.tourism.gateway.capture.TrafficCaptureProperties;
+import com.tourism.gateway.capture.TrafficRecorder;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records a sample of incoming requests for later replay with
+ * {@link com.tourism.gateway.capture.TrafficReplay}.
+ *
+ * Captures method, path and query, headers minus credentials, small bodies
+ * and the arrival time relative to the start of the capture. Authentication
+ * endpoints are never captured since their bodies hold passwords.
+ */
+@Component
+public class TrafficCaptureFilter implements GlobalFilter, Ordered {
+
+    private final TrafficCaptureProperties properties;
+    private final TrafficRecorder recorder;
+    private final Set<String> redacted = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final List<PathPattern> excluded;
+
+    public TrafficCaptureFilter(TrafficCaptureProperties properties, TrafficRecorder recorder) {
+        this.properties = properties;
+        this.recorder = recorder;
+        this.redacted.addAll(properties.getRedactedHeaders());
+        this.excluded = properties.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled() || ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()
+                || isExcluded(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+
+        long arrivedAt = recorder.elapsedMillis();
+        ServerHttpRequest request = exchange.getRequest();
+        long length = request.getHeaders().getContentLength();
+
+        if (length <= 0 || length > properties.getMaxBodyBytes()) {
+            recorder.record(capture(exchange, arrivedAt, null));
+            return chain.filter(exchange);
+        }
+
+        return ServerWebExchangeUtils.cacheRequestBody(exchange, cached -> {
+            DataBuffer buffer = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+            String body = null;
+            if (buffer != null) {
+                int position = buffer.readPosition();
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                buffer.readPosition(position);
+                body = Base64.getEncoder().encodeToString(bytes);
+            }
+            recorder.record(capture(exchange, arrivedAt, body));
+            return chain.filter(exchange.mutate().request(cached).build());
+        });
+    }
+
+    private CapturedRequest capture(ServerWebExchange exchange, long arrivedAt, String body) {
+        ServerHttpRequest request = exchange.getRequest();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        request.getHeaders().forEach((name, values) -> {
+            if (!redacted.contains(name) && !HttpHeaders.HOST.equalsIgnoreCase(name)) {
+                headers.put(name, values);
+            }
+        });
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String uri = request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+        return new CapturedRequest(arrivedAt, request.getMethod().name(), uri,
+                route != null ? route.getId() : null, headers, body);
+    }
+
+    private boolean isExcluded(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : excluded) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.TRAFFIC_CAPTURE;
+    }
+}
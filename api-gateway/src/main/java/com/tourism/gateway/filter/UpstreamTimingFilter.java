@@ -0,0 +1,58 @@
+package com.tourism.gateway.filter;
+
+import com.tourism.gateway.metrics.RequestTiming;
+import com.tourism.gateway.metrics.RouteMetricsRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Times each upstream attempt, per route and per upstream instance.
+ *
+ * Sits immediately before routing, after the load balancer has chosen an
+ * instance. The routing filters complete once the upstream's response
+ * headers arrive, so the measured time excludes writing the body to the
+ * client. Retries pass through here once per attempt. Hedged attempts
+ * overlap, so {@link HedgingFilter} times those itself.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final RouteMetricsRegistry registry;
+
+    public UpstreamTimingFilter(RouteMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestTiming timing = exchange.getAttribute(RequestTiming.ATTRIBUTE);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (timing == null || route == null || url == null) {
+            return chain.filter(exchange);
+        }
+
+        String instance = url.getAuthority() != null ? url.getAuthority() : "unknown";
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    // Cleared per attempt, as a retry may not be hedged
+                    if (exchange.getAttributes().remove(HedgingFilter.TIMED_ATTR) == null) {
+                        registry.recordUpstream(timing, route.getId(), instance, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.UPSTREAM_TIMING;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tourism.gateway.metrics;
+
+/**
+ * Coarse result of a routed request, used as a low-cardinality metric tag.
+ */
+public enum RequestOutcome {
+
+    SUCCESS,
+    CLIENT_ERROR,
+    SERVER_ERROR,
+    FALLBACK,
+    ERROR;
+
+    public static RequestOutcome of(int status, boolean fallback, boolean error) {
+        if (fallback) {
+            return FALLBACK;
+        }
+        if (error) {
+            return ERROR;
+        }
+        if (status >= 500) {
+            return SERVER_ERROR;
+        }
+        return status >= 400 ? CLIENT_ERROR : SUCCESS;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,42 @@
+package com.tourism.gateway.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-exchange timing state shared between the outer metrics filter and the
+ * filters that call upstream. Hedged attempts of one exchange complete on
+ * different threads, so the counts are atomic.
+ */
+public class RequestTiming {
+
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    private final long startNanos;
+    private final AtomicLong upstreamNanos = new AtomicLong();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    public RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    void addAttempt(long nanos) {
+        upstreamNanos.addAndGet(nanos);
+        attempts.incrementAndGet();
+    }
+
+    /**
+     * An attempt that overlapped another, so its time is covered by {@link #addUpstreamTime}
+     */
+    void addConcurrentAttempt() {
+        attempts.incrementAndGet();
+    }
+
+    void addUpstreamTime(long nanos) {
+        upstreamNanos.addAndGet(nanos);
+    }
+
+    public long getStartNanos() { return startNanos; }
+    public long getUpstreamNanos() { return upstreamNanos.get(); }
+    public int getAttempts() { return attempts.get(); }
+}
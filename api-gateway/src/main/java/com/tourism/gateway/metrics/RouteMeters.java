@@ -0,0 +1,111 @@
+package com.tourism.gateway.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-registered meters for one route.
+ *
+ * Every meter a request can touch is created up front (or once per upstream
+ * instance), so recording is an array or map lookup followed by Micrometer's
+ * wait-free HDR histogram update, with no tag building on the request path.
+ */
+public class RouteMeters {
+
+    private final String routeId;
+    private final MeterRegistry registry;
+    private final RouteMetricsProperties properties;
+
+    private final Timer[] totalByOutcome;
+    private final Timer gatewayOverhead;
+    private final DistributionSummary requestBytes;
+    private final DistributionSummary responseBytes;
+    private final Counter retries;
+    private final ConcurrentHashMap<String, Timer> upstreamByInstance = new ConcurrentHashMap<>();
+
+    RouteMeters(String routeId, MeterRegistry registry, RouteMetricsProperties properties) {
+        this.routeId = routeId;
+        this.registry = registry;
+        this.properties = properties;
+
+        RequestOutcome[] outcomes = RequestOutcome.values();
+        this.totalByOutcome = new Timer[outcomes.length];
+        for (RequestOutcome outcome : outcomes) {
+            totalByOutcome[outcome.ordinal()] = timer("gateway.route.latency",
+                    "Time from the request reaching the gateway to its completion")
+                    .tag("outcome", outcome.tag())
+                    .register(registry);
+        }
+        this.gatewayOverhead = timer("gateway.route.overhead",
+                "Time spent in gateway filters rather than waiting on the upstream")
+                .register(registry);
+        this.requestBytes = DistributionSummary.builder("gateway.route.request.size")
+                .baseUnit("bytes")
+                .tag("routeId", routeId)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.responseBytes = DistributionSummary.builder("gateway.route.response.size")
+                .baseUnit("bytes")
+                .tag("routeId", routeId)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.retries = Counter.builder("gateway.route.retries")
+                .description("Upstream attempts beyond the first, from retries and hedging")
+                .tag("routeId", routeId)
+                .register(registry);
+    }
+
+    public void recordTotal(RequestOutcome outcome, long nanos) {
+        totalByOutcome[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOverhead(long nanos) {
+        gatewayOverhead.record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpstream(String instance, long nanos) {
+        Timer timer = upstreamByInstance.get(instance);
+        if (timer == null) {
+            timer = upstreamByInstance.computeIfAbsent(instance, key -> timer("gateway.upstream.latency",
+                    "Time from handing the request to the upstream until its response headers")
+                    .tag("instance", key)
+                    .register(registry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSizes(long requestLength, long responseLength) {
+        if (requestLength >= 0) {
+            requestBytes.record(requestLength);
+        }
+        if (responseLength >= 0) {
+            responseBytes.record(responseLength);
+        }
+    }
+
+    public void recordRetries(int count) {
+        if (count > 0) {
+            retries.increment(count);
+        }
+    }
+
+    private Timer.Builder timer(String name, String description) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .tag("routeId", routeId)
+                .minimumExpectedValue(properties.getMinimumExpected())
+                .maximumExpectedValue(properties.getMaximumExpected())
+                .distributionStatisticExpiry(properties.getExpiry())
+                .publishPercentileHistogram(properties.isHistogram());
+        double[] percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        if (percentiles.length > 0) {
+            builder.publishPercentiles(percentiles);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,53 @@
+package com.tourism.gateway.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route latency metrics, bound from {@code gateway.route-metrics.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.route-metrics")
+public class RouteMetricsProperties {
+
+    private boolean enabled = true;
+
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99, 0.999));
+
+    /**
+     * Also export histogram buckets so percentiles can be aggregated across gateway instances
+     */
+    private boolean histogram = true;
+
+    private Duration minimumExpected = Duration.ofMillis(1);
+
+    private Duration maximumExpected = Duration.ofSeconds(30);
+
+    /**
+     * Window over which published percentiles are computed
+     */
+    private Duration expiry = Duration.ofMinutes(1);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<Double> getPercentiles() { return percentiles; }
+    public void setPercentiles(List<Double> percentiles) { this.percentiles = percentiles; }
+
+    public boolean isHistogram() { return histogram; }
+    public void setHistogram(boolean histogram) { this.histogram = histogram; }
+
+    public Duration getMinimumExpected() { return minimumExpected; }
+    public void setMinimumExpected(Duration minimumExpected) { this.minimumExpected = minimumExpected; }
+
+    public Duration getMaximumExpected() { return maximumExpected; }
+    public void setMaximumExpected(Duration maximumExpected) { this.maximumExpected = maximumExpected; }
+
+    public Duration getExpiry() { return expiry; }
+    public void setExpiry(Duration expiry) { this.expiry = expiry; }
+}
@@ -0,0 +1,51 @@
+package com.tourism.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lazily creates and then caches the {@link RouteMeters} of each route.
+ */
+@Component
+public class RouteMetricsRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final RouteMetricsProperties properties;
+    private final ConcurrentHashMap<String, RouteMeters> routes = new ConcurrentHashMap<>();
+
+    public RouteMetricsRegistry(MeterRegistry meterRegistry, RouteMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    public RouteMeters forRoute(String routeId) {
+        RouteMeters meters = routes.get(routeId);
+        if (meters != null) {
+            return meters;
+        }
+        return routes.computeIfAbsent(routeId, id -> new RouteMeters(id, meterRegistry, properties));
+    }
+
+    /**
+     * Record one upstream attempt against the exchange's timing and the instance's timer
+     */
+    public void recordUpstream(RequestTiming timing, String routeId, String instance, long nanos) {
+        timing.addAttempt(nanos);
+        forRoute(routeId).recordUpstream(instance, nanos);
+    }
+
+    /**
+     * Record one of several attempts made at once, such as a hedge, against the instance's timer;
+     * the time they took together is added with {@link #recordConcurrentUpstream}
+     */
+    public void recordConcurrentAttempt(RequestTiming timing, String routeId, String instance, long nanos) {
+        timing.addConcurrentAttempt();
+        forRoute(routeId).recordUpstream(instance, nanos);
+    }
+
+    public void recordConcurrentUpstream(RequestTiming timing, long nanos) {
+        timing.addUpstreamTime(nanos);
+    }
+}
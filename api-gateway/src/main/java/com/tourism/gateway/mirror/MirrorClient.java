@@ -0,0 +1,95 @@
+package com.tourism.gateway.mirror;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends mirrored requests over a connection pool of its own, so shadow
+ * traffic can never take connections from, or queue behind, real traffic.
+ * Response bodies are discarded unread.
+ */
+@Component
+public class MirrorClient implements DisposableBean {
+
+    private final MirrorProperties properties;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient directClient;
+    private final WebClient loadBalancedClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public MirrorClient(MirrorProperties properties, WebClient.Builder webClientBuilder,
+                        ReactorLoadBalancerExchangeFilterFunction loadBalancer) {
+        this.properties = properties;
+        this.connectionProvider = ConnectionProvider.builder("gateway-mirror")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis());
+
+        WebClient.Builder builder = webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient));
+        this.directClient = builder.clone().build();
+        this.loadBalancedClient = builder.clone().filter(loadBalancer).build();
+    }
+
+    /**
+     * Send a copy of a request, or return empty without sending when too many mirrors are in flight
+     *
+     * @return the shadow's status, and the time from sending until its response headers arrived
+     */
+    public Mono<Response> send(HttpMethod method, URI uri, HttpHeaders headers, byte[] body, Duration timeout) {
+        if (inFlight.incrementAndGet() > properties.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            return Mono.empty();
+        }
+        WebClient client = "lb".equals(uri.getScheme()) ? loadBalancedClient : directClient;
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(uri)
+                .headers(h -> h.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null && body.length > 0 ? request.bodyValue(body) : request;
+
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return spec.exchangeToMono(response -> {
+                        // Timed to the headers, as the primary is; draining the body is not part of it
+                        Response result = new Response(response.statusCode(), System.nanoTime() - start);
+                        return response.releaseBody().thenReturn(result);
+                    });
+                })
+                .timeout(timeout)
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    public static class Response {
+
+        private final HttpStatusCode status;
+        private final long nanos;
+
+        Response(HttpStatusCode status, long nanos) {
+            this.status = status;
+            this.nanos = nanos;
+        }
+
+        public HttpStatusCode getStatus() { return status; }
+        public long getNanos() { return nanos; }
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+}
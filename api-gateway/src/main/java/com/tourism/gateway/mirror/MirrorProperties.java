@@ -0,0 +1,40 @@
+package com.tourism.gateway.mirror;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Connection pool shared by all mirrored traffic, bound from
+ * {@code gateway.mirror.*}. Which routes are mirrored, where to and how much
+ * is set per route on the {@code Mirror} filter.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.mirror")
+public class MirrorProperties {
+
+    private int maxConnections = 50;
+
+    /**
+     * Mirrored requests in flight at once; beyond this, traffic is not mirrored
+     */
+    private int maxInFlight = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    private Duration pendingAcquireTimeout = Duration.ofMillis(100);
+
+    // Getters and Setters
+    public int getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+    public int getMaxInFlight() { return maxInFlight; }
+    public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+    public Duration getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+}
@@ -0,0 +1,118 @@
+package com.tourism.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway rate limits, bound from {@code gateway.rate-limit.*}.
+ *
+ * Each client (user ID when authenticated, IP address otherwise) gets its own
+ * bucket per route. Path rules take precedence over route limits and have
+ * buckets of their own, so an expensive endpoint can be limited more tightly
+ * than the rest of its route.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Limit for routes without an entry in {@code routes}
+     */
+    private Limit defaultLimit = new Limit(100, 20);
+
+    private Map<String, Limit> routes = new HashMap<>();
+
+    private List<PathLimit> paths = new ArrayList<>();
+
+    /**
+     * Buckets left untouched for this long are dropped
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    /**
+     * Triggers an early sweep when more buckets than this are live
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * Limit for a route ID, falling back to the default limit
+     */
+    public Limit limitFor(String routeId) {
+        if (routeId == null) {
+            return defaultLimit;
+        }
+        return routes.getOrDefault(routeId, defaultLimit);
+    }
+
+    /**
+     * Burst capacity and steady refill rate of a bucket
+     */
+    public static class Limit {
+
+        private int capacity;
+
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    }
+
+    /**
+     * Limit applied to requests matching a path pattern, optionally for certain methods only
+     */
+    public static class PathLimit extends Limit {
+
+        private String pattern;
+
+        private List<String> methods = new ArrayList<>();
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Limit getDefaultLimit() { return defaultLimit; }
+    public void setDefaultLimit(Limit defaultLimit) { this.defaultLimit = defaultLimit; }
+
+    public Map<String, Limit> getRoutes() { return routes; }
+    public void setRoutes(Map<String, Limit> routes) { this.routes = routes; }
+
+    public List<PathLimit> getPaths() { return paths; }
+    public void setPaths(List<PathLimit> paths) { this.paths = paths; }
+
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+
+    public Duration getSweepInterval() { return sweepInterval; }
+    public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+
+    public int getMaxBuckets() { return maxBuckets; }
+    public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+}
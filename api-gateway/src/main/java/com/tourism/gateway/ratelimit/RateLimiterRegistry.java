@@ -0,0 +1,75 @@
+package com.tourism.gateway.ratelimit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the live token buckets and evicts idle ones.
+ *
+ * A bucket is only evicted once it has been full for the idle timeout, so
+ * dropping it is indistinguishable from keeping it. Sweeps run periodically
+ * and early when the number of buckets passes {@code max-buckets}.
+ */
+@Component
+public class RateLimiterRegistry implements DisposableBean {
+
+    private final RateLimitProperties properties;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final ScheduledExecutorService sweeper;
+
+    public RateLimiterRegistry(RateLimitProperties properties) {
+        this.properties = properties;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getSweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take a token from the bucket for {@code key}, creating it on first use
+     */
+    public TokenBucket.Result tryConsume(String key, RateLimitProperties.Limit limit) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+            if (buckets.size() > properties.getMaxBuckets() && !sweeping.get()) {
+                sweeper.execute(this::sweep);
+            }
+        }
+        return bucket.tryConsume(now);
+    }
+
+    void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            long idleNanos = properties.getIdleTimeout().toNanos();
+            buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleNanos));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,96 @@
+package com.tourism.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Rather than a token count and a refill timestamp, the bucket keeps a single
+ * value: the instant at which it will be full again. Taking a token pushes
+ * that instant forward by one refill interval, and the request is refused if
+ * it would move more than {@code capacity} intervals into the future. This is
+ * equivalent to a classic token bucket but updates with a single CAS.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long capacityNanos;
+
+    private final AtomicLong fullAtNanos;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = Math.max(1, capacity);
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.capacityNanos = this.intervalNanos * this.capacity;
+        this.fullAtNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token if available
+     */
+    public Result tryConsume(long nowNanos) {
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long next = Math.max(fullAt, nowNanos) + intervalNanos;
+            long backlog = next - nowNanos;
+
+            if (backlog > capacityNanos) {
+                long current = Math.max(fullAt - nowNanos, 0);
+                return new Result(false, capacity, 0, backlog - capacityNanos, current);
+            }
+            if (fullAtNanos.compareAndSet(fullAt, next)) {
+                int remaining = (int) ((capacityNanos - backlog) / intervalNanos);
+                return new Result(true, capacity, remaining, 0, backlog);
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has been full for at least {@code idleNanos}, i.e.
+     * dropping it cannot change any future decision
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - fullAtNanos.get() >= idleNanos;
+    }
+
+    public int getCapacity() { return capacity; }
+
+    /**
+     * Outcome of a consume attempt, with the values reported in RateLimit-* headers
+     */
+    public static class Result {
+
+        private final boolean allowed;
+        private final int limit;
+        private final int remaining;
+        private final long retryAfterNanos;
+        private final long resetNanos;
+
+        Result(boolean allowed, int limit, int remaining, long retryAfterNanos, long resetNanos) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.retryAfterNanos = retryAfterNanos;
+            this.resetNanos = resetNanos;
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public int getLimit() { return limit; }
+        public int getRemaining() { return remaining; }
+
+        /**
+         * Seconds until a token is available again, rounded up
+         */
+        public long getRetryAfterSeconds() { return toSeconds(retryAfterNanos); }
+
+        /**
+         * Seconds until the bucket is full again, rounded up
+         */
+        public long getResetSeconds() { return toSeconds(resetNanos); }
+
+        private static long toSeconds(long nanos) {
+            return nanos <= 0 ? 0 : (nanos + 999_999_999L) / 1_000_000_000L;
+        }
+    }
+}
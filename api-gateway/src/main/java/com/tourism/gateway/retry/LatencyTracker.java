@@ -0,0 +1,56 @@
+package com.tourism.gateway.retry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Recent-latency percentile estimate over a fixed window of samples.
+ *
+ * Recording writes one slot of a ring buffer without locking. The percentile
+ * is recomputed from a snapshot every quarter window and cached in between,
+ * so reading it on the request path is a single volatile read.
+ */
+public class LatencyTracker {
+
+    private final AtomicLongArray samples;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicLong recorded = new AtomicLong();
+    private final double percentile;
+    private final int recomputeEvery;
+
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int window, double percentile) {
+        this.samples = new AtomicLongArray(window);
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, window / 4);
+    }
+
+    public void record(long nanos) {
+        int slot = Math.floorMod(cursor.getAndIncrement(), samples.length());
+        samples.set(slot, nanos);
+        if (recorded.incrementAndGet() % recomputeEvery == 0) {
+            recompute();
+        }
+    }
+
+    /**
+     * Cached percentile, or -1 until {@code minSamples} have been recorded
+     */
+    public long percentileNanos(int minSamples) {
+        return recorded.get() >= minSamples ? percentileNanos : -1;
+    }
+
+    private void recompute() {
+        int count = (int) Math.min(recorded.get(), samples.length());
+        long[] snapshot = new long[count];
+        for (int i = 0; i < count; i++) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+        percentileNanos = snapshot[Math.max(index, 0)];
+    }
+}
@@ -0,0 +1,57 @@
+package com.tourism.gateway.retry;
+
+import com.tourism.gateway.ratelimit.TokenBucket;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries to a fraction of a route's original traffic.
+ *
+ * Every original request deposits {@code ratio} of a token and every retry or
+ * hedge withdraws a whole one, so when a downstream slows down the extra load
+ * from retries stays proportional instead of multiplying. A small fixed rate
+ * of retries is always allowed so low-traffic routes can still recover.
+ */
+public class RetryBudget {
+
+    private static final long MILLIS_PER_TOKEN = 1000;
+
+    private final long depositMillis;
+    private final long maxBalanceMillis;
+    private final TokenBucket floor;
+
+    // Balance in thousandths of a token
+    private final AtomicLong balance = new AtomicLong();
+
+    public RetryBudget(RetryProperties.Budget settings) {
+        this.depositMillis = Math.round(settings.getRatio() * MILLIS_PER_TOKEN);
+        this.maxBalanceMillis = settings.getMaxBalance() * MILLIS_PER_TOKEN;
+        double floorRate = Math.max(settings.getMinRetriesPerSecond(), 0.001);
+        this.floor = new TokenBucket((int) Math.ceil(floorRate), floorRate, System.nanoTime());
+    }
+
+    /**
+     * Credit the budget for an original request
+     */
+    public void deposit() {
+        balance.accumulateAndGet(depositMillis, (current, add) -> Math.min(current + add, maxBalanceMillis));
+    }
+
+    /**
+     * Take one retry from the budget, if any is left
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < MILLIS_PER_TOKEN) {
+                return floor.tryConsume(System.nanoTime()).isAllowed();
+            }
+        } while (!balance.compareAndSet(current, current - MILLIS_PER_TOKEN));
+        return true;
+    }
+
+    public double getBalance() {
+        return balance.get() / (double) MILLIS_PER_TOKEN;
+    }
+}
@@ -0,0 +1,42 @@
+package com.tourism.gateway.retry;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link RetryBudget} per route, shared by the retry filter and hedging.
+ */
+@Component
+public class RetryBudgetRegistry {
+
+    private static final String DEPOSITED_ATTR = RetryBudgetRegistry.class.getName() + ".deposited";
+
+    private final RetryProperties properties;
+    private final ConcurrentHashMap<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryBudgetRegistry(RetryProperties properties) {
+        this.properties = properties;
+    }
+
+    public RetryBudget forRoute(String routeId) {
+        return budgets.computeIfAbsent(routeId, id -> new RetryBudget(properties.getBudget()));
+    }
+
+    /**
+     * Credit the route's budget for this request, once per exchange
+     */
+    public RetryBudget deposit(ServerWebExchange exchange, String routeId) {
+        RetryBudget budget = forRoute(routeId);
+        if (exchange.getAttributes().putIfAbsent(DEPOSITED_ATTR, Boolean.TRUE) == null) {
+            budget.deposit();
+        }
+        return budget;
+    }
+
+    public Map<String, RetryBudget> getBudgets() {
+        return budgets;
+    }
+}
@@ -0,0 +1,112 @@
+package com.tourism.gateway.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retry budget and hedging settings, bound from {@code gateway.retry.*}.
+ *
+ * Per-route attempt counts and backoff are arguments of the
+ * {@code BudgetedRetry} route filter; the budget that caps them lives here
+ * because retries and hedged requests draw from the same budget.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.retry")
+public class RetryProperties {
+
+    private Budget budget = new Budget();
+
+    private Hedging hedging = new Hedging();
+
+    /**
+     * Token-bucket retry budget, one per route
+     */
+    public static class Budget {
+
+        /**
+         * Retry tokens earned by each original request
+         */
+        private double ratio = 0.2;
+
+        /**
+         * Retries always allowed per second, so a quiet route can still retry
+         */
+        private double minRetriesPerSecond = 5;
+
+        /**
+         * Most retry tokens a route can bank
+         */
+        private int maxBalance = 100;
+
+        public double getRatio() { return ratio; }
+        public void setRatio(double ratio) { this.ratio = ratio; }
+
+        public double getMinRetriesPerSecond() { return minRetriesPerSecond; }
+        public void setMinRetriesPerSecond(double minRetriesPerSecond) { this.minRetriesPerSecond = minRetriesPerSecond; }
+
+        public int getMaxBalance() { return maxBalance; }
+        public void setMaxBalance(int maxBalance) { this.maxBalance = maxBalance; }
+    }
+
+    /**
+     * Hedged GETs: a second attempt to another instance once the first has
+     * taken longer than the route's recent latency percentile
+     */
+    public static class Hedging {
+
+        private boolean enabled = false;
+
+        private List<String> paths = new ArrayList<>();
+
+        private double percentile = 0.95;
+
+        /**
+         * Never hedge sooner than this, however fast the route usually is
+         */
+        private Duration minDelay = Duration.ofMillis(20);
+
+        /**
+         * Latency samples needed before a route is hedged at all
+         */
+        private int minSamples = 100;
+
+        private int maxBodyBytes = 2 * 1024 * 1024;
+
+        /**
+         * Upper bound on each attempt; a timed-out attempt fails like a connection error
+         */
+        private Duration responseTimeout = Duration.ofSeconds(2);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+
+        public Duration getMinDelay() { return minDelay; }
+        public void setMinDelay(Duration minDelay) { this.minDelay = minDelay; }
+
+        public int getMinSamples() { return minSamples; }
+        public void setMinSamples(int minSamples) { this.minSamples = minSamples; }
+
+        public int getMaxBodyBytes() { return maxBodyBytes; }
+        public void setMaxBodyBytes(int maxBodyBytes) { this.maxBodyBytes = maxBodyBytes; }
+
+        public Duration getResponseTimeout() { return responseTimeout; }
+        public void setResponseTimeout(Duration responseTimeout) { this.responseTimeout = responseTimeout; }
+    }
+
+    // Getters and Setters
+    public Budget getBudget() { return budget; }
+    public void setBudget(Budget budget) { this.budget = budget; }
+
+    public Hedging getHedging() { return hedging; }
+    public void setHedging(Hedging hedging) { this.hedging = hedging; }
+}
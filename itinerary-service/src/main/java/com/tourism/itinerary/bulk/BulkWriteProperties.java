@@ -0,0 +1,37 @@
+package com.tourism.itinerary.bulk;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk itinerary writes, bound from {@code app.bulk.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.bulk")
+public class BulkWriteProperties {
+
+    /**
+     * Operations sent to MongoDB in one bulkWrite
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Days accepted in one replace or import request
+     */
+    private int maxItems = 50_000;
+
+    /**
+     * Item errors listed in a response; further errors are only counted
+     */
+    private int maxReportedErrors = 100;
+
+    // Getters and Setters
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getMaxItems() { return maxItems; }
+    public void setMaxItems(int maxItems) { this.maxItems = maxItems; }
+
+    public int getMaxReportedErrors() { return maxReportedErrors; }
+    public void setMaxReportedErrors(int maxReportedErrors) { this.maxReportedErrors = maxReportedErrors; }
+}
@@ -0,0 +1,59 @@
+package com.tourism.itinerary.config;
+
+import com.tourism.common.security.IdentityHeaderSigner;
+import com.tourism.common.security.IdentityHeaders;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates requests from the gateway using its signed identity headers,
+ * so the bearer token does not have to be decoded a second time.
+ */
+public class IdentityHeaderAuthenticationFilter extends OncePerRequestFilter {
+    
+    /**
+     * Request attribute set once the identity headers have been accepted
+     */
+    public static final String AUTHENTICATED_ATTRIBUTE = IdentityHeaderAuthenticationFilter.class.getName() + ".AUTHENTICATED";
+    
+    private final IdentityHeaderSigner identityHeaderSigner;
+    
+    public IdentityHeaderAuthenticationFilter(IdentityHeaderSigner identityHeaderSigner) {
+        this.identityHeaderSigner = identityHeaderSigner;
+    }
+    
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        
+        Optional<IdentityHeaders> identity = identityHeaderSigner.verify(
+                request.getHeader(IdentityHeaders.USER_ID),
+                request.getHeader(IdentityHeaders.USER_NAME),
+                request.getHeader(IdentityHeaders.USER_ROLE),
+                request.getHeader(IdentityHeaders.TOKEN_EXPIRES),
+                request.getHeader(IdentityHeaders.SIGNATURE));
+        
+        if (identity.isPresent()) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    identity.get().getUsername(),
+                    null,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + identity.get().getRole())));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            request.setAttribute(AUTHENTICATED_ATTRIBUTE, Boolean.TRUE);
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,38 @@
+package com.tourism.itinerary.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup index checks, bound from {@code app.mongo.indexes.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.mongo.indexes")
+public class MongoIndexProperties {
+
+    /**
+     * Create declared indexes that are missing from the database
+     */
+    private boolean ensure = true;
+
+    /**
+     * Before the partial unique index on active days is created, soft-delete all but the most
+     * recently updated active day of each tour and day number, so the index can be built
+     */
+    private boolean deduplicateActiveDays = true;
+
+    /**
+     * Refuse to start when a declared index is missing or defined differently
+     */
+    private boolean failOnMismatch = true;
+
+    // Getters and Setters
+    public boolean isEnsure() { return ensure; }
+    public void setEnsure(boolean ensure) { this.ensure = ensure; }
+
+    public boolean isDeduplicateActiveDays() { return deduplicateActiveDays; }
+    public void setDeduplicateActiveDays(boolean deduplicateActiveDays) { this.deduplicateActiveDays = deduplicateActiveDays; }
+
+    public boolean isFailOnMismatch() { return failOnMismatch; }
+    public void setFailOnMismatch(boolean failOnMismatch) { this.failOnMismatch = failOnMismatch; }
+}
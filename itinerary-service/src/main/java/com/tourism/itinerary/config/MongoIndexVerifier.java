@@ -0,0 +1,185 @@
+package com.tourism.itinerary.config;
+
+import com.tourism.itinerary.event.ItineraryChangedEvent;
+import com.tourism.itinerary.model.CatalogActivity;
+import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.repository.ItineraryRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Checks the indexes declared on the documents against the running database.
+ *
+ * Automatic index creation is off, so this is where declared indexes are
+ * created. Each one must exist with the same keys, uniqueness and partial
+ * filter; an index of the same name defined differently, or one that cannot
+ * be built (for example a unique index over existing duplicates), is reported
+ * and by default stops the application. Indexes in the database that are no
+ * longer declared are only logged.
+ *
+ * Data written before the partial unique index on active days existed may
+ * hold several active documents for one day. Unless disabled, the newest of
+ * them is kept and the rest are soft-deleted just before that index is
+ * created, so it can be built.
+ */
+@Component
+public class MongoIndexVerifier implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexVerifier.class);
+
+    // Documents whose declared indexes are managed here
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(Itinerary.class, CatalogActivity.class);
+
+    private static final String ACTIVE_DAY_INDEX = "tour_day_active_unique";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoIndexProperties properties;
+    private final ItineraryRepository itineraryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MongoIndexVerifier(MongoTemplate mongoTemplate, MongoIndexProperties properties,
+                              ItineraryRepository itineraryRepository, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.itineraryRepository = itineraryRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        if (properties.isEnsure() && properties.isDeduplicateActiveDays() && !hasActiveDayIndex()) {
+            deduplicateActiveDays();
+        }
+
+        List<String> problems = new ArrayList<>();
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+            verify(type, resolver, problems);
+        }
+
+        if (problems.isEmpty()) {
+            log.info("MongoDB indexes verified for {} collections", INDEXED_DOCUMENTS.size());
+            return;
+        }
+        problems.forEach(problem -> log.error("Index check failed: {}", problem));
+        if (properties.isFailOnMismatch()) {
+            throw new IllegalStateException("MongoDB indexes do not match their declarations: " + problems);
+        }
+    }
+
+    private boolean hasActiveDayIndex() {
+        return mongoTemplate.indexOps(Itinerary.class).getIndexInfo().stream()
+                .anyMatch(info -> info.getName().equals(ACTIVE_DAY_INDEX));
+    }
+
+    private void deduplicateActiveDays() {
+        List<Long> tourIds = itineraryRepository.deactivateDuplicateActiveDays();
+        if (tourIds.isEmpty()) {
+            return;
+        }
+        log.warn("Soft-deleted duplicate active days of {} tours before creating {}: {}",
+                tourIds.size(), ACTIVE_DAY_INDEX, tourIds);
+        // Rebuilds the read model and PDF cache of each tour; the change feed sees the new updatedAt
+        for (Long tourId : tourIds) {
+            eventPublisher.publishEvent(new ItineraryChangedEvent(tourId, List.of()));
+        }
+    }
+
+    private void verify(Class<?> type, IndexResolver resolver, List<String> problems) {
+        String collection = mongoTemplate.getCollectionName(type);
+        IndexOperations indexOps = mongoTemplate.indexOps(type);
+        List<IndexInfo> existing = indexOps.getIndexInfo();
+        Set<String> declared = new HashSet<>();
+
+        for (IndexDefinition definition : resolver.resolveIndexFor(type)) {
+            Document keys = definition.getIndexKeys();
+            Document options = definition.getIndexOptions();
+            String name = options.getString("name");
+            declared.add(name);
+
+            IndexInfo current = existing.stream()
+                    .filter(info -> info.getName().equals(name) || sameKeys(keysOf(info), keys))
+                    .findFirst()
+                    .orElse(null);
+            if (current == null) {
+                if (!properties.isEnsure()) {
+                    problems.add(collection + "." + name + " is missing");
+                    continue;
+                }
+                try {
+                    indexOps.ensureIndex(definition);
+                    log.info("Created index {}.{} {}", collection, name, keys.toJson());
+                } catch (RuntimeException e) {
+                    problems.add(collection + "." + name + " could not be created: " + e.getMessage());
+                }
+                continue;
+            }
+
+            declared.add(current.getName());
+            String difference = difference(current, keys, options);
+            if (difference != null) {
+                problems.add(collection + "." + current.getName() + " " + difference);
+            }
+        }
+
+        for (IndexInfo info : existing) {
+            if (!"_id_".equals(info.getName()) && !declared.contains(info.getName())) {
+                log.info("Index {}.{} is not declared on {} and may be dropped",
+                        collection, info.getName(), type.getSimpleName());
+            }
+        }
+    }
+
+    private static String difference(IndexInfo current, Document keys, Document options) {
+        if (!sameKeys(keysOf(current), keys)) {
+            return "has keys " + keysOf(current).toJson() + ", expected " + keys.toJson();
+        }
+        boolean unique = Boolean.TRUE.equals(options.get("unique"));
+        if (current.isUnique() != unique) {
+            return unique ? "is not unique" : "is unique but should not be";
+        }
+        Object filter = options.get("partialFilterExpression");
+        Document expected = filter instanceof Document ? (Document) filter : null;
+        Document actual = current.getPartialFilterExpression() != null
+                ? Document.parse(current.getPartialFilterExpression())
+                : null;
+        if (!Objects.equals(expected, actual)) {
+            return "has partial filter " + (actual != null ? actual.toJson() : "none")
+                    + ", expected " + (expected != null ? expected.toJson() : "none");
+        }
+        return null;
+    }
+
+    /**
+     * Key order matters for an index, so compare entry by entry rather than as maps
+     */
+    private static boolean sameKeys(Document actual, Document expected) {
+        return new ArrayList<>(actual.entrySet()).equals(new ArrayList<>(expected.entrySet()));
+    }
+
+    private static Document keysOf(IndexInfo info) {
+        Document keys = new Document();
+        for (IndexField field : info.getIndexFields()) {
+            keys.append(field.getKey(), field.getDirection() == Sort.Direction.DESC ? -1 : 1);
+        }
+        return keys;
+    }
+}
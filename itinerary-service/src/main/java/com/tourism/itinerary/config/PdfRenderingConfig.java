@@ -0,0 +1,85 @@
+package com.tourism.itinerary.config;
+
+import com.tourism.itinerary.pdf.PdfCacheProperties;
+import com.tourism.itinerary.pdf.PdfExportProperties;
+import com.tourism.itinerary.pdf.PdfRenderingProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded pools for PDF work.
+ *
+ * PDF downloads are served as a {@code WebAsyncTask} on the render pool with
+ * its own timeout, releasing the request thread; other async requests keep
+ * Spring MVC's defaults. When all render threads are busy and the queue is
+ * full, new downloads are rejected and answered with 503. Bulk exports and
+ * background regeneration use pools of their own so neither ever delays
+ * interactive downloads.
+ */
+@Configuration
+public class PdfRenderingConfig {
+    
+    private final PdfRenderingProperties properties;
+    private final PdfExportProperties exportProperties;
+    private final PdfCacheProperties cacheProperties;
+    
+    public PdfRenderingConfig(PdfRenderingProperties properties, PdfExportProperties exportProperties,
+                              PdfCacheProperties cacheProperties) {
+        this.properties = properties;
+        this.exportProperties = exportProperties;
+        this.cacheProperties = cacheProperties;
+    }
+    
+    @Bean
+    public ThreadPoolTaskExecutor pdfRenderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getRenderThreads());
+        executor.setMaxPoolSize(properties.getRenderThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("pdf-render-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds((int) properties.getTimeout().toSeconds());
+        return executor;
+    }
+    
+    /**
+     * Re-renders cached PDFs after itinerary changes, at low priority; when its
+     * queue is full, regenerations are dropped rather than queued behind downloads
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pdfRegenerationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheProperties.getRegenerationThreads());
+        executor.setMaxPoolSize(cacheProperties.getRegenerationThreads());
+        executor.setQueueCapacity(cacheProperties.getRegenerationQueueCapacity());
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("pdf-regenerate-");
+        return executor;
+    }
+    
+    /**
+     * Runs export jobs: each one assembles its archive on one of these threads
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pdfExportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportProperties.getConcurrentJobs());
+        executor.setMaxPoolSize(exportProperties.getConcurrentJobs());
+        executor.setQueueCapacity(exportProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("pdf-export-");
+        return executor;
+    }
+    
+    /**
+     * Renders tours for export jobs; each job bounds how many of its tours are queued here
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pdfExportWorkerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportProperties.getWorkerThreads());
+        executor.setMaxPoolSize(exportProperties.getWorkerThreads());
+        executor.setThreadNamePrefix("pdf-export-worker-");
+        return executor;
+    }
+}
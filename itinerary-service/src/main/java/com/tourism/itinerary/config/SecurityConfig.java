@@ -1,11 +1,23 @@
 package com.tourism.itinerary.config;
 
+import com.tourism.common.exception.InvalidTokenException;
+import com.tourism.common.security.IdentityHeaderSigner;
+import com.tourism.common.security.TokenClaims;
+import com.tourism.common.security.TokenCodec;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -19,7 +31,7 @@ import java.util.Arrays;
 public class SecurityConfig {
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, IdentityHeaderSigner identityHeaderSigner) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
@@ -32,13 +44,77 @@ public class SecurityConfig {
                 // Protected endpoints require authentication
                 .anyRequest().authenticated()
             )
+            // Gateway-signed identity headers are accepted first; the bearer token
+            // is only decoded for requests that did not come through the gateway
+            .addFilterBefore(new IdentityHeaderAuthenticationFilter(identityHeaderSigner), BearerTokenAuthenticationFilter.class)
             .oauth2ResourceServer(oauth2 -> oauth2
-                .jwt(jwt -> {})
+                .bearerTokenResolver(bearerTokenResolver())
+                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
             );
         
         return http.build();
     }
     
+    /**
+     * Skip bearer token decoding when the identity headers already authenticated the request
+     */
+    @Bean
+    public BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+        return request -> request.getAttribute(IdentityHeaderAuthenticationFilter.AUTHENTICATED_ATTRIBUTE) != null
+                ? null
+                : delegate.resolve(request);
+    }
+    
+    /**
+     * Verify tokens locally with the shared codec instead of discovering a
+     * remote issuer, so there is no network call at startup or per request
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(TokenCodec tokenCodec) {
+        return token -> {
+            TokenClaims claims;
+            try {
+                claims = tokenCodec.parse(token);
+            } catch (InvalidTokenException e) {
+                throw new BadJwtException(e.getMessage(), e);
+            }
+            
+            Jwt.Builder builder = Jwt.withTokenValue(token)
+                    .header("alg", "HS256")
+                    .subject(claims.getSubject())
+                    .issuedAt(claims.getIssuedAt())
+                    .expiresAt(claims.getExpiresAt());
+            if (claims.getKeyId() != null) {
+                builder.header("kid", claims.getKeyId());
+            }
+            if (claims.getUserId() != null) {
+                builder.claim(TokenCodec.CLAIM_USER_ID, claims.getUserId());
+            }
+            if (claims.getEmail() != null) {
+                builder.claim(TokenCodec.CLAIM_EMAIL, claims.getEmail());
+            }
+            if (claims.getRole() != null) {
+                builder.claim(TokenCodec.CLAIM_ROLE, claims.getRole());
+            }
+            return builder.build();
+        };
+    }
+    
+    /**
+     * Map the token's role claim to ROLE_* authorities used by @PreAuthorize
+     */
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(TokenCodec.CLAIM_ROLE);
+        authoritiesConverter.setAuthorityPrefix("ROLE_");
+        
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        return converter;
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
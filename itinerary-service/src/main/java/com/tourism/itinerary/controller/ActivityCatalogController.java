@@ -0,0 +1,57 @@
+package com.tourism.itinerary.controller;
+
+import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.itinerary.model.CatalogActivity;
+import com.tourism.itinerary.planning.ActivityCatalog;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/itineraries/catalog/activities")
+@Tag(name = "Activity Catalog", description = "Activities available to itinerary generation")
+@SecurityRequirement(name = "bearerAuth")
+public class ActivityCatalogController {
+    
+    private final ActivityCatalog activityCatalog;
+    
+    @Autowired
+    public ActivityCatalogController(ActivityCatalog activityCatalog) {
+        this.activityCatalog = activityCatalog;
+    }
+    
+    @GetMapping
+    @Operation(summary = "Search catalog activities by destination, type and interest tag")
+    public ResponseEntity<ApiResponse<List<CatalogActivity>>> searchActivities(
+            @Parameter(description = "Destination") @RequestParam String destination,
+            @Parameter(description = "Activity type, e.g. CULTURAL") @RequestParam(required = false) String type,
+            @Parameter(description = "Interest tag, e.g. MUSEUMS") @RequestParam(required = false) String tag) {
+        
+        List<CatalogActivity> activities = activityCatalog.search(destination, type, tag);
+        
+        return ResponseEntity.ok(new ApiResponse<>(true, "Catalog activities retrieved successfully", activities));
+    }
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TOUR_OPERATOR')")
+    @Operation(summary = "Add or update a catalog activity")
+    public ResponseEntity<ApiResponse<CatalogActivity>> saveActivity(
+            @Valid @RequestBody CatalogActivity activity) {
+        
+        CatalogActivity saved = activityCatalog.save(activity);
+        
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse<>(true, "Catalog activity saved successfully", saved));
+    }
+}
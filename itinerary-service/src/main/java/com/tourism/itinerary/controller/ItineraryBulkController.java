@@ -0,0 +1,73 @@
+package com.tourism.itinerary.controller;
+
+import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.itinerary.dto.BulkWriteResponse;
+import com.tourism.itinerary.dto.ItineraryRequest;
+import com.tourism.itinerary.service.ItineraryBulkService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/itineraries/bulk")
+@Tag(name = "Itinerary Bulk Writes", description = "Write many itinerary days in one request")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN') or hasRole('TOUR_OPERATOR')")
+public class ItineraryBulkController {
+    
+    private final ItineraryBulkService itineraryBulkService;
+    
+    @Autowired
+    public ItineraryBulkController(ItineraryBulkService itineraryBulkService) {
+        this.itineraryBulkService = itineraryBulkService;
+    }
+    
+    @PutMapping("/tour/{tourId}/days")
+    @Operation(summary = "Replace all days of a tour's itinerary")
+    public ResponseEntity<ApiResponse<BulkWriteResponse>> replaceTourDays(
+            @Parameter(description = "Tour ID") @PathVariable Long tourId,
+            @RequestBody List<ItineraryRequest> days,
+            Principal principal) {
+        
+        // Items are validated one by one so a bad day is reported without failing the rest
+        BulkWriteResponse response = itineraryBulkService.replaceTourDays(tourId, days, principal.getName());
+        
+        return ResponseEntity.ok(new ApiResponse<>(response.getFailed() == 0, message(response), response));
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import itinerary days of many tours from a JSON array")
+    public ResponseEntity<ApiResponse<BulkWriteResponse>> importDays(
+            HttpServletRequest request,
+            Principal principal) throws IOException {
+        
+        // Read straight from the request body so the array is never held in memory as a whole
+        BulkWriteResponse response = itineraryBulkService.importDays(request.getInputStream(), principal.getName());
+        
+        return ResponseEntity.ok(new ApiResponse<>(response.getFailed() == 0, message(response), response));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+    }
+    
+    private static String message(BulkWriteResponse response) {
+        return response.getCreated() + " created, " + response.getUpdated() + " updated, "
+                + response.getFailed() + " failed";
+    }
+}
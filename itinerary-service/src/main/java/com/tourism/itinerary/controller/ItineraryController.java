@@ -3,17 +3,27 @@ package com.tourism.itinerary.controller;
 import com.tourism.itinerary.dto.ItineraryGenerationRequest;
 import com.tourism.itinerary.dto.ItineraryRequest;
 import com.tourism.itinerary.dto.ItineraryResponse;
+import com.tourism.itinerary.dto.RouteOptimizationResponse;
 import com.tourism.itinerary.service.ItineraryService;
-import com.tourism.itinerary.service.PdfGenerationService;
+import com.tourism.itinerary.service.ItineraryPdfService;
 import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.common.dto.response.ItineraryChangesDTO;
+import com.tourism.common.dto.response.TourItineraryStatsDTO;
+import com.tourism.common.exception.DuplicateResourceException;
+import com.tourism.common.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,7 +31,6 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
-import java.io.IOException;
 import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
@@ -34,12 +43,12 @@ import java.util.Map;
 public class ItineraryController {
     
     private final ItineraryService itineraryService;
-    private final PdfGenerationService pdfGenerationService;
+    private final ItineraryPdfService itineraryPdfService;
     
     @Autowired
-    public ItineraryController(ItineraryService itineraryService, PdfGenerationService pdfGenerationService) {
+    public ItineraryController(ItineraryService itineraryService, ItineraryPdfService itineraryPdfService) {
         this.itineraryService = itineraryService;
-        this.pdfGenerationService = pdfGenerationService;
+        this.itineraryPdfService = itineraryPdfService;
     }
     
     @PostMapping
@@ -68,6 +77,22 @@ public class ItineraryController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Itinerary updated successfully", response));
     }
     
+    @PatchMapping(value = "/{id}", consumes = {"application/json-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TOUR_OPERATOR')")
+    @Operation(summary = "Patch an itinerary's fields or individual activities (JSON Patch, activities addressed by ID)")
+    public ResponseEntity<ApiResponse<ItineraryResponse>> patchItinerary(
+            @Parameter(description = "Itinerary ID") @PathVariable String id,
+            @RequestBody JsonNode patch,
+            @Parameter(description = "Version the patch was written against, as returned in the ETag")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        
+        ItineraryResponse response = itineraryService.patchItinerary(id, patch, expectedVersion(ifMatch));
+        
+        return ResponseEntity.ok()
+                .eTag("\"" + response.getVersion() + "\"")
+                .body(new ApiResponse<>(true, "Itinerary patched successfully", response));
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get itinerary by ID")
     public ResponseEntity<ApiResponse<ItineraryResponse>> getItineraryById(
@@ -75,7 +100,9 @@ public class ItineraryController {
         
         ItineraryResponse response = itineraryService.getItineraryById(id);
         
-        return ResponseEntity.ok(new ApiResponse<>(true, "Itinerary retrieved successfully", response));
+        return ResponseEntity.ok()
+                .eTag("\"" + response.getVersion() + "\"")
+                .body(new ApiResponse<>(true, "Itinerary retrieved successfully", response));
     }
     
     @GetMapping("/tour/{tourId}")
@@ -113,12 +140,12 @@ public class ItineraryController {
     @DeleteMapping("/tour/{tourId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete all tour itineraries")
-    public ResponseEntity<ApiResponse<Void>> deleteItinerariesByTourId(
+    public ResponseEntity<ApiResponse<Long>> deleteItinerariesByTourId(
             @Parameter(description = "Tour ID") @PathVariable Long tourId) {
         
-        itineraryService.deleteItinerariesByTourId(tourId);
+        long deleted = itineraryService.deleteItinerariesByTourId(tourId);
         
-        return ResponseEntity.ok(new ApiResponse<>(true, "All itineraries deleted successfully", null));
+        return ResponseEntity.ok(new ApiResponse<>(true, "All itineraries deleted successfully", deleted));
     }
     
     @PostMapping("/generate")
@@ -134,47 +161,79 @@ public class ItineraryController {
                 .body(new ApiResponse<>(true, "Itinerary generated successfully", responses));
     }
     
-    @GetMapping("/tour/{tourId}/pdf")
-    @Operation(summary = "Generate tour itinerary PDF")
-    public ResponseEntity<byte[]> generateTourItineraryPdf(
-            @Parameter(description = "Tour ID") @PathVariable Long tourId) throws IOException {
-        
-        List<ItineraryResponse> itineraries = itineraryService.getItinerariesByTourId(tourId);
-        
-        if (itineraries.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
+    @PostMapping("/tour/{tourId}/optimize")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TOUR_OPERATOR')")
+    @Operation(summary = "Reorder each day's activities to reduce travel")
+    public ResponseEntity<ApiResponse<RouteOptimizationResponse>> optimizeTourRoutes(
+            @Parameter(description = "Tour ID") @PathVariable Long tourId,
+            @Parameter(description = "Save the reordered days; false only previews them")
+            @RequestParam(defaultValue = "true") boolean apply) {
         
-        byte[] pdfBytes = pdfGenerationService.generateItineraryPdf(tourId, itineraries);
+        RouteOptimizationResponse response = itineraryService.optimizeTourRoutes(tourId, apply);
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "tour-" + tourId + "-itinerary.pdf");
-        headers.setContentLength(pdfBytes.length);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Itinerary routes optimized successfully", response));
+    }
+    
+    @GetMapping("/tour/{tourId}/pdf")
+    @Operation(summary = "Generate tour itinerary PDF")
+    public WebAsyncTask<ResponseEntity<Void>> generateTourItineraryPdf(
+            @Parameter(description = "Tour ID") @PathVariable Long tourId,
+            ServletWebRequest request) {
         
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        // Served from the PDF cache, or rendered on the PDF pool and streamed as it is laid out
+        return itineraryPdfService.onRenderPool(request, () -> itineraryPdfService.tourPdf(tourId, request));
     }
     
     @GetMapping("/{id}/pdf")
     @Operation(summary = "Generate day itinerary PDF")
-    public ResponseEntity<byte[]> generateDayItineraryPdf(
-            @Parameter(description = "Itinerary ID") @PathVariable String id) throws IOException {
+    public WebAsyncTask<ResponseEntity<Void>> generateDayItineraryPdf(
+            @Parameter(description = "Itinerary ID") @PathVariable String id,
+            ServletWebRequest request) {
         
         ItineraryResponse itinerary = itineraryService.getItineraryById(id);
         
-        byte[] pdfBytes = pdfGenerationService.generateDayItineraryPdf(itinerary);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", 
-                "tour-" + itinerary.getTourId() + "-day-" + itinerary.getDayNumber() + "-itinerary.pdf");
-        headers.setContentLength(pdfBytes.length);
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        return itineraryPdfService.onRenderPool(request, () -> itineraryPdfService.dayPdf(itinerary, request));
+    }
+    
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleNotFound(ResourceNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+    }
+    
+    /**
+     * The itinerary changed since the version named in If-Match
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleVersionConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+    }
+    
+    /**
+     * Another active itinerary already covers the same tour and day, or an added activity's ID is taken
+     */
+    @ExceptionHandler(DuplicateResourceException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDuplicate(DuplicateResourceException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+    }
+    
+    /**
+     * The PDF rendering pool and its queue are full
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRenderingRejected(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ApiResponse<>(false, "PDF rendering is busy. Please try again shortly.", null));
     }
     
     @GetMapping("/tour/{tourId}/stats")
@@ -183,13 +242,50 @@ public class ItineraryController {
             @Parameter(description = "Tour ID") @PathVariable Long tourId) {
         
         long totalDays = itineraryService.getTotalDaysForTour(tourId);
-        boolean hasItinerary = itineraryService.tourHasItinerary(tourId);
         
         Map<String, Object> stats = new HashMap<>();
         stats.put("tourId", tourId);
         stats.put("totalDays", totalDays);
-        stats.put("hasItinerary", hasItinerary);
+        stats.put("hasItinerary", totalDays > 0);
         
         return ResponseEntity.ok(new ApiResponse<>(true, "Statistics retrieved successfully", stats));
     }
+    
+    @GetMapping("/tour/stats")
+    @Operation(summary = "Get itinerary statistics for many tours",
+               description = "Counts active days of every listed tour in one query; tours without an itinerary report zero days")
+    public ResponseEntity<ApiResponse<List<TourItineraryStatsDTO>>> getToursItineraryStats(
+            @Parameter(description = "Tour IDs, comma separated") @RequestParam List<Long> tourIds) {
+        
+        List<TourItineraryStatsDTO> stats = itineraryService.getTourStats(tourIds);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Statistics retrieved successfully", stats));
+    }
+    
+    @GetMapping("/tour/changes")
+    @Operation(summary = "List tours whose itineraries changed",
+               description = "Pass the previous response's asOf as since to follow changes incrementally")
+    public ResponseEntity<ApiResponse<ItineraryChangesDTO>> getChangedTours(
+            @Parameter(description = "Epoch milliseconds") @RequestParam long since) {
+        
+        ItineraryChangesDTO changes = itineraryService.getChangedTours(since);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Changes retrieved successfully", changes));
+    }
+    
+    /**
+     * Version from an If-Match header such as {@code "3"}; null when absent or {@code *}
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must carry an itinerary version");
+        }
+    }
 }
@@ -0,0 +1,139 @@
+package com.tourism.itinerary.controller;
+
+import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.itinerary.dto.PdfExportRequest;
+import com.tourism.itinerary.dto.PdfExportResponse;
+import com.tourism.itinerary.pdf.PdfExportJob;
+import com.tourism.itinerary.service.PdfExportService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.net.URI;
+import java.security.Principal;
+import java.time.ZoneId;
+
+@RestController
+@RequestMapping("/api/itineraries/exports")
+@Tag(name = "Itinerary PDF Export", description = "Bulk export of tour itinerary PDFs as a ZIP archive")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN') or hasRole('TOUR_OPERATOR')")
+public class PdfExportController {
+    
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+    
+    private final PdfExportService pdfExportService;
+    
+    @Autowired
+    public PdfExportController(PdfExportService pdfExportService) {
+        this.pdfExportService = pdfExportService;
+    }
+    
+    @PostMapping
+    @Operation(summary = "Start exporting tour itinerary PDFs into a ZIP archive")
+    public ResponseEntity<ApiResponse<PdfExportResponse>> startExport(
+            @RequestBody PdfExportRequest request,
+            Principal principal) {
+        
+        PdfExportJob job = pdfExportService.startExport(request, principal.getName());
+        
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/itineraries/exports/" + job.getId()))
+                .body(new ApiResponse<>(true, "Export started", toResponse(job)));
+    }
+    
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get export progress")
+    public ResponseEntity<ApiResponse<PdfExportResponse>> getExport(
+            @Parameter(description = "Export job ID") @PathVariable String jobId,
+            Principal principal) {
+        
+        // Only the user who started an export can follow or download it
+        PdfExportJob job = pdfExportService.getJob(jobId, principal.getName());
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Export not found: " + jobId, null));
+        }
+        
+        return ResponseEntity.ok(new ApiResponse<>(true, "Export status retrieved successfully", toResponse(job)));
+    }
+    
+    /**
+     * The archive never changes once complete, so Range requests (answered
+     * with 206 by Spring MVC for resource bodies) can resume a download
+     */
+    @GetMapping("/{jobId}/download")
+    @Operation(summary = "Download the exported ZIP archive (supports Range requests)")
+    public ResponseEntity<Resource> downloadExport(
+            @Parameter(description = "Export job ID") @PathVariable String jobId,
+            Principal principal) {
+        
+        // Only the user who started an export can follow or download it
+        PdfExportJob job = pdfExportService.getJob(jobId, principal.getName());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getState() != PdfExportJob.State.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("itineraries-" + job.getId() + ".zip")
+                        .build()
+                        .toString())
+                .eTag("\"" + job.getId() + "\"")
+                .lastModified(job.getFinishedAt().atZone(ZoneId.systemDefault()))
+                .body(new FileSystemResource(job.getFile()));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+    }
+    
+    /**
+     * Too many exports are already running or queued
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleExportRejected(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .body(new ApiResponse<>(false, "Too many exports in progress. Please try again later.", null));
+    }
+    
+    private PdfExportResponse toResponse(PdfExportJob job) {
+        PdfExportResponse response = new PdfExportResponse();
+        response.setId(job.getId());
+        response.setState(job.getState().name());
+        response.setTotalTours(job.getTotal());
+        response.setCompletedTours(job.getCompleted());
+        response.setFailures(job.getFailures());
+        int processed = job.getCompleted() + response.getFailures().size();
+        response.setProgressPercent(job.getTotal() > 0 ? processed * 100 / job.getTotal() : 0);
+        response.setSizeBytes(job.getSizeBytes());
+        if (job.getState() == PdfExportJob.State.COMPLETED) {
+            response.setDownloadUrl("/api/itineraries/exports/" + job.getId() + "/download");
+        }
+        response.setError(job.getError());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        return response;
+    }
+}
@@ -0,0 +1,127 @@
+package com.tourism.itinerary.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkWriteResponse {
+    
+    private int received;
+    private int created;
+    private int updated;
+    private long deactivated; // Days soft-deleted because the request no longer includes them
+    private int failed;
+    private boolean aborted; // Input could not be read to the end
+    private List<ItemError> errors = new ArrayList<>(); // Capped; failed holds the full count
+    
+    // Constructors
+    public BulkWriteResponse() {}
+    
+    // Getters and Setters
+    public int getReceived() {
+        return received;
+    }
+    
+    public void setReceived(int received) {
+        this.received = received;
+    }
+    
+    public int getCreated() {
+        return created;
+    }
+    
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public long getDeactivated() {
+        return deactivated;
+    }
+    
+    public void setDeactivated(long deactivated) {
+        this.deactivated = deactivated;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public boolean isAborted() {
+        return aborted;
+    }
+    
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+    
+    public List<ItemError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<ItemError> errors) {
+        this.errors = errors;
+    }
+    
+    /**
+     * Why one item of the request was not written
+     */
+    public static class ItemError {
+        
+        private int index; // Position in the request array
+        private Long tourId;
+        private Integer dayNumber;
+        private String message;
+        
+        public ItemError() {}
+        
+        public ItemError(int index, Long tourId, Integer dayNumber, String message) {
+            this.index = index;
+            this.tourId = tourId;
+            this.dayNumber = dayNumber;
+            this.message = message;
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        public void setIndex(int index) {
+            this.index = index;
+        }
+        
+        public Long getTourId() {
+            return tourId;
+        }
+        
+        public void setTourId(Long tourId) {
+            this.tourId = tourId;
+        }
+        
+        public Integer getDayNumber() {
+            return dayNumber;
+        }
+        
+        public void setDayNumber(Integer dayNumber) {
+            this.dayNumber = dayNumber;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class ItineraryResponse {
     private LocalDateTime updatedAt;
     private String createdBy;
     private boolean active;
+    private long version;
     
     // Constructors
     public ItineraryResponse() {}
@@ -136,6 +137,14 @@ public class ItineraryResponse {
         this.active = active;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "ItineraryResponse{" +
@@ -0,0 +1,31 @@
+package com.tourism.itinerary.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PdfExportRequest {
+    
+    private List<Long> tourIds = new ArrayList<>();
+    
+    private boolean allActive; // Export every tour that has an active itinerary
+    
+    // Constructors
+    public PdfExportRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getTourIds() {
+        return tourIds;
+    }
+    
+    public void setTourIds(List<Long> tourIds) {
+        this.tourIds = tourIds != null ? tourIds : new ArrayList<>();
+    }
+    
+    public boolean isAllActive() {
+        return allActive;
+    }
+    
+    public void setAllActive(boolean allActive) {
+        this.allActive = allActive;
+    }
+}
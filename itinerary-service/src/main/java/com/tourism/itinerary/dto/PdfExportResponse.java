@@ -0,0 +1,111 @@
+package com.tourism.itinerary.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PdfExportResponse {
+    
+    private String id;
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED
+    private int totalTours;
+    private int completedTours;
+    private List<String> failures;
+    private int progressPercent;
+    private long sizeBytes;
+    private String downloadUrl; // Set once the archive is complete
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    
+    // Constructors
+    public PdfExportResponse() {}
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getState() {
+        return state;
+    }
+    
+    public void setState(String state) {
+        this.state = state;
+    }
+    
+    public int getTotalTours() {
+        return totalTours;
+    }
+    
+    public void setTotalTours(int totalTours) {
+        this.totalTours = totalTours;
+    }
+    
+    public int getCompletedTours() {
+        return completedTours;
+    }
+    
+    public void setCompletedTours(int completedTours) {
+        this.completedTours = completedTours;
+    }
+    
+    public List<String> getFailures() {
+        return failures;
+    }
+    
+    public void setFailures(List<String> failures) {
+        this.failures = failures;
+    }
+    
+    public int getProgressPercent() {
+        return progressPercent;
+    }
+    
+    public void setProgressPercent(int progressPercent) {
+        this.progressPercent = progressPercent;
+    }
+    
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+    
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+    
+    public String getDownloadUrl() {
+        return downloadUrl;
+    }
+    
+    public void setDownloadUrl(String downloadUrl) {
+        this.downloadUrl = downloadUrl;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
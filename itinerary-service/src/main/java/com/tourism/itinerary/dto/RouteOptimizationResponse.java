@@ -0,0 +1,199 @@
+package com.tourism.itinerary.dto;
+
+import com.tourism.itinerary.model.Activity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RouteOptimizationResponse {
+    
+    private Long tourId;
+    private boolean applied; // Whether reordered days were saved
+    private double distanceBeforeKm;
+    private double distanceAfterKm;
+    private List<DayOptimization> days = new ArrayList<>();
+    
+    // Constructors
+    public RouteOptimizationResponse() {}
+    
+    public RouteOptimizationResponse(Long tourId, boolean applied) {
+        this.tourId = tourId;
+        this.applied = applied;
+    }
+    
+    // Getters and Setters
+    public Long getTourId() {
+        return tourId;
+    }
+    
+    public void setTourId(Long tourId) {
+        this.tourId = tourId;
+    }
+    
+    public boolean isApplied() {
+        return applied;
+    }
+    
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+    
+    public double getDistanceBeforeKm() {
+        return distanceBeforeKm;
+    }
+    
+    public void setDistanceBeforeKm(double distanceBeforeKm) {
+        this.distanceBeforeKm = distanceBeforeKm;
+    }
+    
+    public double getDistanceAfterKm() {
+        return distanceAfterKm;
+    }
+    
+    public void setDistanceAfterKm(double distanceAfterKm) {
+        this.distanceAfterKm = distanceAfterKm;
+    }
+    
+    public List<DayOptimization> getDays() {
+        return days;
+    }
+    
+    public void setDays(List<DayOptimization> days) {
+        this.days = days;
+    }
+    
+    /**
+     * Outcome for one itinerary day
+     */
+    public static class DayOptimization {
+        
+        private String itineraryId;
+        private Integer dayNumber;
+        private double distanceBeforeKm;
+        private double distanceAfterKm;
+        private boolean reordered;
+        private List<Activity> activities = new ArrayList<>();
+        private List<NearbySuggestion> suggestions = new ArrayList<>();
+        
+        public DayOptimization() {}
+        
+        public String getItineraryId() {
+            return itineraryId;
+        }
+        
+        public void setItineraryId(String itineraryId) {
+            this.itineraryId = itineraryId;
+        }
+        
+        public Integer getDayNumber() {
+            return dayNumber;
+        }
+        
+        public void setDayNumber(Integer dayNumber) {
+            this.dayNumber = dayNumber;
+        }
+        
+        public double getDistanceBeforeKm() {
+            return distanceBeforeKm;
+        }
+        
+        public void setDistanceBeforeKm(double distanceBeforeKm) {
+            this.distanceBeforeKm = distanceBeforeKm;
+        }
+        
+        public double getDistanceAfterKm() {
+            return distanceAfterKm;
+        }
+        
+        public void setDistanceAfterKm(double distanceAfterKm) {
+            this.distanceAfterKm = distanceAfterKm;
+        }
+        
+        public boolean isReordered() {
+            return reordered;
+        }
+        
+        public void setReordered(boolean reordered) {
+            this.reordered = reordered;
+        }
+        
+        public List<Activity> getActivities() {
+            return activities;
+        }
+        
+        public void setActivities(List<Activity> activities) {
+            this.activities = activities;
+        }
+        
+        public List<NearbySuggestion> getSuggestions() {
+            return suggestions;
+        }
+        
+        public void setSuggestions(List<NearbySuggestion> suggestions) {
+            this.suggestions = suggestions;
+        }
+    }
+    
+    /**
+     * A catalog activity close to one already on the day
+     */
+    public static class NearbySuggestion {
+        
+        private String forActivity; // Title of the activity it is near
+        private String catalogActivityId;
+        private String title;
+        private String activityType;
+        private double distanceKm;
+        
+        public NearbySuggestion() {}
+        
+        public NearbySuggestion(String forActivity, String catalogActivityId, String title,
+                                String activityType, double distanceKm) {
+            this.forActivity = forActivity;
+            this.catalogActivityId = catalogActivityId;
+            this.title = title;
+            this.activityType = activityType;
+            this.distanceKm = distanceKm;
+        }
+        
+        public String getForActivity() {
+            return forActivity;
+        }
+        
+        public void setForActivity(String forActivity) {
+            this.forActivity = forActivity;
+        }
+        
+        public String getCatalogActivityId() {
+            return catalogActivityId;
+        }
+        
+        public void setCatalogActivityId(String catalogActivityId) {
+            this.catalogActivityId = catalogActivityId;
+        }
+        
+        public String getTitle() {
+            return title;
+        }
+        
+        public void setTitle(String title) {
+            this.title = title;
+        }
+        
+        public String getActivityType() {
+            return activityType;
+        }
+        
+        public void setActivityType(String activityType) {
+            this.activityType = activityType;
+        }
+        
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+        
+        public void setDistanceKm(double distanceKm) {
+            this.distanceKm = distanceKm;
+        }
+    }
+}
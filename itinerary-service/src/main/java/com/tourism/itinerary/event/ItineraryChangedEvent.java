@@ -0,0 +1,26 @@
+package com.tourism.itinerary.event;
+
+import java.util.List;
+
+/**
+ * Published after itineraries of a tour are created, updated or deleted.
+ */
+public class ItineraryChangedEvent {
+
+    private final Long tourId;
+    private final List<String> itineraryIds;
+
+    public ItineraryChangedEvent(Long tourId, List<String> itineraryIds) {
+        this.tourId = tourId;
+        this.itineraryIds = itineraryIds;
+    }
+
+    // Getters
+    public Long getTourId() { return tourId; }
+    public List<String> getItineraryIds() { return itineraryIds; }
+
+    @Override
+    public String toString() {
+        return "ItineraryChangedEvent{tourId=" + tourId + ", itineraries=" + itineraryIds.size() + '}';
+    }
+}
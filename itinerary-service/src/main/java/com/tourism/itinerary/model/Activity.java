@@ -4,8 +4,15 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
 public class Activity {
     
+    private String activityId; // Stable within the itinerary; targets partial updates
+    
     @NotBlank(message = "Activity time is required")
     private String time;
     
@@ -26,6 +33,12 @@ public class Activity {
     
     private boolean included; // Whether included in package
     
+    private Double latitude;
+    
+    private Double longitude;
+    
+    private boolean fixedTime; // Route optimization never moves this activity (meals, transfers, bookings)
+    
     // Constructors
     public Activity() {}
     
@@ -37,7 +50,31 @@ public class Activity {
         this.location = location;
     }
     
+    /**
+     * Give every activity without one, or with one already used earlier in the list, a new ID
+     */
+    public static void assignIds(List<Activity> activities) {
+        if (activities == null) {
+            return;
+        }
+        Set<String> seen = new HashSet<>();
+        for (Activity activity : activities) {
+            if (activity.activityId == null || activity.activityId.isBlank() || !seen.add(activity.activityId)) {
+                activity.activityId = UUID.randomUUID().toString();
+                seen.add(activity.activityId);
+            }
+        }
+    }
+    
     // Getters and Setters
+    public String getActivityId() {
+        return activityId;
+    }
+    
+    public void setActivityId(String activityId) {
+        this.activityId = activityId;
+    }
+    
     public String getTime() {
         return time;
     }
@@ -102,10 +139,39 @@ public class Activity {
         this.included = included;
     }
     
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public boolean isFixedTime() {
+        return fixedTime;
+    }
+    
+    public void setFixedTime(boolean fixedTime) {
+        this.fixedTime = fixedTime;
+    }
+    
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+    
     @Override
     public String toString() {
         return "Activity{" +
-                "time='" + time + '\'' +
+                "activityId='" + activityId + '\'' +
+                ", time='" + time + '\'' +
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", duration=" + duration +
@@ -113,6 +179,9 @@ public class Activity {
                 ", activityType='" + activityType + '\'' +
                 ", cost='" + cost + '\'' +
                 ", included=" + included +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", fixedTime=" + fixedTime +
                 '}';
     }
 }
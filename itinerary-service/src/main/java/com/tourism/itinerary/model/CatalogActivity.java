@@ -0,0 +1,256 @@
+package com.tourism.itinerary.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An activity that itinerary generation can schedule at a destination.
+ *
+ * Destinations are stored lower-case and activity types and tags upper-case,
+ * so catalog queries are exact matches served by the compound indexes.
+ */
+@Document(collection = "activity_catalog")
+@CompoundIndexes({
+    @CompoundIndex(name = "destination_type", def = "{ 'destination': 1, 'activityType': 1 }"),
+    @CompoundIndex(name = "destination_tags", def = "{ 'destination': 1, 'tags': 1 }")
+})
+public class CatalogActivity {
+    
+    @Id
+    private String id;
+    
+    @NotBlank(message = "Destination is required")
+    private String destination;
+    
+    @NotBlank(message = "Activity title is required")
+    private String title;
+    
+    private String description;
+    
+    private String activityType; // SIGHTSEEING, ADVENTURE, CULTURAL, LEISURE
+    
+    private List<String> tags = new ArrayList<>(); // Interests served, e.g. MUSEUMS, NATURE, FOOD, SHOPPING
+    
+    @NotNull(message = "Duration is required")
+    @Positive(message = "Duration must be positive")
+    private Integer duration; // Duration in minutes
+    
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "Opening time must be HH:mm")
+    private String opensAt = "09:00";
+    
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "Closing time must be HH:mm")
+    private String closesAt = "18:00";
+    
+    @Min(value = 1, message = "Intensity must be between 1 and 3")
+    @Max(value = 3, message = "Intensity must be between 1 and 3")
+    private int intensity = 2; // 1 = relaxed, 2 = moderate, 3 = strenuous
+    
+    private boolean optional; // Only scheduled when optional activities are requested
+    
+    private String location;
+    
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
+    private String cost;
+    
+    @CreatedDate
+    private LocalDateTime createdAt;
+    
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public CatalogActivity() {}
+    
+    public CatalogActivity(String destination, String title, String activityType, List<String> tags,
+                           Integer duration, String opensAt, String closesAt, int intensity) {
+        this.destination = destination;
+        this.title = title;
+        this.activityType = activityType;
+        this.tags = tags;
+        this.duration = duration;
+        this.opensAt = opensAt;
+        this.closesAt = closesAt;
+        this.intensity = intensity;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getActivityType() {
+        return activityType;
+    }
+    
+    public void setActivityType(String activityType) {
+        this.activityType = activityType;
+    }
+    
+    public List<String> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<String> tags) {
+        this.tags = tags != null ? tags : new ArrayList<>();
+    }
+    
+    public Integer getDuration() {
+        return duration;
+    }
+    
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+    
+    public String getOpensAt() {
+        return opensAt;
+    }
+    
+    public void setOpensAt(String opensAt) {
+        this.opensAt = opensAt;
+    }
+    
+    public String getClosesAt() {
+        return closesAt;
+    }
+    
+    public void setClosesAt(String closesAt) {
+        this.closesAt = closesAt;
+    }
+    
+    public int getIntensity() {
+        return intensity;
+    }
+    
+    public void setIntensity(int intensity) {
+        this.intensity = intensity;
+    }
+    
+    public boolean isOptional() {
+        return optional;
+    }
+    
+    public void setOptional(boolean optional) {
+        this.optional = optional;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+    
+    public String getCost() {
+        return cost;
+    }
+    
+    public void setCost(String cost) {
+        this.cost = cost;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "CatalogActivity{" +
+                "id='" + id + '\'' +
+                ", destination='" + destination + '\'' +
+                ", title='" + title + '\'' +
+                ", activityType='" + activityType + '\'' +
+                ", tags=" + tags +
+                ", duration=" + duration +
+                ", opensAt='" + opensAt + '\'' +
+                ", closesAt='" + closesAt + '\'' +
+                ", intensity=" + intensity +
+                ", optional=" + optional +
+                '}';
+    }
+}
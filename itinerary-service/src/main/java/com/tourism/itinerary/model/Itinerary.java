@@ -3,8 +3,9 @@ package com.tourism.itinerary.model;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -14,14 +15,28 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
+/**
+ * One day of a tour's itinerary.
+ *
+ * At most one active document may exist per tour and day; the partial unique
+ * index enforces it, so soft-deleted days never block a new one. The other
+ * indexes follow the {@code ItineraryRepository} finders.
+ */
 @Document(collection = "itineraries")
+@CompoundIndexes({
+    @CompoundIndex(name = "tour_day_active_unique", def = "{ 'tourId': 1, 'dayNumber': 1 }",
+            unique = true, partialFilter = "{ 'active': true }"),
+    @CompoundIndex(name = "tour_active_day", def = "{ 'tourId': 1, 'active': 1, 'dayNumber': 1 }"),
+    @CompoundIndex(name = "active_tour", def = "{ 'active': 1, 'tourId': 1 }"),
+    @CompoundIndex(name = "created_by_active_created", def = "{ 'createdBy': 1, 'active': 1, 'createdAt': -1 }"),
+    @CompoundIndex(name = "updated_tour", def = "{ 'updatedAt': 1, 'tourId': 1 }")
+})
 public class Itinerary {
     
     @Id
     private String id;
     
     @NotNull(message = "Tour ID is required")
-    @Indexed
     private Long tourId;
     
     @NotNull(message = "Day number is required")
@@ -51,6 +66,8 @@ public class Itinerary {
     
     private boolean active = true; // Whether this itinerary is active
     
+    private Long version; // Incremented on every write; checked by conditional updates
+    
     // Constructors
     public Itinerary() {}
     
@@ -180,6 +197,21 @@ public class Itinerary {
         this.meals.add(meal);
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    /**
+     * Advance the version before a full write of this document
+     */
+    public void nextVersion() {
+        this.version = version != null ? version + 1 : 1L;
+    }
+    
     @Override
     public String toString() {
         return "Itinerary{" +
@@ -196,6 +228,7 @@ public class Itinerary {
                 ", updatedAt=" + updatedAt +
                 ", createdBy='" + createdBy + '\'' +
                 ", active=" + active +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,88 @@
+package com.tourism.itinerary.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Read model holding all active days of one tour in a single document.
+ *
+ * Derived from the {@code itineraries} collection and never edited directly.
+ */
+@Document(collection = "tour_itineraries")
+public class TourItineraries {
+    
+    @Id
+    private Long tourId;
+    
+    private List<Itinerary> days = new ArrayList<>(); // Active days, ordered by day number
+    
+    private int totalDays;
+    
+    private LocalDateTime lastUpdated; // Latest updatedAt among the tour's days, soft-deleted ones included
+    
+    private LocalDateTime rebuiltAt;
+    
+    // Constructors
+    public TourItineraries() {}
+    
+    public TourItineraries(Long tourId, List<Itinerary> days) {
+        this.tourId = tourId;
+        this.days = days;
+        this.totalDays = days.size();
+    }
+    
+    // Getters and Setters
+    public Long getTourId() {
+        return tourId;
+    }
+    
+    public void setTourId(Long tourId) {
+        this.tourId = tourId;
+    }
+    
+    public List<Itinerary> getDays() {
+        return days;
+    }
+    
+    public void setDays(List<Itinerary> days) {
+        this.days = days;
+    }
+    
+    public int getTotalDays() {
+        return totalDays;
+    }
+    
+    public void setTotalDays(int totalDays) {
+        this.totalDays = totalDays;
+    }
+    
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+    
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+    
+    public LocalDateTime getRebuiltAt() {
+        return rebuiltAt;
+    }
+    
+    public void setRebuiltAt(LocalDateTime rebuiltAt) {
+        this.rebuiltAt = rebuiltAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "TourItineraries{" +
+                "tourId=" + tourId +
+                ", totalDays=" + totalDays +
+                ", lastUpdated=" + lastUpdated +
+                ", rebuiltAt=" + rebuiltAt +
+                '}';
+    }
+}
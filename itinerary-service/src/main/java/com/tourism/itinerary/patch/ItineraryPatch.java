@@ -0,0 +1,33 @@
+package com.tourism.itinerary.patch;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * A JSON Patch compiled to one MongoDB update of an itinerary day.
+ */
+public class ItineraryPatch {
+
+    private final Update update;
+    private final List<String> targetedActivityIds;
+    private final List<String> addedActivityIds;
+
+    ItineraryPatch(Update update, List<String> targetedActivityIds, List<String> addedActivityIds) {
+        this.update = update;
+        this.targetedActivityIds = targetedActivityIds;
+        this.addedActivityIds = addedActivityIds;
+    }
+
+    public Update getUpdate() { return update; }
+
+    /**
+     * Activities the patch changes or removes; all of them must exist
+     */
+    public List<String> getTargetedActivityIds() { return targetedActivityIds; }
+
+    /**
+     * Activities the patch appends; none of them may exist yet
+     */
+    public List<String> getAddedActivityIds() { return addedActivityIds; }
+}
@@ -0,0 +1,255 @@
+package com.tourism.itinerary.patch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourism.itinerary.model.Activity;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Translates a JSON Patch (RFC 6902) on an itinerary day into targeted
+ * MongoDB update operators.
+ *
+ * Activities are addressed by their stable ID rather than by array index:
+ * {@code /activities/{activityId}/time} becomes a {@code $set} on that element
+ * through an array filter, {@code /activities/{activityId}} can be replaced or
+ * removed ({@code $pull}), and {@code /activities/-} appends ({@code $push}).
+ * The day-level fields {@code dayTitle}, {@code meals}, {@code accommodation},
+ * {@code transportDetails} and {@code notes} can be set or removed. Everything
+ * else, and the {@code move}, {@code copy} and {@code test} operations, is
+ * rejected.
+ *
+ * The whole patch is applied as a single update so it is atomic. MongoDB
+ * cannot combine appending, removing and changing activities in one update, so
+ * a patch may do only one of those three; day-level fields can accompany any
+ * of them.
+ */
+@Component
+public class ItineraryPatchCompiler {
+
+    private static final Map<String, Class<?>> DAY_FIELDS = Map.of(
+            "dayTitle", String.class,
+            "meals", List.class,
+            "accommodation", String.class,
+            "transportDetails", String.class,
+            "notes", String.class);
+
+    private static final Map<String, Class<?>> ACTIVITY_FIELDS = Map.ofEntries(
+            Map.entry("time", String.class),
+            Map.entry("title", String.class),
+            Map.entry("description", String.class),
+            Map.entry("duration", Integer.class),
+            Map.entry("location", String.class),
+            Map.entry("activityType", String.class),
+            Map.entry("cost", String.class),
+            Map.entry("included", Boolean.class),
+            Map.entry("latitude", Double.class),
+            Map.entry("longitude", Double.class),
+            Map.entry("fixedTime", Boolean.class));
+
+    private static final Set<String> PRIMITIVE_ACTIVITY_FIELDS = Set.of("included", "fixedTime");
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public ItineraryPatchCompiler(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    public ItineraryPatch compile(JsonNode patch) {
+        if (patch == null || !patch.isArray() || patch.isEmpty()) {
+            throw new IllegalArgumentException("Patch must be a non-empty JSON Patch array");
+        }
+
+        // Later operations on the same path replace earlier ones, as they would when applied in order
+        Map<String, Object> sets = new LinkedHashMap<>();
+        List<String> unsets = new ArrayList<>();
+        Map<String, String> filters = new LinkedHashMap<>(); // activityId -> array filter identifier
+        List<Activity> pushes = new ArrayList<>();
+        List<String> pulls = new ArrayList<>();
+        Map<String, Boolean> wholeActivity = new LinkedHashMap<>(); // activityId -> replaced as a whole
+        boolean activitySets = false;
+
+        for (int i = 0; i < patch.size(); i++) {
+            JsonNode operation = patch.get(i);
+            String op = text(operation, "op", i);
+            List<String> path = pointer(text(operation, "path", i), i);
+            JsonNode value = operation.get("value");
+            boolean write = "add".equals(op) || "replace".equals(op);
+            if (!write && !"remove".equals(op)) {
+                throw invalid(i, "operation '" + op + "' is not supported");
+            }
+            if (write && value == null) {
+                throw invalid(i, "'" + op + "' needs a value");
+            }
+
+            String root = path.get(0);
+            if (DAY_FIELDS.containsKey(root) && path.size() == 1) {
+                if (write) {
+                    sets.put(root, convert(value, DAY_FIELDS.get(root), i));
+                    unsets.remove(root);
+                } else {
+                    sets.remove(root);
+                    unsets.add(root);
+                }
+                continue;
+            }
+            if (!"activities".equals(root) || path.size() < 2 || path.size() > 3) {
+                throw invalid(i, "path '" + operation.get("path").asText() + "' cannot be patched");
+            }
+
+            String activityId = path.get(1);
+            if (path.size() == 2 && "-".equals(activityId)) {
+                if (!"add".equals(op)) {
+                    throw invalid(i, "only 'add' can append to /activities");
+                }
+                Activity activity = activity(value, i);
+                if (activity.getActivityId() == null || activity.getActivityId().isBlank()) {
+                    activity.setActivityId(UUID.randomUUID().toString());
+                }
+                pushes.add(activity);
+            } else if (path.size() == 2) {
+                if ("remove".equals(op)) {
+                    pulls.add(activityId);
+                } else if ("replace".equals(op)) {
+                    Activity activity = activity(value, i);
+                    activity.setActivityId(activityId);
+                    sameTarget(wholeActivity, activityId, true, i);
+                    sets.put("activities.$[" + filter(filters, activityId) + "]", activity);
+                    activitySets = true;
+                } else {
+                    throw invalid(i, "use /activities/- to add an activity");
+                }
+            } else {
+                String field = path.get(2);
+                Class<?> type = ACTIVITY_FIELDS.get(field);
+                if (type == null) {
+                    throw invalid(i, "activity field '" + field + "' cannot be patched");
+                }
+                Object converted = null;
+                if (write) {
+                    converted = convert(value, type, i);
+                } else if (PRIMITIVE_ACTIVITY_FIELDS.contains(field)) {
+                    converted = Boolean.FALSE;
+                }
+                check(field, converted, i);
+                sameTarget(wholeActivity, activityId, false, i);
+                sets.put("activities.$[" + filter(filters, activityId) + "]." + field, converted);
+                activitySets = true;
+            }
+        }
+
+        int kinds = (activitySets ? 1 : 0) + (pushes.isEmpty() ? 0 : 1) + (pulls.isEmpty() ? 0 : 1);
+        if (kinds > 1) {
+            throw new IllegalArgumentException(
+                    "A patch can add, remove or change activities, but only one of these at a time");
+        }
+
+        Update update = new Update();
+        sets.forEach(update::set);
+        unsets.forEach(field -> {
+            if ("meals".equals(field)) {
+                update.set(field, new ArrayList<>());
+            } else {
+                update.unset(field);
+            }
+        });
+        filters.forEach((activityId, identifier) ->
+                update.filterArray(Criteria.where(identifier + ".activityId").is(activityId)));
+        if (!pushes.isEmpty()) {
+            update.push("activities").each(pushes.toArray());
+        }
+        if (!pulls.isEmpty()) {
+            update.pull("activities", Criteria.where("activityId").in(pulls).getCriteriaObject());
+        }
+
+        List<String> targeted = new ArrayList<>(filters.keySet());
+        targeted.addAll(pulls);
+        List<String> added = pushes.stream().map(Activity::getActivityId).collect(Collectors.toList());
+        return new ItineraryPatch(update, targeted, added);
+    }
+
+    /**
+     * MongoDB rejects setting an element and one of its fields in the same update
+     */
+    private static void sameTarget(Map<String, Boolean> wholeActivity, String activityId, boolean whole, int index) {
+        Boolean previous = wholeActivity.putIfAbsent(activityId, whole);
+        if (previous != null && previous != whole) {
+            throw invalid(index, "activity " + activityId + " is both replaced and changed field by field");
+        }
+    }
+
+    private static String filter(Map<String, String> filters, String activityId) {
+        return filters.computeIfAbsent(activityId, id -> "a" + filters.size());
+    }
+
+    private Activity activity(JsonNode value, int index) {
+        Activity activity = convert(value, Activity.class, index);
+        Set<ConstraintViolation<Activity>> violations = validator.validate(activity);
+        if (!violations.isEmpty()) {
+            throw invalid(index, messages(violations));
+        }
+        return activity;
+    }
+
+    private void check(String field, Object value, int index) {
+        Set<ConstraintViolation<Activity>> violations = validator.validateValue(Activity.class, field, value);
+        if (!violations.isEmpty()) {
+            throw invalid(index, messages(violations));
+        }
+    }
+
+    private <T> T convert(JsonNode value, Class<T> type, int index) {
+        try {
+            return objectMapper.treeToValue(value, type);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw invalid(index, "value is not a valid " + type.getSimpleName());
+        }
+    }
+
+    private static String text(JsonNode operation, String field, int index) {
+        JsonNode node = operation != null ? operation.get(field) : null;
+        if (node == null || !node.isTextual()) {
+            throw invalid(index, "'" + field + "' is required");
+        }
+        return node.asText();
+    }
+
+    /**
+     * Split a JSON Pointer into its unescaped tokens
+     */
+    private static List<String> pointer(String path, int index) {
+        if (!path.startsWith("/") || path.length() == 1) {
+            throw invalid(index, "path '" + path + "' is not a JSON Pointer");
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static <T> String messages(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static IllegalArgumentException invalid(int index, String message) {
+        return new IllegalArgumentException("Patch operation " + index + ": " + message);
+    }
+}
@@ -0,0 +1,237 @@
+package com.tourism.itinerary.pdf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded, least-recently-used cache of rendered PDFs on local disk.
+ *
+ * Keys are content addresses (a hash of everything the document is rendered
+ * from), so an entry never goes stale: a changed itinerary simply produces a
+ * new key and the old file ages out. Files are written to a temporary name and
+ * moved into place, so readers only ever see complete documents. The index is
+ * rebuilt from the directory on startup.
+ */
+@Component
+public class PdfCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfCache.class);
+
+    private static final String SUFFIX = ".pdf";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final PdfCacheProperties properties;
+    private final Path directory;
+
+    // key -> file size, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Deque<PendingDelete> pendingDeletes = new ArrayDeque<>();
+    private long totalBytes;
+
+    public PdfCache(PdfCacheProperties properties) throws IOException {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath();
+        if (properties.isEnabled()) {
+            Files.createDirectories(directory);
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Look up a cached document, marking it recently used
+     */
+    public synchronized CachedPdf get(String key) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Long size = entries.get(key);
+        return size != null ? new CachedPdf(path(key), size) : null;
+    }
+
+    /**
+     * Render a document into the cache unless it is already there
+     */
+    public void store(String key, PdfRenderer renderer) throws IOException {
+        if (properties.isEnabled() && get(key) == null) {
+            write(key, renderer, null);
+        }
+    }
+
+    /**
+     * Render a document to {@code client} while also writing it into the
+     * cache, so a miss costs the client no more than an uncached render
+     */
+    public void renderThrough(String key, PdfRenderer renderer, OutputStream client) throws IOException {
+        if (!properties.isEnabled()) {
+            renderer.render(client);
+            return;
+        }
+        write(key, renderer, client);
+    }
+
+    private void write(String key, PdfRenderer renderer, OutputStream client) throws IOException {
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        boolean committed = false;
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                renderer.render(client != null ? new TeeOutputStream(file, client) : file);
+            }
+            long size = Files.size(temp);
+            if (size > properties.getMaxBytes()) {
+                return;
+            }
+            Files.move(temp, path(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+            index(key, size);
+        } finally {
+            if (!committed) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private synchronized void index(String key, long size) {
+        Long previous = entries.put(key, size);
+        if (previous != null) {
+            totalBytes -= previous;
+        }
+        totalBytes += size;
+
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > properties.getMaxBytes() && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            totalBytes -= entry.getValue();
+            eldest.remove();
+            pendingDeletes.addLast(new PendingDelete(entry.getKey(), now + properties.getDeleteDelay().toMillis()));
+        }
+        deleteExpired(now);
+    }
+
+    private void deleteExpired(long now) {
+        while (!pendingDeletes.isEmpty() && pendingDeletes.peekFirst().deleteAt <= now) {
+            String key = pendingDeletes.pollFirst().key;
+            // The same document may have been rendered again since it was evicted
+            if (entries.containsKey(key)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(path(key));
+            } catch (IOException e) {
+                log.warn("Could not delete evicted PDF {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        List<File> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.map(Path::toFile).toList();
+        }
+        files.stream()
+                .filter(file -> file.getName().endsWith(TEMP_SUFFIX))
+                .forEach(File::delete);
+        files.stream()
+                .filter(file -> file.getName().endsWith(SUFFIX))
+                .sorted(Comparator.comparingLong(File::lastModified))
+                .forEach(file -> {
+                    String name = file.getName();
+                    index(name.substring(0, name.length() - SUFFIX.length()), file.length());
+                });
+        log.info("PDF cache at {} holds {} documents ({} bytes)", directory, size(), totalBytes());
+    }
+
+    private Path path(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * A cached document and its length
+     */
+    public static class CachedPdf {
+
+        private final Path file;
+        private final long size;
+
+        CachedPdf(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+
+        public Path getFile() { return file; }
+        public long getSize() { return size; }
+    }
+
+    private static class PendingDelete {
+
+        private final String key;
+        private final long deleteAt;
+
+        PendingDelete(String key, long deleteAt) {
+            this.key = key;
+            this.deleteAt = deleteAt;
+        }
+    }
+
+    /**
+     * Copies everything written to both the cache file and the client
+     */
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+    }
+}
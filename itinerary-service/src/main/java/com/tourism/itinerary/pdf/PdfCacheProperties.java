@@ -0,0 +1,67 @@
+package com.tourism.itinerary.pdf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * On-disk cache of rendered PDFs, bound from {@code app.pdf.cache.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.pdf.cache")
+public class PdfCacheProperties {
+
+    private boolean enabled = true;
+
+    private String directory = Paths.get(System.getProperty("java.io.tmpdir"), "itinerary-pdf-cache").toString();
+
+    /**
+     * Total size of cached files; least recently used files are evicted beyond it
+     */
+    private long maxBytes = 256L * 1024 * 1024;
+
+    /**
+     * Evicted files are deleted only after this delay, so downloads already
+     * handed the file keep working
+     */
+    private Duration deleteDelay = Duration.ofMinutes(1);
+
+    /**
+     * Render a tour's PDFs in the background as soon as its itinerary changes
+     */
+    private boolean regenerateOnChange = true;
+
+    /**
+     * Threads for background regeneration, separate from the download pool
+     */
+    private int regenerationThreads = 1;
+
+    /**
+     * Tours waiting for regeneration; further changes are skipped and rendered on first download
+     */
+    private int regenerationQueueCapacity = 64;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+
+    public long getMaxBytes() { return maxBytes; }
+    public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+
+    public Duration getDeleteDelay() { return deleteDelay; }
+    public void setDeleteDelay(Duration deleteDelay) { this.deleteDelay = deleteDelay; }
+
+    public boolean isRegenerateOnChange() { return regenerateOnChange; }
+    public void setRegenerateOnChange(boolean regenerateOnChange) { this.regenerateOnChange = regenerateOnChange; }
+
+    public int getRegenerationThreads() { return regenerationThreads; }
+    public void setRegenerationThreads(int regenerationThreads) { this.regenerationThreads = regenerationThreads; }
+
+    public int getRegenerationQueueCapacity() { return regenerationQueueCapacity; }
+    public void setRegenerationQueueCapacity(int regenerationQueueCapacity) { this.regenerationQueueCapacity = regenerationQueueCapacity; }
+}
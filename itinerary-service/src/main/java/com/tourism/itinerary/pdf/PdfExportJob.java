@@ -0,0 +1,90 @@
+package com.tourism.itinerary.pdf;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State and progress of one bulk PDF export.
+ *
+ * Updated by the thread assembling the archive and read concurrently by
+ * status requests.
+ */
+public class PdfExportJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final List<Long> tourIds;
+    private final String requestedBy;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile State state = State.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Path file;
+    private volatile long sizeBytes;
+    private volatile String error;
+
+    public PdfExportJob(List<Long> tourIds, String requestedBy) {
+        this.tourIds = List.copyOf(tourIds);
+        this.requestedBy = requestedBy;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        state = State.RUNNING;
+    }
+
+    public void tourCompleted() {
+        completed.incrementAndGet();
+    }
+
+    public void tourFailed(Long tourId, String reason) {
+        failures.add("Tour " + tourId + ": " + reason);
+    }
+
+    public void complete(Path archive, long size) {
+        file = archive;
+        sizeBytes = size;
+        finishedAt = LocalDateTime.now();
+        state = State.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        error = reason;
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    // Getters
+    public String getId() { return id; }
+    public List<Long> getTourIds() { return tourIds; }
+    public String getRequestedBy() { return requestedBy; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public State getState() { return state; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public Path getFile() { return file; }
+    public long getSizeBytes() { return sizeBytes; }
+    public String getError() { return error; }
+    public int getTotal() { return tourIds.size(); }
+    public int getCompleted() { return completed.get(); }
+
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tourism.itinerary.pdf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Bulk PDF export jobs, bound from {@code app.pdf.export.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.pdf.export")
+public class PdfExportProperties {
+
+    private String directory = Paths.get(System.getProperty("java.io.tmpdir"), "itinerary-pdf-exports").toString();
+
+    /**
+     * Threads rendering tours for export jobs, shared by all jobs
+     */
+    private int workerThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Jobs assembling archives at the same time; further jobs wait in the queue
+     */
+    private int concurrentJobs = 2;
+
+    /**
+     * Jobs allowed to wait for a free slot before new exports are refused with 503
+     */
+    private int queueCapacity = 8;
+
+    /**
+     * Archives and job status are kept this long after the job finishes
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    // Getters and Setters
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+
+    public int getWorkerThreads() { return workerThreads; }
+    public void setWorkerThreads(int workerThreads) { this.workerThreads = workerThreads; }
+
+    public int getConcurrentJobs() { return concurrentJobs; }
+    public void setConcurrentJobs(int concurrentJobs) { this.concurrentJobs = concurrentJobs; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Duration getRetention() { return retention; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+}
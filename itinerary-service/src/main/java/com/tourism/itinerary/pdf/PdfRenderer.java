@@ -0,0 +1,13 @@
+package com.tourism.itinerary.pdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes one PDF document to a stream without closing it
+ */
+@FunctionalInterface
+public interface PdfRenderer {
+
+    void render(OutputStream out) throws IOException;
+}
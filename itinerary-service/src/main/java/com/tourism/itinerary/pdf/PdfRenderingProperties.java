@@ -0,0 +1,52 @@
+package com.tourism.itinerary.pdf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * PDF rendering settings, bound from {@code app.pdf.*}.
+ *
+ * Rendering runs on a dedicated pool so a burst of large multi-day tours
+ * cannot tie up the servlet request threads.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.pdf")
+public class PdfRenderingProperties {
+
+    private int renderThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Renders allowed to wait for a thread before requests are turned away with 503
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * Upper bound on rendering and streaming a single document
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /**
+     * Optional directory of TTF/OTF fonts registered alongside the standard PDF fonts
+     */
+    private String fontDir;
+
+    private String defaultFontFamily = "Helvetica";
+
+    // Getters and Setters
+    public int getRenderThreads() { return renderThreads; }
+    public void setRenderThreads(int renderThreads) { this.renderThreads = renderThreads; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Duration getTimeout() { return timeout; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+    public String getFontDir() { return fontDir; }
+    public void setFontDir(String fontDir) { this.fontDir = fontDir; }
+
+    public String getDefaultFontFamily() { return defaultFontFamily; }
+    public void setDefaultFontFamily(String defaultFontFamily) { this.defaultFontFamily = defaultFontFamily; }
+}
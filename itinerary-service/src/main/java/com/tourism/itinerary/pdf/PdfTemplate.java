@@ -0,0 +1,61 @@
+package com.tourism.itinerary.pdf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML template with {@code {{name}}} placeholders, split into literal and
+ * placeholder parts once so each render is a single pass of appends.
+ *
+ * Values are inserted verbatim; callers escape them.
+ */
+public class PdfTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final List<String> literals;
+    private final List<String> placeholders;
+    private final int sizeHint;
+
+    private PdfTemplate(List<String> literals, List<String> placeholders, int sizeHint) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.sizeHint = sizeHint;
+    }
+
+    public static PdfTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            int close = open >= 0 ? source.indexOf(CLOSE, open + OPEN.length()) : -1;
+            if (open < 0 || close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        return new PdfTemplate(literals, placeholders, source.length());
+    }
+
+    /**
+     * Fill the placeholders; names missing from the model render as empty
+     */
+    public String render(Map<String, String> model) {
+        StringBuilder html = new StringBuilder(sizeHint * 2);
+        for (int i = 0; i < placeholders.size(); i++) {
+            html.append(literals.get(i));
+            String value = model.get(placeholders.get(i));
+            if (value != null) {
+                html.append(value);
+            }
+        }
+        html.append(literals.get(literals.size() - 1));
+        return html.toString();
+    }
+}
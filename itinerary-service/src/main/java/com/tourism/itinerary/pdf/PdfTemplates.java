@@ -0,0 +1,78 @@
+package com.tourism.itinerary.pdf;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout template, stylesheet and fonts for itinerary PDFs, loaded once at
+ * startup and shared by every render.
+ *
+ * The font set (the expensive part: font discovery and parsing) is shared.
+ * A {@link FontProvider} caches fonts bound to a single document, so a light
+ * one is created over the shared set for each render.
+ */
+@Component
+public class PdfTemplates {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfTemplates.class);
+
+    private final PdfTemplate layout;
+    private final String fingerprint;
+    private final FontSet fontSet;
+    private final String defaultFontFamily;
+
+    public PdfTemplates(PdfRenderingProperties properties, ResourceLoader resourceLoader) throws IOException {
+        String stylesheet = read(resourceLoader.getResource("classpath:pdf/itinerary.css"));
+        String layoutSource = read(resourceLoader.getResource("classpath:pdf/layout.html"));
+        // The stylesheet is fixed, so it is inlined into the template up front
+        String source = layoutSource.replace("{{stylesheet}}", stylesheet);
+        this.layout = PdfTemplate.compile(source);
+        this.fingerprint = DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+
+        DefaultFontProvider fonts = new DefaultFontProvider(true, false, false);
+        if (properties.getFontDir() != null && !properties.getFontDir().isBlank()) {
+            int added = fonts.addDirectory(properties.getFontDir());
+            log.info("Registered {} fonts from {}", added, properties.getFontDir());
+        }
+        this.fontSet = fonts.getFontSet();
+        this.defaultFontFamily = properties.getDefaultFontFamily();
+    }
+
+    public PdfTemplate getLayout() {
+        return layout;
+    }
+
+    /**
+     * Hash of the layout and stylesheet, so rendered documents cached under a
+     * previous template are not served after it changes
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Converter settings for a single document
+     */
+    public ConverterProperties converterProperties() {
+        return new ConverterProperties()
+                .setFontProvider(new FontProvider(fontSet, defaultFontFamily));
+    }
+
+    private static String read(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
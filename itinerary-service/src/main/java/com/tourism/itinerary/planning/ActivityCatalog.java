@@ -0,0 +1,200 @@
+package com.tourism.itinerary.planning;
+
+import com.tourism.itinerary.model.CatalogActivity;
+import com.tourism.itinerary.repository.ActivityCatalogRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the activity catalog used by itinerary generation.
+ *
+ * A destination's activities are read once (one indexed query) and reused
+ * until the refresh interval passes or the catalog is edited through this
+ * class. Each snapshot carries a version number that changes only when the
+ * activities do; the planner folds it into its template cache key so cached
+ * plans never outlive the catalog they were built from. Destinations without catalog entries fall back to a small
+ * built-in set of generic activities.
+ *
+ * Activities with coordinates are also kept in a {@link KdTree}, rebuilt on
+ * the same refresh interval, for nearby-alternative lookups.
+ */
+@Component
+public class ActivityCatalog {
+
+    private final ActivityCatalogRepository repository;
+    private final PlanningProperties properties;
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile SpatialIndex spatialIndex;
+
+    public ActivityCatalog(ActivityCatalogRepository repository, PlanningProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    /**
+     * Current activities at a destination
+     */
+    public Snapshot forDestination(String destination) {
+        String key = normalizeDestination(destination);
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null && now - snapshot.loadedAt < properties.getCatalogRefresh().toMillis()) {
+            return snapshot;
+        }
+
+        List<CatalogActivity> activities = repository.findByDestination(key);
+        if (activities.isEmpty()) {
+            activities = genericActivities(destination);
+        }
+        String fingerprint = activities.stream()
+                .map(activity -> activity.getId() + "@" + activity.getUpdatedAt())
+                .sorted()
+                .collect(Collectors.joining("|"));
+        long version = snapshot != null && snapshot.fingerprint.equals(fingerprint)
+                ? snapshot.version
+                : versions.incrementAndGet();
+        Snapshot loaded = new Snapshot(List.copyOf(activities), version, fingerprint, now);
+        snapshots.put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Query the catalog itself; type and tag are optional filters
+     */
+    public List<CatalogActivity> search(String destination, String activityType, String tag) {
+        String key = normalizeDestination(destination);
+        String type = normalizeCode(activityType);
+        String interest = normalizeCode(tag);
+        if (type != null && interest != null) {
+            return repository.findByDestinationAndActivityTypeAndTag(key, type, interest);
+        }
+        if (type != null) {
+            return repository.findByDestinationAndActivityType(key, type);
+        }
+        if (interest != null) {
+            return repository.findByDestinationAndTag(key, interest);
+        }
+        return repository.findByDestination(key);
+    }
+
+    /**
+     * Up to {@code limit} catalog activities within {@code maxKm} of a point, nearest first
+     */
+    public List<KdTree.Neighbor<CatalogActivity>> nearby(double latitude, double longitude, int limit, double maxKm) {
+        long now = System.currentTimeMillis();
+        SpatialIndex index = spatialIndex;
+        if (index == null || now - index.loadedAt >= properties.getCatalogRefresh().toMillis()) {
+            index = new SpatialIndex(new KdTree<>(repository.findLocated(),
+                    CatalogActivity::getLatitude, CatalogActivity::getLongitude), now);
+            spatialIndex = index;
+        }
+        return index.tree.nearest(latitude, longitude, limit, maxKm);
+    }
+
+    public CatalogActivity save(CatalogActivity activity) {
+        activity.setDestination(normalizeDestination(activity.getDestination()));
+        activity.setActivityType(normalizeCode(activity.getActivityType()));
+        List<String> tags = new ArrayList<>();
+        for (String tag : activity.getTags()) {
+            String code = normalizeCode(tag);
+            if (code != null && !tags.contains(code)) {
+                tags.add(code);
+            }
+        }
+        activity.setTags(tags);
+
+        CatalogActivity saved = repository.save(activity);
+        snapshots.remove(saved.getDestination());
+        spatialIndex = null;
+        return saved;
+    }
+
+    public static String normalizeDestination(String destination) {
+        return destination != null ? destination.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    public static String normalizeCode(String code) {
+        return code != null && !code.isBlank() ? code.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static List<CatalogActivity> genericActivities(String destination) {
+        String place = destination != null && !destination.isBlank() ? destination.trim() : "the city";
+        List<CatalogActivity> activities = new ArrayList<>();
+        activities.add(generic(place, "City Orientation Walk", "Get familiar with " + place + " and its landmarks",
+                "SIGHTSEEING", List.of("HISTORY", "WALKING"), 150, "09:00", "18:00", 2, false));
+        activities.add(generic(place, "Old Town Heritage Tour", "Guided walk through the historic quarter",
+                "CULTURAL", List.of("HISTORY", "ARCHITECTURE"), 180, "09:00", "17:00", 2, false));
+        activities.add(generic(place, "City Museum Visit", "Highlights of the main museum collection",
+                "CULTURAL", List.of("MUSEUMS", "ART", "HISTORY"), 120, "10:00", "18:00", 1, false));
+        activities.add(generic(place, "Local Market and Food Tasting", "Taste regional specialities at the market",
+                "CULTURAL", List.of("FOOD", "SHOPPING"), 120, "08:00", "14:00", 1, false));
+        activities.add(generic(place, "Botanical Garden Stroll", "Relaxed walk through the gardens",
+                "LEISURE", List.of("NATURE", "PHOTOGRAPHY"), 90, "08:00", "19:00", 1, false));
+        activities.add(generic(place, "Scenic Viewpoint Hike", "Hike to a viewpoint overlooking " + place,
+                "ADVENTURE", List.of("NATURE", "HIKING", "PHOTOGRAPHY"), 210, "07:00", "17:00", 3, false));
+        activities.add(generic(place, "Shopping District", "Free time in the main shopping streets",
+                "LEISURE", List.of("SHOPPING"), 120, "10:00", "21:00", 1, false));
+        activities.add(generic(place, "River Cruise", "Sightseeing cruise along the waterfront",
+                "SIGHTSEEING", List.of("PHOTOGRAPHY", "RELAXATION"), 90, "10:00", "22:00", 1, true));
+        activities.add(generic(place, "Cooking Class", "Learn to prepare a traditional dish",
+                "CULTURAL", List.of("FOOD"), 150, "10:00", "20:00", 1, true));
+        activities.add(generic(place, "Cycling Tour", "Guided bike ride around the city's highlights",
+                "ADVENTURE", List.of("NATURE", "SPORTS"), 180, "08:00", "18:00", 3, true));
+        activities.add(generic(place, "Spa and Wellness Afternoon", "Time to unwind",
+                "LEISURE", List.of("RELAXATION", "WELLNESS"), 150, "10:00", "21:00", 1, true));
+        activities.add(generic(place, "Evening Cultural Show", "Traditional music and dance performance",
+                "CULTURAL", List.of("MUSIC", "NIGHTLIFE"), 120, "17:00", "23:00", 1, true));
+        return activities;
+    }
+
+    private static CatalogActivity generic(String place, String title, String description, String type,
+                                           List<String> tags, int duration, String opensAt, String closesAt,
+                                           int intensity, boolean optional) {
+        CatalogActivity activity = new CatalogActivity(normalizeDestination(place), title, type, tags,
+                duration, opensAt, closesAt, intensity);
+        activity.setId("generic:" + title);
+        activity.setDescription(description);
+        activity.setLocation(place);
+        activity.setOptional(optional);
+        return activity;
+    }
+
+    /**
+     * Activities at one destination as read at one point in time
+     */
+    public static class Snapshot {
+
+        private final List<CatalogActivity> activities;
+        private final long version;
+        private final String fingerprint;
+        private final long loadedAt;
+
+        Snapshot(List<CatalogActivity> activities, long version, String fingerprint, long loadedAt) {
+            this.activities = activities;
+            this.version = version;
+            this.fingerprint = fingerprint;
+            this.loadedAt = loadedAt;
+        }
+
+        public List<CatalogActivity> getActivities() { return activities; }
+        public long getVersion() { return version; }
+    }
+
+    private static final class SpatialIndex {
+
+        final KdTree<CatalogActivity> tree;
+        final long loadedAt;
+
+        SpatialIndex(KdTree<CatalogActivity> tree, long loadedAt) {
+            this.tree = tree;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
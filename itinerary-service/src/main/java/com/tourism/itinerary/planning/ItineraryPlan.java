@@ -0,0 +1,67 @@
+package com.tourism.itinerary.planning;
+
+import com.tourism.itinerary.model.Activity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A generated multi-day schedule, independent of any tour.
+ *
+ * Plans are cached and shared between requests, so callers receive copies of
+ * the activities rather than the cached instances.
+ */
+public class ItineraryPlan {
+
+    private final List<PlannedDay> days;
+    private final double score;
+
+    ItineraryPlan(List<PlannedDay> days, double score) {
+        this.days = List.copyOf(days);
+        this.score = score;
+    }
+
+    public List<PlannedDay> getDays() { return days; }
+    public double getScore() { return score; }
+
+    public static class PlannedDay {
+
+        private final int dayNumber;
+        private final String title;
+        private final List<Activity> activities;
+        private final List<String> meals;
+
+        PlannedDay(int dayNumber, String title, List<Activity> activities, List<String> meals) {
+            this.dayNumber = dayNumber;
+            this.title = title;
+            this.activities = List.copyOf(activities);
+            this.meals = List.copyOf(meals);
+        }
+
+        public int getDayNumber() { return dayNumber; }
+        public String getTitle() { return title; }
+
+        public List<String> getMeals() {
+            return new ArrayList<>(meals);
+        }
+
+        /**
+         * Fresh, mutable copies of the day's activities in time order
+         */
+        public List<Activity> copyActivities() {
+            List<Activity> copies = new ArrayList<>(activities.size());
+            for (Activity activity : activities) {
+                Activity copy = new Activity(activity.getTime(), activity.getTitle(), activity.getDescription(),
+                        activity.getDuration(), activity.getLocation());
+                copy.setActivityType(activity.getActivityType());
+                copy.setCost(activity.getCost());
+                copy.setIncluded(activity.isIncluded());
+                copy.setLatitude(activity.getLatitude());
+                copy.setLongitude(activity.getLongitude());
+                copy.setFixedTime(activity.isFixedTime());
+                copies.add(copy);
+            }
+            return copies;
+        }
+    }
+}
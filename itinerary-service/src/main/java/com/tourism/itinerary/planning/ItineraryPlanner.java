@@ -0,0 +1,493 @@
+package com.tourism.itinerary.planning;
+
+import com.tourism.itinerary.dto.ItineraryGenerationRequest;
+import com.tourism.itinerary.model.Activity;
+import com.tourism.itinerary.model.CatalogActivity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds multi-day schedules from the {@link ActivityCatalog}.
+ *
+ * Each day is a time window with fixed blocks (arrival, lunch, dinner,
+ * check-out). Activities are placed one after another at the earliest time
+ * that respects their opening hours, avoids the fixed blocks and leaves a
+ * transfer gap, until the day's load for the requested activity level is
+ * used up. Candidates are ranked by how well they match the tour type and
+ * interests, with penalties for waiting, for repeating the previous activity
+ * type and for reusing an activity from an earlier day.
+ *
+ * The first plan is built greedily; randomised restarts choosing among the
+ * top few candidates at each step then try to beat it until the time budget
+ * runs out. Each day's activities are then reordered by the
+ * {@link RouteOptimizer} to cut travel between them. Plans are cached by
+ * their inputs and the catalog version.
+ */
+@Component
+public class ItineraryPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ItineraryPlanner.class);
+
+    static final int MAX_DAYS = 60;
+
+    // Times are minutes since midnight
+    private static final int DAY_START = 9 * 60;
+    private static final int DAY_END = 22 * 60 + 30;
+    private static final int ARRIVAL_START = 10 * 60;
+    private static final int ARRIVAL_MINUTES = 120;
+    private static final int CHECKOUT_START = 14 * 60;
+    private static final int CHECKOUT_MINUTES = 60;
+    private static final int LUNCH_START = 12 * 60 + 30;
+    private static final int LUNCH_MINUTES = 60;
+    private static final int DINNER_START = 19 * 60;
+    private static final int DINNER_MINUTES = 90;
+
+    // Size of the restricted candidate list on randomised restarts
+    private static final int CANDIDATE_POOL = 3;
+    private static final double REUSE_PENALTY = 2.5;
+
+    private final ActivityCatalog catalog;
+    private final PlanningProperties properties;
+    private final RouteOptimizer routeOptimizer;
+    private final LinkedHashMap<String, ItineraryPlan> templates = new LinkedHashMap<>(64, 0.75f, true);
+
+    public ItineraryPlanner(ActivityCatalog catalog, PlanningProperties properties, RouteOptimizer routeOptimizer) {
+        this.catalog = catalog;
+        this.properties = properties;
+        this.routeOptimizer = routeOptimizer;
+    }
+
+    public ItineraryPlan plan(ItineraryGenerationRequest request) {
+        int days = request.getDuration() != null ? request.getDuration() : 0;
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + MAX_DAYS + " days");
+        }
+
+        ActivityCatalog.Snapshot snapshot = catalog.forDestination(request.getDestination());
+        String key = templateKey(request, days, snapshot.getVersion());
+        ItineraryPlan cached = cachedTemplate(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long started = System.nanoTime();
+        List<Candidate> candidates = candidates(request, snapshot.getActivities());
+        List<DayFrame> frames = frames(days, dailyLoad(request.getActivityLevel()));
+
+        Schedule best = construct(candidates, frames, null);
+        int restarts = 0;
+        if (!candidates.isEmpty()) {
+            long deadline = started + properties.getTimeBudget().toNanos();
+            Random random = new Random(key.hashCode());
+            while (restarts < properties.getMaxRestarts() && System.nanoTime() < deadline) {
+                restarts++;
+                Schedule attempt = construct(candidates, frames, random);
+                if (attempt.score > best.score) {
+                    best = attempt;
+                }
+            }
+        }
+
+        ItineraryPlan plan = toPlan(request, frames, best);
+        storeTemplate(key, plan);
+        log.debug("Planned {} days for {} from {} candidates in {} us ({} restarts, score {})",
+                days, request.getDestination(), candidates.size(),
+                (System.nanoTime() - started) / 1_000, restarts, best.score);
+        return plan;
+    }
+
+    private List<Candidate> candidates(ItineraryGenerationRequest request, List<CatalogActivity> activities) {
+        String tourType = ActivityCatalog.normalizeCode(request.getTourType());
+        String level = ActivityCatalog.normalizeCode(request.getActivityLevel());
+        Set<String> interests = new HashSet<>();
+        if (request.getInterests() != null) {
+            for (String interest : request.getInterests()) {
+                String code = ActivityCatalog.normalizeCode(interest);
+                if (code != null) {
+                    interests.add(code);
+                }
+            }
+        }
+        int maxIntensity = "LOW".equals(level) ? 2 : 3;
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (CatalogActivity activity : activities) {
+            Integer duration = activity.getDuration();
+            if (duration == null || duration <= 0
+                    || (activity.isOptional() && !request.isIncludeOptionalActivities())
+                    || activity.getIntensity() > maxIntensity) {
+                continue;
+            }
+            int opens = minutes(activity.getOpensAt(), 0);
+            int closes = minutes(activity.getClosesAt(), 24 * 60);
+            if (closes - opens < duration) {
+                continue;
+            }
+
+            double score = 1.0;
+            if (tourType != null && tourType.equals(activity.getActivityType())) {
+                score += 3.0;
+            }
+            for (String tag : activity.getTags()) {
+                if (interests.contains(tag)) {
+                    score += 2.0;
+                }
+            }
+            if (("HIGH".equals(level) && activity.getIntensity() == 1)
+                    || ("LOW".equals(level) && activity.getIntensity() == 2)) {
+                score -= 0.5;
+            }
+            candidates.add(new Candidate(activity, opens, closes, duration, score));
+        }
+        return candidates;
+    }
+
+    private List<DayFrame> frames(int days, int loadCap) {
+        List<DayFrame> frames = new ArrayList<>(days);
+        for (int day = 1; day <= days; day++) {
+            boolean arrival = days > 1 && day == 1;
+            boolean departure = days > 1 && day == days;
+            int start = arrival ? ARRIVAL_START + ARRIVAL_MINUTES : DAY_START;
+            int end = departure ? CHECKOUT_START : DAY_END;
+
+            List<int[]> blocks = new ArrayList<>();
+            if (LUNCH_START >= start && LUNCH_START + LUNCH_MINUTES <= end) {
+                blocks.add(new int[] {LUNCH_START, LUNCH_START + LUNCH_MINUTES});
+            }
+            if (!departure) {
+                blocks.add(new int[] {DINNER_START, DINNER_START + DINNER_MINUTES});
+            }
+            frames.add(new DayFrame(day, arrival, departure, start, end, loadCap, blocks));
+        }
+        return frames;
+    }
+
+    /**
+     * Fill every day in order; with no random source this is the plain greedy plan
+     */
+    private Schedule construct(List<Candidate> candidates, List<DayFrame> frames, Random random) {
+        int n = candidates.size();
+        int[] timesUsed = new int[n];
+        int[] usedOnDay = new int[n];
+        int transfer = properties.getTransferMinutes();
+
+        int[] poolIndex = new int[CANDIDATE_POOL];
+        int[] poolStart = new int[CANDIDATE_POOL];
+        double[] poolValue = new double[CANDIDATE_POOL];
+
+        List<List<Placement>> days = new ArrayList<>(frames.size());
+        double total = 0;
+        for (DayFrame frame : frames) {
+            List<Placement> placements = new ArrayList<>();
+            int cursor = frame.start;
+            int load = 0;
+            String previousType = null;
+
+            while (true) {
+                int found = 0;
+                for (int i = 0; i < n; i++) {
+                    Candidate candidate = candidates.get(i);
+                    if (usedOnDay[i] == frame.day || load + candidate.duration > frame.loadCap) {
+                        continue;
+                    }
+                    int start = earliestStart(candidate, cursor, frame);
+                    if (start + candidate.duration > Math.min(candidate.closes, frame.end)) {
+                        continue;
+                    }
+
+                    double value = candidate.score
+                            - timesUsed[i] * REUSE_PENALTY
+                            - (start - cursor) / 120.0
+                            - (candidate.type != null && candidate.type.equals(previousType) ? 1.0 : 0.0);
+
+                    // Insert into the small pool of best candidates, kept in descending order
+                    int position = Math.min(found, CANDIDATE_POOL);
+                    while (position > 0 && poolValue[position - 1] < value) {
+                        if (position < CANDIDATE_POOL) {
+                            poolIndex[position] = poolIndex[position - 1];
+                            poolStart[position] = poolStart[position - 1];
+                            poolValue[position] = poolValue[position - 1];
+                        }
+                        position--;
+                    }
+                    if (position < CANDIDATE_POOL) {
+                        poolIndex[position] = i;
+                        poolStart[position] = start;
+                        poolValue[position] = value;
+                        found = Math.min(found + 1, CANDIDATE_POOL);
+                    }
+                }
+                if (found == 0) {
+                    break;
+                }
+
+                int pick = random != null ? random.nextInt(found) : 0;
+                int index = poolIndex[pick];
+                Candidate chosen = candidates.get(index);
+                placements.add(new Placement(chosen, poolStart[pick]));
+                total += chosen.score - timesUsed[index] * REUSE_PENALTY;
+                timesUsed[index]++;
+                usedOnDay[index] = frame.day;
+                cursor = poolStart[pick] + chosen.duration + transfer;
+                load += chosen.duration;
+                previousType = chosen.type;
+            }
+            days.add(placements);
+        }
+        return new Schedule(days, total);
+    }
+
+    /**
+     * Earliest start at or after the cursor within opening hours that does not overlap a fixed block
+     */
+    private static int earliestStart(Candidate candidate, int cursor, DayFrame frame) {
+        int start = Math.max(cursor, candidate.opens);
+        for (int[] block : frame.blocks) {
+            if (start < block[1] && start + candidate.duration > block[0]) {
+                start = block[1];
+            }
+        }
+        return start;
+    }
+
+    private ItineraryPlan toPlan(ItineraryGenerationRequest request, List<DayFrame> frames, Schedule schedule) {
+        String destination = request.getDestination() != null && !request.getDestination().isBlank()
+                ? request.getDestination().trim() : "Destination";
+        String mealNote = request.getMealPreference() != null && !request.getMealPreference().isBlank()
+                ? " (" + request.getMealPreference().trim().toLowerCase(Locale.ROOT).replace('_', '-') + " options)"
+                : "";
+
+        List<ItineraryPlan.PlannedDay> days = new ArrayList<>(frames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            DayFrame frame = frames.get(i);
+            List<Placement> placements = schedule.days.get(i);
+
+            Map<Integer, RouteOptimizer.Stop> timeline = new HashMap<>();
+            if (frame.arrival) {
+                addFixed(timeline, ARRIVAL_START, fixed(ARRIVAL_START, "Arrival and Check-in",
+                        "Arrive at " + destination + " and check into accommodation", ARRIVAL_MINUTES,
+                        destination, "TRANSFER"));
+            }
+            for (int[] block : frame.blocks) {
+                boolean lunch = block[0] == LUNCH_START;
+                String title = lunch ? "Lunch" : (frame.arrival ? "Welcome Dinner" : "Dinner");
+                String description = (lunch ? "Lunch at a local restaurant" : "Dinner featuring local cuisine") + mealNote;
+                addFixed(timeline, block[0], fixed(block[0], title, description, block[1] - block[0],
+                        destination, "MEAL"));
+            }
+            for (Placement placement : placements) {
+                timeline.putIfAbsent(placement.start, new RouteOptimizer.Stop(scheduled(placement, destination),
+                        placement.start, placement.candidate.opens, placement.candidate.closes));
+            }
+            if (frame.departure) {
+                addFixed(timeline, CHECKOUT_START, fixed(CHECKOUT_START, "Check-out and Departure",
+                        "Check out from accommodation and depart", CHECKOUT_MINUTES, destination, "TRANSFER"));
+            }
+
+            List<Activity> activities = routeOptimizer
+                    .optimize(new ArrayList<>(timeline.values()), frame.end)
+                    .getActivities();
+            days.add(new ItineraryPlan.PlannedDay(frame.day, dayTitle(frame, destination, placements),
+                    activities, meals(frame, frames.size())));
+        }
+        return new ItineraryPlan(days, schedule.score);
+    }
+
+    private static void addFixed(Map<Integer, RouteOptimizer.Stop> timeline, int start, Activity activity) {
+        timeline.put(start, new RouteOptimizer.Stop(activity, start, start, start + activity.getDuration()));
+    }
+
+    private static Activity fixed(int start, String title, String description, int duration,
+                                  String location, String type) {
+        Activity activity = new Activity(time(start), title, description, duration, location);
+        activity.setActivityType(type);
+        activity.setIncluded(true);
+        activity.setFixedTime(true);
+        return activity;
+    }
+
+    private static Activity scheduled(Placement placement, String destination) {
+        CatalogActivity source = placement.candidate.source;
+        Activity activity = new Activity(time(placement.start), source.getTitle(), source.getDescription(),
+                placement.candidate.duration, source.getLocation() != null ? source.getLocation() : destination);
+        activity.setActivityType(source.getActivityType());
+        activity.setCost(source.getCost());
+        activity.setIncluded(!source.isOptional());
+        activity.setLatitude(source.getLatitude());
+        activity.setLongitude(source.getLongitude());
+        return activity;
+    }
+
+    private static String dayTitle(DayFrame frame, String destination, List<Placement> placements) {
+        if (frame.arrival) {
+            return "Day " + frame.day + " - Arrival in " + destination;
+        }
+        if (frame.departure) {
+            return "Day " + frame.day + " - Departure from " + destination;
+        }
+        // Name the day after the activity type that fills most of it
+        Map<String, Integer> minutesByType = new HashMap<>();
+        for (Placement placement : placements) {
+            if (placement.candidate.type != null) {
+                minutesByType.merge(placement.candidate.type, placement.candidate.duration, Integer::sum);
+            }
+        }
+        return minutesByType.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(entry -> "Day " + frame.day + " - " + destination + ": " + capitalize(entry.getKey()))
+                .orElse("Day " + frame.day + " - " + destination);
+    }
+
+    private static List<String> meals(DayFrame frame, int days) {
+        List<String> meals = new ArrayList<>();
+        if (frame.day == 1) {
+            meals.add("LUNCH");
+            meals.add("DINNER");
+        } else if (frame.day == days) {
+            meals.add("BREAKFAST");
+            meals.add("LUNCH");
+        } else {
+            meals.add("BREAKFAST");
+            meals.add("LUNCH");
+            meals.add("DINNER");
+        }
+        return meals;
+    }
+
+    private String templateKey(ItineraryGenerationRequest request, int days, long catalogVersion) {
+        Set<String> interests = new TreeSet<>();
+        if (request.getInterests() != null) {
+            for (String interest : request.getInterests()) {
+                String code = ActivityCatalog.normalizeCode(interest);
+                if (code != null) {
+                    interests.add(code);
+                }
+            }
+        }
+        return String.join("|",
+                ActivityCatalog.normalizeDestination(request.getDestination()),
+                String.valueOf(days),
+                String.valueOf(ActivityCatalog.normalizeCode(request.getTourType())),
+                String.valueOf(ActivityCatalog.normalizeCode(request.getActivityLevel())),
+                String.join(",", interests),
+                String.valueOf(ActivityCatalog.normalizeCode(request.getMealPreference())),
+                String.valueOf(request.isIncludeOptionalActivities()),
+                String.valueOf(catalogVersion));
+    }
+
+    private synchronized ItineraryPlan cachedTemplate(String key) {
+        return templates.get(key);
+    }
+
+    private synchronized void storeTemplate(String key, ItineraryPlan plan) {
+        templates.put(key, plan);
+        while (templates.size() > properties.getTemplateCacheSize()) {
+            templates.remove(templates.keySet().iterator().next());
+        }
+    }
+
+    private static int dailyLoad(String activityLevel) {
+        String level = ActivityCatalog.normalizeCode(activityLevel);
+        if ("LOW".equals(level)) {
+            return 240;
+        }
+        if ("HIGH".equals(level)) {
+            return 480;
+        }
+        return 360;
+    }
+
+    private static int minutes(String time, int fallback) {
+        if (time == null || time.length() != 5 || time.charAt(2) != ':') {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(time.substring(0, 2)) * 60 + Integer.parseInt(time.substring(3));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static String time(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    private static String capitalize(String code) {
+        String lower = code.toLowerCase(Locale.ROOT);
+        return Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
+    }
+
+    private static final class Candidate {
+
+        final CatalogActivity source;
+        final String type;
+        final int opens;
+        final int closes;
+        final int duration;
+        final double score;
+
+        Candidate(CatalogActivity source, int opens, int closes, int duration, double score) {
+            this.source = source;
+            this.type = source.getActivityType();
+            this.opens = opens;
+            this.closes = closes;
+            this.duration = duration;
+            this.score = score;
+        }
+    }
+
+    private static final class DayFrame {
+
+        final int day;
+        final boolean arrival;
+        final boolean departure;
+        final int start;
+        final int end;
+        final int loadCap;
+        final List<int[]> blocks;
+
+        DayFrame(int day, boolean arrival, boolean departure, int start, int end, int loadCap, List<int[]> blocks) {
+            this.day = day;
+            this.arrival = arrival;
+            this.departure = departure;
+            this.start = start;
+            this.end = end;
+            this.loadCap = loadCap;
+            this.blocks = blocks;
+        }
+    }
+
+    private static final class Placement {
+
+        final Candidate candidate;
+        final int start;
+
+        Placement(Candidate candidate, int start) {
+            this.candidate = candidate;
+            this.start = start;
+        }
+    }
+
+    private static final class Schedule {
+
+        final List<List<Placement>> days;
+        final double score;
+
+        Schedule(List<List<Placement>> days, double score) {
+            this.days = days;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.tourism.itinerary.planning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable k-d tree over geographic points for k-nearest-neighbour queries.
+ *
+ * Points are stored as 3D unit vectors rather than latitude/longitude, so the
+ * straight-line (chord) distance used for pruning grows monotonically with
+ * great-circle distance everywhere on the globe, including across the
+ * antimeridian and near the poles.
+ */
+public class KdTree<T> {
+
+    private final List<T> items;
+    private final double[][] points;
+    // Implicit tree: node i holds the point at order[i]; children are found by index range
+    private final int[] order;
+    private final int[] axes;
+
+    public KdTree(List<T> items, ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude) {
+        this.items = List.copyOf(items);
+        int n = this.items.size();
+        this.points = new double[n][];
+        for (int i = 0; i < n; i++) {
+            T item = this.items.get(i);
+            points[i] = toVector(latitude.applyAsDouble(item), longitude.applyAsDouble(item));
+        }
+        Integer[] indexes = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        this.order = new int[n];
+        this.axes = new int[n];
+        build(indexes, 0, n, 0);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Up to {@code k} items within {@code maxKm} of the point, nearest first
+     */
+    public List<Neighbor<T>> nearest(double latitude, double longitude, int k, double maxKm) {
+        if (k <= 0 || items.isEmpty()) {
+            return List.of();
+        }
+        double[] target = toVector(latitude, longitude);
+        double maxChord = 2 * Math.sin(Math.min(maxKm / GeoDistance.EARTH_RADIUS_KM, Math.PI) / 2);
+
+        // Max-heap on squared chord length holding the best k so far
+        PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble((double[] e) -> e[0]).reversed());
+        search(0, items.size(), target, k, maxChord * maxChord, best);
+
+        List<Neighbor<T>> result = new ArrayList<>(best.size());
+        for (double[] entry : best) {
+            double chord = Math.sqrt(entry[0]);
+            double km = 2 * GeoDistance.EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+            result.add(new Neighbor<>(items.get((int) entry[1]), km));
+        }
+        result.sort(Comparator.comparingDouble(Neighbor::getDistanceKm));
+        return result;
+    }
+
+    private void build(Integer[] indexes, int from, int to, int axis) {
+        if (from >= to) {
+            return;
+        }
+        Arrays.sort(indexes, from, to, Comparator.comparingDouble(i -> points[i][axis]));
+        int mid = (from + to) >>> 1;
+        order[mid] = indexes[mid];
+        axes[mid] = axis;
+        int next = (axis + 1) % 3;
+        build(indexes, from, mid, next);
+        build(indexes, mid + 1, to, next);
+    }
+
+    private void search(int from, int to, double[] target, int k, double limitSquared, PriorityQueue<double[]> best) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        double[] point = points[order[mid]];
+        int axis = axes[mid];
+
+        double squared = squaredDistance(point, target);
+        if (squared <= limitSquared) {
+            best.offer(new double[] {squared, order[mid]});
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+
+        double delta = target[axis] - point[axis];
+        int nearFrom = delta < 0 ? from : mid + 1;
+        int nearTo = delta < 0 ? mid : to;
+        int farFrom = delta < 0 ? mid + 1 : from;
+        int farTo = delta < 0 ? to : mid;
+
+        search(nearFrom, nearTo, target, k, limitSquared, best);
+        double worst = best.size() < k ? limitSquared : Math.min(limitSquared, best.peek()[0]);
+        if (delta * delta <= worst) {
+            search(farFrom, farTo, target, k, limitSquared, best);
+        }
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double[] toVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[] {cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    /**
+     * An item found near a query point
+     */
+    public static class Neighbor<T> {
+
+        private final T item;
+        private final double distanceKm;
+
+        Neighbor(T item, double distanceKm) {
+            this.item = item;
+            this.distanceKm = distanceKm;
+        }
+
+        public T getItem() { return item; }
+        public double getDistanceKm() { return distanceKm; }
+    }
+}
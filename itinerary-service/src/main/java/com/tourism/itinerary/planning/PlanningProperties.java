@@ -0,0 +1,60 @@
+package com.tourism.itinerary.planning;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Itinerary generation settings, bound from {@code app.planning.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.planning")
+public class PlanningProperties {
+
+    /**
+     * Wall-clock time the planner may spend improving on its first greedy plan
+     */
+    private Duration timeBudget = Duration.ofMillis(20);
+
+    private int maxRestarts = 200;
+
+    /**
+     * Plans kept for repeated requests with identical inputs
+     */
+    private int templateCacheSize = 256;
+
+    /**
+     * How long a destination's catalog is reused before it is read again
+     */
+    private Duration catalogRefresh = Duration.ofMinutes(5);
+
+    /**
+     * Time allowed to move between consecutive activities
+     */
+    private int transferMinutes = 15;
+
+    /**
+     * Average door-to-door speed used to turn distance between activities into travel time
+     */
+    private double travelSpeedKmh = 20.0;
+
+    // Getters and Setters
+    public Duration getTimeBudget() { return timeBudget; }
+    public void setTimeBudget(Duration timeBudget) { this.timeBudget = timeBudget; }
+
+    public int getMaxRestarts() { return maxRestarts; }
+    public void setMaxRestarts(int maxRestarts) { this.maxRestarts = maxRestarts; }
+
+    public int getTemplateCacheSize() { return templateCacheSize; }
+    public void setTemplateCacheSize(int templateCacheSize) { this.templateCacheSize = templateCacheSize; }
+
+    public Duration getCatalogRefresh() { return catalogRefresh; }
+    public void setCatalogRefresh(Duration catalogRefresh) { this.catalogRefresh = catalogRefresh; }
+
+    public int getTransferMinutes() { return transferMinutes; }
+    public void setTransferMinutes(int transferMinutes) { this.transferMinutes = transferMinutes; }
+
+    public double getTravelSpeedKmh() { return travelSpeedKmh; }
+    public void setTravelSpeedKmh(double travelSpeedKmh) { this.travelSpeedKmh = travelSpeedKmh; }
+}
@@ -0,0 +1,337 @@
+package com.tourism.itinerary.planning;
+
+import com.tourism.itinerary.model.Activity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Orders a day's activities to reduce the distance travelled between them.
+ *
+ * Fixed-time activities (anything flagged {@link Activity#isFixedTime()},
+ * plus meals and transfers on itineraries saved before the flag existed) and activities without coordinates stay
+ * where they are and split the day into runs. Each run of movable activities
+ * is ordered with nearest-neighbour from the preceding anchor, then improved
+ * with 2-opt over a distance matrix, keeping the anchors at both ends of the
+ * path. The reordered run is laid out again from its original start, with
+ * travel time between stops; it is only used if every activity still fits its
+ * time window and the run still ends before the next anchor.
+ */
+@Component
+public class RouteOptimizer {
+
+    private static final int END_OF_DAY = 24 * 60 - 1;
+    private static final double EPSILON_KM = 0.01;
+    private static final Set<String> FIXED_TYPES = Set.of("MEAL", "TRANSFER");
+
+    private final PlanningProperties properties;
+
+    public RouteOptimizer(PlanningProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Optimize a saved day, whose activities carry no opening hours of their own
+     */
+    public Result optimize(List<Activity> activities) {
+        List<Stop> stops = new ArrayList<>(activities.size());
+        for (Activity activity : activities) {
+            stops.add(new Stop(activity, minutes(activity.getTime()), 0, END_OF_DAY));
+        }
+        return optimize(stops, END_OF_DAY);
+    }
+
+    /**
+     * Optimize stops that must each start no earlier than {@code earliest} and end by {@code latest}
+     */
+    public Result optimize(List<Stop> stops, int dayEnd) {
+        List<Stop> day = new ArrayList<>(stops);
+        day.sort(Comparator.comparingInt(stop -> stop.start));
+        double before = pathLength(day);
+        boolean changed = false;
+
+        int i = 0;
+        while (i < day.size()) {
+            if (day.get(i).isAnchor()) {
+                i++;
+                continue;
+            }
+            int runStart = i;
+            while (i < day.size() && !day.get(i).isAnchor()) {
+                i++;
+            }
+            Stop previous = runStart > 0 ? day.get(runStart - 1) : null;
+            Stop next = i < day.size() ? day.get(i) : null;
+            List<Stop> run = day.subList(runStart, i);
+            if (run.size() > 1 && optimizeRun(run, previous, next, dayEnd)) {
+                changed = true;
+            }
+        }
+
+        double after = pathLength(day);
+        List<Activity> ordered = new ArrayList<>(day.size());
+        for (Stop stop : day) {
+            if (changed) {
+                stop.activity.setTime(time(stop.start));
+            }
+            ordered.add(stop.activity);
+        }
+        return new Result(ordered, before, after, changed);
+    }
+
+    /**
+     * Reorder one run in place; returns whether the order changed
+     */
+    private boolean optimizeRun(List<Stop> run, Stop previous, Stop next, int dayEnd) {
+        int r = run.size();
+        // Matrix nodes: 0..r-1 the run, r the preceding anchor, r+1 the following anchor
+        boolean hasStart = previous != null && previous.located();
+        boolean hasEnd = next != null && next.located();
+        List<Stop> nodes = new ArrayList<>(run);
+        nodes.add(previous);
+        nodes.add(next);
+        double[][] distance = new double[r + 2][r + 2];
+        for (int a = 0; a < r + 2; a++) {
+            for (int b = a + 1; b < r + 2; b++) {
+                Stop x = nodes.get(a);
+                Stop y = nodes.get(b);
+                double km = x != null && y != null && x.located() && y.located() ? x.distanceKm(y) : 0.0;
+                distance[a][b] = km;
+                distance[b][a] = km;
+            }
+        }
+
+        int[] original = new int[r];
+        for (int k = 0; k < r; k++) {
+            original[k] = k;
+        }
+        double originalLength = length(original, distance, hasStart, hasEnd, r);
+
+        // Nearest neighbour from the preceding anchor, or from each stop when the run opens the day
+        int[] best = null;
+        double bestLength = Double.MAX_VALUE;
+        for (int first = hasStart ? -1 : 0; first < (hasStart ? 0 : r); first++) {
+            int[] tour = nearestNeighbour(distance, r, hasStart ? r : first, !hasStart);
+            twoOpt(tour, distance, hasStart, hasEnd, r);
+            double tourLength = length(tour, distance, hasStart, hasEnd, r);
+            if (tourLength < bestLength) {
+                best = tour;
+                bestLength = tourLength;
+            }
+        }
+
+        if (best == null || bestLength > originalLength - EPSILON_KM) {
+            return false;
+        }
+
+        List<Stop> reordered = new ArrayList<>(r);
+        for (int index : best) {
+            reordered.add(run.get(index));
+        }
+        // Opening the day, the run may start when it did; otherwise once the preceding anchor is over
+        int runStart = previous != null ? previous.start + previous.duration : run.get(0).start;
+        int[] starts = layout(reordered, previous, next, runStart, dayEnd);
+        if (starts == null) {
+            return false;
+        }
+
+        for (int k = 0; k < r; k++) {
+            Stop stop = reordered.get(k);
+            stop.start = starts[k];
+            run.set(k, stop);
+        }
+        return true;
+    }
+
+    private static int[] nearestNeighbour(double[][] distance, int r, int from, boolean fromIsInRun) {
+        int[] tour = new int[r];
+        boolean[] visited = new boolean[r];
+        int count = 0;
+        int current = from;
+        if (fromIsInRun) {
+            tour[count++] = from;
+            visited[from] = true;
+        }
+        while (count < r) {
+            int nearest = -1;
+            for (int candidate = 0; candidate < r; candidate++) {
+                if (!visited[candidate] && (nearest < 0 || distance[current][candidate] < distance[current][nearest])) {
+                    nearest = candidate;
+                }
+            }
+            tour[count++] = nearest;
+            visited[nearest] = true;
+            current = nearest;
+        }
+        return tour;
+    }
+
+    /**
+     * Reverse sub-paths while that shortens the path; the anchors at either end never move
+     */
+    private static void twoOpt(int[] tour, double[][] distance, boolean hasStart, boolean hasEnd, int r) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int a = 0; a < r - 1; a++) {
+                for (int b = a + 1; b < r; b++) {
+                    int beforeA = a > 0 ? tour[a - 1] : (hasStart ? r : -1);
+                    int afterB = b < r - 1 ? tour[b + 1] : (hasEnd ? r + 1 : -1);
+                    double current = edge(distance, beforeA, tour[a]) + edge(distance, tour[b], afterB);
+                    double swapped = edge(distance, beforeA, tour[b]) + edge(distance, tour[a], afterB);
+                    if (swapped < current - 1e-9) {
+                        for (int lo = a, hi = b; lo < hi; lo++, hi--) {
+                            int tmp = tour[lo];
+                            tour[lo] = tour[hi];
+                            tour[hi] = tmp;
+                        }
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static double edge(double[][] distance, int from, int to) {
+        return from < 0 || to < 0 ? 0.0 : distance[from][to];
+    }
+
+    private static double length(int[] tour, double[][] distance, boolean hasStart, boolean hasEnd, int r) {
+        double total = hasStart ? distance[r][tour[0]] : 0.0;
+        for (int k = 1; k < tour.length; k++) {
+            total += distance[tour[k - 1]][tour[k]];
+        }
+        if (hasEnd) {
+            total += distance[tour[tour.length - 1]][r + 1];
+        }
+        return total;
+    }
+
+    /**
+     * Start times for the run in this order, or null if it no longer fits
+     * between the anchors around it, travel to and from them included
+     */
+    private int[] layout(List<Stop> run, Stop previous, Stop next, int runStart, int dayEnd) {
+        int[] starts = new int[run.size()];
+        int cursor = runStart;
+        Stop from = previous;
+        for (int k = 0; k < run.size(); k++) {
+            Stop stop = run.get(k);
+            int travel = from == null ? 0 : travelMinutes(from, stop);
+            int start = Math.max(cursor + travel, stop.earliest);
+            int end = start + stop.duration;
+            if (end > stop.latest || end > dayEnd) {
+                return null;
+            }
+            starts[k] = start;
+            cursor = end;
+            from = stop;
+        }
+        if (next != null && cursor + travelMinutes(from, next) > next.start) {
+            return null;
+        }
+        return starts;
+    }
+
+    private int travelMinutes(Stop from, Stop to) {
+        int transfer = properties.getTransferMinutes();
+        if (from == null || !from.located() || !to.located()) {
+            return transfer;
+        }
+        double minutes = from.distanceKm(to) / properties.getTravelSpeedKmh() * 60.0;
+        return Math.max(transfer, (int) Math.ceil(minutes));
+    }
+
+    private static double pathLength(List<Stop> day) {
+        double total = 0.0;
+        Stop last = null;
+        for (Stop stop : day) {
+            if (!stop.located()) {
+                continue;
+            }
+            if (last != null) {
+                total += last.distanceKm(stop);
+            }
+            last = stop;
+        }
+        return total;
+    }
+
+    static int minutes(String time) {
+        if (time == null || time.length() < 4 || time.indexOf(':') < 0) {
+            return 0;
+        }
+        try {
+            int colon = time.indexOf(':');
+            return Integer.parseInt(time.substring(0, colon).trim()) * 60
+                    + Integer.parseInt(time.substring(colon + 1, colon + 3));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    static String time(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    /**
+     * An activity with the time window it may be moved within
+     */
+    public static class Stop {
+
+        private final Activity activity;
+        private final int duration;
+        private final int earliest;
+        private final int latest;
+        private int start;
+
+        public Stop(Activity activity, int start, int earliest, int latest) {
+            this.activity = activity;
+            this.start = start;
+            this.duration = activity.getDuration() != null ? activity.getDuration() : 0;
+            this.earliest = earliest;
+            this.latest = latest;
+        }
+
+        boolean isAnchor() {
+            return activity.isFixedTime()
+                    || (activity.getActivityType() != null && FIXED_TYPES.contains(activity.getActivityType()))
+                    || !located();
+        }
+
+        boolean located() {
+            return activity.hasCoordinates();
+        }
+
+        double distanceKm(Stop other) {
+            return GeoDistance.haversineKm(activity.getLatitude(), activity.getLongitude(),
+                    other.activity.getLatitude(), other.activity.getLongitude());
+        }
+    }
+
+    /**
+     * A day's activities in their new order, with the path length before and after
+     */
+    public static class Result {
+
+        private final List<Activity> activities;
+        private final double distanceBeforeKm;
+        private final double distanceAfterKm;
+        private final boolean reordered;
+
+        Result(List<Activity> activities, double distanceBeforeKm, double distanceAfterKm, boolean reordered) {
+            this.activities = activities;
+            this.distanceBeforeKm = distanceBeforeKm;
+            this.distanceAfterKm = distanceAfterKm;
+            this.reordered = reordered;
+        }
+
+        public List<Activity> getActivities() { return activities; }
+        public double getDistanceBeforeKm() { return distanceBeforeKm; }
+        public double getDistanceAfterKm() { return distanceAfterKm; }
+        public boolean isReordered() { return reordered; }
+    }
+}
@@ -0,0 +1,21 @@
+package com.tourism.itinerary.readmodel;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-tour itinerary read model, bound from {@code app.read-model.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.read-model")
+public class ReadModelProperties {
+
+    /**
+     * Serve tour reads, PDFs and stats from one document per tour instead of querying the days
+     */
+    private boolean enabled = true;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+}
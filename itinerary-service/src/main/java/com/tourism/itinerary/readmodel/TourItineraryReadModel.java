@@ -0,0 +1,115 @@
+package com.tourism.itinerary.readmodel;
+
+import com.tourism.itinerary.event.ItineraryChangedEvent;
+import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.model.TourItineraries;
+import com.tourism.itinerary.repository.ItineraryRepository;
+import com.tourism.itinerary.repository.TourItinerariesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps one {@link TourItineraries} document per tour in step with its days.
+ *
+ * The document is rebuilt from the {@code itineraries} collection whenever an
+ * {@link ItineraryChangedEvent} is published, synchronously and before any
+ * other listener, so a read after a write in the same request already sees it
+ * and the background PDF regeneration renders from it. Each document records
+ * the latest write to its tour's days, and is only replaced by a rebuild
+ * that has seen at least that write, so an older rebuild on any instance
+ * cannot overwrite a newer one. Tours without active days keep an empty
+ * document, so reading them costs one lookup like any other tour. Tours
+ * whose document does not exist yet (written before the read model was
+ * enabled, or never given days) are built on first read.
+ */
+@Component
+public class TourItineraryReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(TourItineraryReadModel.class);
+
+    private final ItineraryRepository itineraryRepository;
+    private final TourItinerariesRepository tourItinerariesRepository;
+    private final ReadModelProperties properties;
+    // Rebuilds of the same tour share a stripe
+    private final Object[] rebuildLocks = new Object[64];
+
+    public TourItineraryReadModel(ItineraryRepository itineraryRepository,
+                                  TourItinerariesRepository tourItinerariesRepository,
+                                  ReadModelProperties properties) {
+        this.itineraryRepository = itineraryRepository;
+        this.tourItinerariesRepository = tourItinerariesRepository;
+        this.properties = properties;
+        for (int i = 0; i < rebuildLocks.length; i++) {
+            rebuildLocks[i] = new Object();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * A tour's active days in order, in one primary-key read
+     */
+    public List<Itinerary> days(Long tourId) {
+        return tourItinerariesRepository.findById(tourId)
+                .map(TourItineraries::getDays)
+                .orElseGet(() -> rebuild(tourId).getDays());
+    }
+
+    /**
+     * Number of active days, read from the precomputed field
+     */
+    public long totalDays(Long tourId) {
+        return tourItinerariesRepository.findSummaryByTourId(tourId)
+                .map(TourItineraries::getTotalDays)
+                .orElseGet(() -> rebuild(tourId).getTotalDays());
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onItineraryChanged(ItineraryChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            rebuild(event.getTourId());
+        } catch (RuntimeException e) {
+            // The days are saved; drop the stale document so the next read rebuilds it
+            log.warn("Rebuilding itinerary read model for tour {} failed: {}", event.getTourId(), e.getMessage());
+            try {
+                tourItinerariesRepository.deleteById(event.getTourId());
+            } catch (RuntimeException deleteFailure) {
+                // The write itself succeeded, so don't fail it; reads may be stale until the next rebuild
+                log.warn("Dropping itinerary read model for tour {} failed: {}",
+                        event.getTourId(), deleteFailure.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rebuild the document from the tour's active days; a tour without days gets an empty one
+     */
+    public TourItineraries rebuild(Long tourId) {
+        synchronized (rebuildLocks[Math.floorMod(tourId.hashCode(), rebuildLocks.length)]) {
+            // Read before the days, so a write landing in between only makes the document look older
+            LocalDateTime lastUpdated = itineraryRepository.findLastUpdateOfTour(tourId).orElse(null);
+            List<Itinerary> days = itineraryRepository.findByTourIdAndActiveOrderByDayNumber(tourId, true);
+            TourItineraries document = new TourItineraries(tourId, days);
+            document.setLastUpdated(lastUpdated);
+            document.setRebuiltAt(LocalDateTime.now());
+
+            if (!tourItinerariesRepository.saveIfNotOlder(document)) {
+                log.debug("Itinerary read model for tour {} already reflects later writes", tourId);
+            }
+            return document;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tourism.itinerary.repository;
+
+import com.tourism.itinerary.model.CatalogActivity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ActivityCatalogRepository extends MongoRepository<CatalogActivity, String> {
+    
+    /**
+     * Find all catalog activities at a destination
+     */
+    List<CatalogActivity> findByDestination(String destination);
+    
+    /**
+     * Find all catalog activities with coordinates, for the spatial index
+     */
+    @Query("{ 'latitude': { $ne: null }, 'longitude': { $ne: null } }")
+    List<CatalogActivity> findLocated();
+    
+    /**
+     * Find catalog activities of one type at a destination
+     */
+    List<CatalogActivity> findByDestinationAndActivityType(String destination, String activityType);
+    
+    /**
+     * Find catalog activities at a destination carrying an interest tag
+     */
+    @Query("{ 'destination': ?0, 'tags': ?1 }")
+    List<CatalogActivity> findByDestinationAndTag(String destination, String tag);
+    
+    /**
+     * Find catalog activities of one type at a destination carrying an interest tag
+     */
+    @Query("{ 'destination': ?0, 'activityType': ?1, 'tags': ?2 }")
+    List<CatalogActivity> findByDestinationAndActivityTypeAndTag(String destination, String activityType, String tag);
+}
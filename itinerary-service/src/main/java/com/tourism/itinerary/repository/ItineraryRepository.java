@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ItineraryRepository extends MongoRepository<Itinerary, String> {
+public interface ItineraryRepository extends MongoRepository<Itinerary, String>, ItineraryRepositoryCustom {
     
     /**
      * Find all itineraries for a specific tour, ordered by day number
@@ -21,6 +21,12 @@ public interface ItineraryRepository extends MongoRepository<Itinerary, String>
      */
     List<Itinerary> findByTourIdAndActive(Long tourId, boolean active);
     
+    /**
+     * IDs and modification times of a tour's active itineraries, without the day contents
+     */
+    @Query(value = "{ 'tourId': ?0, 'active': true }", fields = "{ '_id': 1, 'dayNumber': 1, 'updatedAt': 1 }")
+    List<Itinerary> findVersionsByTourId(Long tourId);
+    
     /**
      * Find a specific day's itinerary for a tour
      */
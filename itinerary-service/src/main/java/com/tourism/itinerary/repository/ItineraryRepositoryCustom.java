@@ -0,0 +1,76 @@
+package com.tourism.itinerary.repository;
+
+import com.tourism.itinerary.model.Activity;
+import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.patch.ItineraryPatch;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Itinerary writes that need more than the derived repository methods.
+ */
+public interface ItineraryRepositoryCustom {
+    
+    /**
+     * Overwrite a day's editable fields in one findAndModify, returning the document as it was before
+     */
+    Optional<Itinerary> updateDay(String id, Itinerary values);
+    
+    /**
+     * Apply a compiled patch to an active day, returning the patched document; empty when the
+     * day, its version or the activities the patch relies on do not match
+     */
+    Optional<Itinerary> patchDay(String id, Long expectedVersion, ItineraryPatch patch);
+    
+    /**
+     * Replace the activities of an active day still at {@code expectedVersion}, returning the
+     * updated document; empty when the day was deleted or written since
+     */
+    Optional<Itinerary> replaceActivities(String id, Long expectedVersion, List<Activity> activities);
+    
+    /**
+     * Soft-delete an active day in one findAndModify, returning it as it was; empty when no active day has that id
+     */
+    Optional<Itinerary> deactivateDay(String id);
+    
+    /**
+     * Soft-delete those of the given days that are active, in one updateMany; returns how many were
+     */
+    long deactivateDays(Collection<String> ids);
+    
+    /**
+     * Soft-delete every active day of a tour in one updateMany; returns how many were active
+     */
+    long deactivateTour(Long tourId);
+    
+    /**
+     * Soft-delete a tour's active days whose day number is not listed
+     */
+    long deactivateTourDaysExcept(Long tourId, Collection<Integer> dayNumbers);
+    
+    /**
+     * Soft-delete all but the most recently updated active day of each tour and day number;
+     * returns the tours that had duplicates
+     */
+    List<Long> deactivateDuplicateActiveDays();
+    
+    /**
+     * Active day counts of many tours in one aggregation; tours without active days are absent
+     */
+    Map<Long, Long> countActiveDaysByTour(Collection<Long> tourIds);
+    
+    /**
+     * Latest write to any of a tour's days, soft deletes included
+     */
+    Optional<LocalDateTime> findLastUpdateOfTour(Long tourId);
+    
+    /**
+     * Distinct tours with a day written after the given instant, soft deletes included
+     */
+    List<Long> findTourIdsUpdatedAfter(Instant since);
+}
@@ -0,0 +1,191 @@
+package com.tourism.itinerary.repository;
+
+import com.tourism.itinerary.model.Activity;
+import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.patch.ItineraryPatch;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class ItineraryRepositoryImpl implements ItineraryRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    public ItineraryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public Optional<Itinerary> updateDay(String id, Itinerary values) {
+        Update update = new Update()
+                .set("tourId", values.getTourId())
+                .set("dayNumber", values.getDayNumber())
+                .set("dayTitle", values.getDayTitle())
+                .set("activities", values.getActivities())
+                .set("meals", values.getMeals())
+                .set("accommodation", values.getAccommodation())
+                .set("transportDetails", values.getTransportDetails())
+                .set("notes", values.getNotes())
+                .set("updatedAt", values.getUpdatedAt())
+                .inc("version", 1);
+        
+        // A clash with another active day fails on the unique index instead of being checked first
+        Itinerary previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(false),
+                Itinerary.class);
+        return Optional.ofNullable(previous);
+    }
+    
+    @Override
+    public Optional<Itinerary> patchDay(String id, Long expectedVersion, ItineraryPatch patch) {
+        Criteria criteria = expectedVersion != null
+                ? versionOf(id, expectedVersion)
+                : Criteria.where("_id").is(id).and("active").is(true);
+        if (!patch.getTargetedActivityIds().isEmpty()) {
+            criteria.and("activities.activityId").all(patch.getTargetedActivityIds());
+        } else if (!patch.getAddedActivityIds().isEmpty()) {
+            criteria.and("activities.activityId").nin(patch.getAddedActivityIds());
+        }
+        
+        Update update = patch.getUpdate()
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(criteria),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Itinerary.class));
+    }
+    
+    @Override
+    public Optional<Itinerary> replaceActivities(String id, Long expectedVersion, List<Activity> activities) {
+        Update update = new Update()
+                .set("activities", activities)
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(versionOf(id, expectedVersion)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Itinerary.class));
+    }
+    
+    @Override
+    public Optional<Itinerary> deactivateDay(String id) {
+        Query active = Query.query(Criteria.where("_id").is(id).and("active").is(true));
+        active.fields().include("tourId");
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                active,
+                deactivate(),
+                FindAndModifyOptions.options().returnNew(false),
+                Itinerary.class));
+    }
+    
+    @Override
+    public long deactivateDays(Collection<String> ids) {
+        Query active = Query.query(Criteria.where("_id").in(ids).and("active").is(true));
+        return mongoTemplate.updateMulti(active, deactivate(), Itinerary.class).getModifiedCount();
+    }
+    
+    @Override
+    public long deactivateTour(Long tourId) {
+        Query active = Query.query(Criteria.where("tourId").is(tourId).and("active").is(true));
+        return mongoTemplate.updateMulti(active, deactivate(), Itinerary.class).getModifiedCount();
+    }
+    
+    @Override
+    public long deactivateTourDaysExcept(Long tourId, Collection<Integer> dayNumbers) {
+        Query leftOver = Query.query(Criteria.where("tourId").is(tourId)
+                .and("active").is(true)
+                .and("dayNumber").nin(dayNumbers));
+        return mongoTemplate.updateMulti(leftOver, deactivate(), Itinerary.class).getModifiedCount();
+    }
+    
+    @Override
+    public List<Long> deactivateDuplicateActiveDays() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("active").is(true)),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "updatedAt", "_id")),
+                Aggregation.group("tourId", "dayNumber").push("_id").as("ids").count().as("days"),
+                Aggregation.match(Criteria.where("days").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        
+        Set<Long> tourIds = new LinkedHashSet<>();
+        List<Object> superseded = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Itinerary.class, Document.class)) {
+            List<?> ids = row.getList("ids", Object.class);
+            // Newest first, so the first one is kept
+            superseded.addAll(ids.subList(1, ids.size()));
+            tourIds.add(((Number) row.get("_id", Document.class).get("tourId")).longValue());
+        }
+        if (!superseded.isEmpty()) {
+            Query duplicates = Query.query(Criteria.where("_id").in(superseded).and("active").is(true));
+            mongoTemplate.updateMulti(duplicates, deactivate(), Itinerary.class);
+        }
+        return new ArrayList<>(tourIds);
+    }
+    
+    @Override
+    public Map<Long, Long> countActiveDaysByTour(Collection<Long> tourIds) {
+        // Served from the tour_active_day index
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("tourId").in(tourIds).and("active").is(true)),
+                Aggregation.group("tourId").count().as("days"));
+        
+        Map<Long, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Itinerary.class, Document.class)) {
+            counts.put(((Number) row.get("_id")).longValue(), ((Number) row.get("days")).longValue());
+        }
+        return counts;
+    }
+    
+    @Override
+    public Optional<LocalDateTime> findLastUpdateOfTour(Long tourId) {
+        Query latest = Query.query(Criteria.where("tourId").is(tourId).and("updatedAt").ne(null))
+                .with(Sort.by(Sort.Direction.DESC, "updatedAt"))
+                .limit(1);
+        latest.fields().include("updatedAt");
+        return Optional.ofNullable(mongoTemplate.findOne(latest, Itinerary.class))
+                .map(Itinerary::getUpdatedAt);
+    }
+    
+    @Override
+    public List<Long> findTourIdsUpdatedAfter(Instant since) {
+        // updatedAt is stored as a UTC date, so compare against the instant rather than a zone-converted local time
+        return mongoTemplate.findDistinct(Query.query(Criteria.where("updatedAt").gt(Date.from(since))),
+                "tourId", Itinerary.class, Long.class);
+    }
+    
+    /**
+     * The active day {@code id} at the given version
+     */
+    private static Criteria versionOf(String id, Long version) {
+        // Documents written before versioning have no version field and count as version 0
+        return Criteria.where("_id").is(id).and("active").is(true)
+                .and("version").is(version == null || version == 0 ? null : version);
+    }
+    
+    private static Update deactivate() {
+        return new Update().set("active", false).set("updatedAt", LocalDateTime.now()).inc("version", 1);
+    }
+}
@@ -0,0 +1,19 @@
+package com.tourism.itinerary.repository;
+
+import com.tourism.itinerary.model.TourItineraries;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TourItinerariesRepository extends MongoRepository<TourItineraries, Long>,
+        TourItinerariesRepositoryCustom {
+    
+    /**
+     * Day count of a tour, without the embedded days
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'totalDays': 1, 'lastUpdated': 1 }")
+    Optional<TourItineraries> findSummaryByTourId(Long tourId);
+}
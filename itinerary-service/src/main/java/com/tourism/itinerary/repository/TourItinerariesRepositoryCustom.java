@@ -0,0 +1,15 @@
+package com.tourism.itinerary.repository;
+
+import com.tourism.itinerary.model.TourItineraries;
+
+/**
+ * Read model writes that must not let an older rebuild replace a newer one.
+ */
+public interface TourItinerariesRepositoryCustom {
+    
+    /**
+     * Insert or replace a tour's document unless the stored one reflects later writes;
+     * returns whether it was written
+     */
+    boolean saveIfNotOlder(TourItineraries document);
+}
@@ -0,0 +1,39 @@
+package com.tourism.itinerary.repository;
+
+import com.tourism.itinerary.model.TourItineraries;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+
+public class TourItinerariesRepositoryImpl implements TourItinerariesRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    public TourItinerariesRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public boolean saveIfNotOlder(TourItineraries document) {
+        try {
+            mongoTemplate.findAndReplace(notNewerThan(document.getTourId(), document.getLastUpdated()),
+                    document, FindAndReplaceOptions.options().upsert());
+            return true;
+        } catch (DuplicateKeyException e) {
+            // The document exists but is newer, so the upsert tried to insert a second one
+            return false;
+        }
+    }
+    
+    private static Query notNewerThan(Long tourId, LocalDateTime lastUpdated) {
+        Criteria unversioned = Criteria.where("lastUpdated").is(null);
+        Criteria version = lastUpdated != null
+                ? new Criteria().orOperator(unversioned, Criteria.where("lastUpdated").lte(lastUpdated))
+                : unversioned;
+        return Query.query(Criteria.where("_id").is(tourId).andOperator(version));
+    }
+}
@@ -0,0 +1,258 @@
+package com.tourism.itinerary.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.tourism.itinerary.bulk.BulkWriteProperties;
+import com.tourism.itinerary.dto.BulkWriteResponse;
+import com.tourism.itinerary.dto.ItineraryRequest;
+import com.tourism.itinerary.event.ItineraryChangedEvent;
+import com.tourism.itinerary.model.Activity;
+import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.repository.ItineraryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes many itinerary days per request.
+ *
+ * Days are upserted on (tourId, dayNumber) among active documents, so
+ * sending a day again updates it in place and keeps its ID. Writes go to
+ * MongoDB as unordered bulkWrites of {@code app.bulk.chunk-size} operations;
+ * an item that fails validation or is rejected by the database is reported
+ * with its position and the rest of the batch carries on. Each affected tour
+ * gets one {@link ItineraryChangedEvent} per chunk, which rebuilds its read
+ * model and PDFs.
+ */
+@Service
+public class ItineraryBulkService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ItineraryBulkService.class);
+    
+    private static final int DUPLICATE_KEY = 11000;
+    
+    private final MongoTemplate mongoTemplate;
+    private final ItineraryRepository itineraryRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkWriteProperties properties;
+    
+    @Autowired
+    public ItineraryBulkService(MongoTemplate mongoTemplate, ItineraryRepository itineraryRepository,
+                                ObjectMapper objectMapper, Validator validator,
+                                ApplicationEventPublisher eventPublisher, BulkWriteProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.itineraryRepository = itineraryRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+    
+    /**
+     * Make the given days the tour's itinerary; active days not in the request are soft-deleted
+     */
+    public BulkWriteResponse replaceTourDays(Long tourId, List<ItineraryRequest> days, String user) {
+        if (days.size() > properties.getMaxItems()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxItems() + " days can be written at once");
+        }
+        
+        Batch batch = new Batch(user);
+        Set<Integer> dayNumbers = new HashSet<>();
+        for (int i = 0; i < days.size(); i++) {
+            ItineraryRequest day = days.get(i);
+            if (day.getTourId() == null) {
+                day.setTourId(tourId);
+            }
+            if (!tourId.equals(day.getTourId())) {
+                batch.reject(i, day, "Day belongs to tour " + day.getTourId() + ", not " + tourId);
+                continue;
+            }
+            if (day.getDayNumber() != null && !dayNumbers.add(day.getDayNumber())) {
+                batch.reject(i, day, "Day " + day.getDayNumber() + " appears more than once");
+                continue;
+            }
+            batch.add(i, day);
+        }
+        batch.flush();
+        
+        // Days that failed keep their previous version rather than being deleted
+        long deactivated = itineraryRepository.deactivateTourDaysExcept(tourId, dayNumbers);
+        if (deactivated > 0) {
+            eventPublisher.publishEvent(new ItineraryChangedEvent(tourId, List.of()));
+        }
+        
+        BulkWriteResponse response = batch.response;
+        response.setDeactivated(deactivated);
+        return response;
+    }
+    
+    /**
+     * Upsert days of any number of tours from a JSON array, reading it one element at a time
+     */
+    public BulkWriteResponse importDays(InputStream json, String user) throws IOException {
+        Batch batch = new Batch(user);
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of itinerary days");
+            }
+            int index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (index == properties.getMaxItems()) {
+                    batch.abort(index, "Import stopped after " + properties.getMaxItems() + " days");
+                    break;
+                }
+                ItineraryRequest day;
+                try {
+                    day = objectMapper.readValue(parser, ItineraryRequest.class);
+                } catch (JsonProcessingException e) {
+                    // The parser cannot resynchronise inside a malformed element
+                    batch.abort(index, "Unreadable day: " + e.getOriginalMessage());
+                    break;
+                }
+                batch.add(index++, day);
+            }
+        } catch (IOException e) {
+            batch.abort(batch.response.getReceived(), "Unreadable input: " + e.getMessage());
+        } finally {
+            batch.flush();
+        }
+        log.debug("Imported itinerary days: {} created, {} updated, {} failed",
+                batch.response.getCreated(), batch.response.getUpdated(), batch.response.getFailed());
+        return batch.response;
+    }
+    
+    /**
+     * Days waiting to be written, and the running totals of a request
+     */
+    private final class Batch {
+        
+        final BulkWriteResponse response = new BulkWriteResponse();
+        final String user;
+        final List<Integer> indexes = new ArrayList<>();
+        final List<ItineraryRequest> pending = new ArrayList<>();
+        
+        Batch(String user) {
+            this.user = user;
+        }
+        
+        void add(int index, ItineraryRequest day) {
+            response.setReceived(response.getReceived() + 1);
+            Activity.assignIds(day.getActivities());
+            Set<ConstraintViolation<ItineraryRequest>> violations = validator.validate(day);
+            if (!violations.isEmpty()) {
+                fail(index, day, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            indexes.add(index);
+            pending.add(day);
+            if (pending.size() >= properties.getChunkSize()) {
+                flush();
+            }
+        }
+        
+        /**
+         * Count an item that was received but not accepted
+         */
+        void reject(int index, ItineraryRequest day, String message) {
+            response.setReceived(response.getReceived() + 1);
+            fail(index, day, message);
+        }
+        
+        void abort(int index, String message) {
+            response.setAborted(true);
+            fail(index, null, message);
+        }
+        
+        void fail(int index, ItineraryRequest day, String message) {
+            response.setFailed(response.getFailed() + 1);
+            if (response.getErrors().size() < properties.getMaxReportedErrors()) {
+                response.getErrors().add(new BulkWriteResponse.ItemError(index,
+                        day != null ? day.getTourId() : null, day != null ? day.getDayNumber() : null, message));
+            }
+        }
+        
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Itinerary.class);
+            Set<Long> tourIds = new LinkedHashSet<>();
+            for (ItineraryRequest day : pending) {
+                operations.upsert(Query.query(Criteria.where("tourId").is(day.getTourId())
+                                .and("dayNumber").is(day.getDayNumber())
+                                .and("active").is(true)),
+                        upsert(day, now));
+                tourIds.add(day.getTourId());
+            }
+            
+            try {
+                record(operations.execute());
+            } catch (BulkOperationException e) {
+                record(e.getResult());
+                for (BulkWriteError error : e.getErrors()) {
+                    ItineraryRequest day = pending.get(error.getIndex());
+                    fail(indexes.get(error.getIndex()), day, error.getCode() == DUPLICATE_KEY
+                            ? "Another active itinerary already covers tour " + day.getTourId() + " day " + day.getDayNumber()
+                            : error.getMessage());
+                }
+            } finally {
+                indexes.clear();
+                pending.clear();
+            }
+            
+            for (Long tourId : tourIds) {
+                eventPublisher.publishEvent(new ItineraryChangedEvent(tourId, List.of()));
+            }
+        }
+        
+        Update upsert(ItineraryRequest day, LocalDateTime now) {
+            // tourId, dayNumber and active are taken from the query when the day is inserted
+            return new Update()
+                    .set("dayTitle", day.getDayTitle())
+                    .set("activities", day.getActivities())
+                    .set("meals", day.getMeals())
+                    .set("accommodation", day.getAccommodation())
+                    .set("transportDetails", day.getTransportDetails())
+                    .set("notes", day.getNotes())
+                    .set("updatedAt", now)
+                    .inc("version", 1)
+                    .setOnInsert("createdAt", now)
+                    .setOnInsert("createdBy", user);
+        }
+        
+        void record(BulkWriteResult result) {
+            response.setCreated(response.getCreated() + result.getUpserts().size());
+            response.setUpdated(response.getUpdated() + result.getModifiedCount());
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.tourism.itinerary.service;
+
+import com.tourism.itinerary.dto.ItineraryResponse;
+import com.tourism.itinerary.event.ItineraryChangedEvent;
+import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.pdf.PdfCache;
+import com.tourism.itinerary.pdf.PdfCacheProperties;
+import com.tourism.itinerary.pdf.PdfRenderer;
+import com.tourism.itinerary.pdf.PdfRenderingProperties;
+import com.tourism.itinerary.pdf.PdfTemplates;
+import com.tourism.itinerary.readmodel.TourItineraryReadModel;
+import com.tourism.itinerary.repository.ItineraryRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Serves itinerary PDFs from the on-disk {@link PdfCache}.
+ *
+ * A document's cache key and strong ETag are a hash of what it is rendered
+ * from: the IDs and modification times of the itineraries plus the template
+ * fingerprint. With the per-tour read model a tour download is one
+ * primary-key read whether it is answered from the cache or rendered; without
+ * it, a projection query answers 304 or finds the cached file and the full
+ * itineraries are loaded only when the document has to be rendered. Cached files are handed to Tomcat's
+ * sendfile where available, or copied with {@link FileChannel#transferTo}.
+ *
+ * When a tour's itineraries change, its PDFs are re-rendered in the
+ * background on a low-priority pool of their own so the next download is
+ * already cached.
+ */
+@Service
+public class ItineraryPdfService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ItineraryPdfService.class);
+    
+    // Tomcat request attributes for serving a file with sendfile after the handler returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    private final ItineraryService itineraryService;
+    private final ItineraryRepository itineraryRepository;
+    private final TourItineraryReadModel readModel;
+    private final PdfGenerationService pdfGenerationService;
+    private final PdfCache pdfCache;
+    private final PdfCacheProperties cacheProperties;
+    private final PdfTemplates templates;
+    private final PdfRenderingProperties renderingProperties;
+    private final AsyncTaskExecutor pdfRenderExecutor;
+    private final TaskExecutor pdfRegenerationExecutor;
+    
+    // Tours waiting for background regeneration, with the itineraries whose day PDFs changed
+    private final ConcurrentHashMap<Long, Set<String>> pendingRegeneration = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public ItineraryPdfService(ItineraryService itineraryService, ItineraryRepository itineraryRepository,
+                               TourItineraryReadModel readModel, PdfGenerationService pdfGenerationService, PdfCache pdfCache,
+                               PdfCacheProperties cacheProperties, PdfTemplates templates,
+                               PdfRenderingProperties renderingProperties,
+                               @Qualifier("pdfRenderExecutor") AsyncTaskExecutor pdfRenderExecutor,
+                               @Qualifier("pdfRegenerationExecutor") TaskExecutor pdfRegenerationExecutor) {
+        this.itineraryService = itineraryService;
+        this.itineraryRepository = itineraryRepository;
+        this.readModel = readModel;
+        this.pdfGenerationService = pdfGenerationService;
+        this.pdfCache = pdfCache;
+        this.cacheProperties = cacheProperties;
+        this.templates = templates;
+        this.renderingProperties = renderingProperties;
+        this.pdfRenderExecutor = pdfRenderExecutor;
+        this.pdfRegenerationExecutor = pdfRegenerationExecutor;
+    }
+    
+    /**
+     * Run a download on the render pool under the PDF timeout. The response is
+     * written from the pool thread, so the returned entity is null once a body
+     * has been sent.
+     */
+    public WebAsyncTask<ResponseEntity<Void>> onRenderPool(ServletWebRequest request,
+                                                          Callable<ResponseEntity<StreamingResponseBody>> download) {
+        return new WebAsyncTask<>(renderingProperties.getTimeout().toMillis(), pdfRenderExecutor, () -> {
+            ResponseEntity<StreamingResponseBody> entity = download.call();
+            if (entity.getBody() == null) {
+                return ResponseEntity.status(entity.getStatusCode()).headers(entity.getHeaders()).build();
+            }
+            
+            HttpServletResponse response = request.getResponse();
+            response.setStatus(entity.getStatusCode().value());
+            entity.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            entity.getBody().writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+    
+    /**
+     * Download response for a tour's itinerary PDF
+     */
+    public ResponseEntity<StreamingResponseBody> tourPdf(Long tourId, ServletWebRequest request) {
+        String filename = "tour-" + tourId + "-itinerary.pdf";
+        if (readModel.isEnabled()) {
+            List<ItineraryResponse> itineraries = itineraryService.getItinerariesByTourId(tourId);
+            if (itineraries.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String key = tourKey(tourId, itineraries);
+            ResponseEntity<StreamingResponseBody> cached = fromCache(key, filename, request);
+            if (cached != null) {
+                return cached;
+            }
+            return render(key, filename, out -> pdfGenerationService.writeItineraryPdf(tourId, itineraries, out));
+        }
+        
+        List<Itinerary> versions = itineraryRepository.findVersionsByTourId(tourId);
+        if (versions.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        String key = tourKey(tourId, versions.stream().map(v -> version(v.getId(), v.getUpdatedAt())));
+        ResponseEntity<StreamingResponseBody> cached = fromCache(key, filename, request);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Key the render on the documents actually loaded, in case they changed since the projection
+        List<ItineraryResponse> itineraries = itineraryService.getItinerariesByTourId(tourId);
+        if (itineraries.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return render(tourKey(tourId, itineraries), filename,
+                out -> pdfGenerationService.writeItineraryPdf(tourId, itineraries, out));
+    }
+    
+    /**
+     * Download response for a single day's itinerary PDF
+     */
+    public ResponseEntity<StreamingResponseBody> dayPdf(ItineraryResponse itinerary, ServletWebRequest request) {
+        String filename = "tour-" + itinerary.getTourId() + "-day-" + itinerary.getDayNumber() + "-itinerary.pdf";
+        String key = dayKey(itinerary);
+        ResponseEntity<StreamingResponseBody> cached = fromCache(key, filename, request);
+        if (cached != null) {
+            return cached;
+        }
+        return render(key, filename, out -> pdfGenerationService.writeDayItineraryPdf(itinerary, out));
+    }
+    
+    /**
+     * The cached PDF for exactly these itineraries of a tour, if there is one
+     */
+    public PdfCache.CachedPdf findCachedTourPdf(Long tourId, List<ItineraryResponse> itineraries) {
+        return pdfCache.get(tourKey(tourId, itineraries));
+    }
+    
+    /**
+     * 304 when the client already has this version, the cached file when there
+     * is one, otherwise null
+     */
+    private ResponseEntity<StreamingResponseBody> fromCache(String key, String filename, ServletWebRequest request) {
+        String etag = etag(key);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        
+        PdfCache.CachedPdf cached = pdfCache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(pdfHeaders(etag, filename))
+                .contentLength(cached.getSize());
+        
+        HttpServletRequest servletRequest = request.getRequest();
+        if (Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORT))) {
+            // No body is written; Tomcat sends the file straight from the page cache
+            servletRequest.setAttribute(SENDFILE_FILENAME, cached.getFile().toString());
+            servletRequest.setAttribute(SENDFILE_START, 0L);
+            servletRequest.setAttribute(SENDFILE_END, cached.getSize());
+            return response.build();
+        }
+        return response.body(out -> transfer(cached.getFile(), out));
+    }
+    
+    /**
+     * Render to the client, writing the document into the cache as it streams
+     */
+    private ResponseEntity<StreamingResponseBody> render(String key, String filename, PdfRenderer renderer) {
+        StreamingResponseBody body = out -> pdfCache.renderThrough(key, renderer, out);
+        return ResponseEntity.ok()
+                .headers(pdfHeaders(etag(key), filename))
+                .body(body);
+    }
+    
+    @EventListener
+    public void onItineraryChanged(ItineraryChangedEvent event) {
+        if (!pdfCache.isEnabled() || !cacheProperties.isRegenerateOnChange()) {
+            return;
+        }
+        
+        // Changes arriving while a tour is already queued are folded into that run
+        AtomicBoolean schedule = new AtomicBoolean();
+        pendingRegeneration.compute(event.getTourId(), (tourId, ids) -> {
+            Set<String> merged = ids != null ? ids : new HashSet<>();
+            schedule.set(ids == null);
+            merged.addAll(event.getItineraryIds());
+            return merged;
+        });
+        if (!schedule.get()) {
+            return;
+        }
+        
+        try {
+            pdfRegenerationExecutor.execute(() -> regenerate(event.getTourId()));
+        } catch (TaskRejectedException e) {
+            // Too many tours already waiting; the PDF will be rendered on first request instead
+            pendingRegeneration.remove(event.getTourId());
+            log.debug("Skipped PDF regeneration for tour {}: regeneration queue is full", event.getTourId());
+        }
+    }
+    
+    private void regenerate(Long tourId) {
+        Set<String> changedIds = pendingRegeneration.remove(tourId);
+        try {
+            List<ItineraryResponse> itineraries = itineraryService.getItinerariesByTourId(tourId);
+            if (itineraries.isEmpty()) {
+                return;
+            }
+            pdfCache.store(tourKey(tourId, itineraries),
+                    out -> pdfGenerationService.writeItineraryPdf(tourId, itineraries, out));
+            
+            for (ItineraryResponse itinerary : itineraries) {
+                if (changedIds != null && changedIds.contains(itinerary.getId())) {
+                    pdfCache.store(dayKey(itinerary), out -> pdfGenerationService.writeDayItineraryPdf(itinerary, out));
+                }
+            }
+            log.debug("Regenerated PDFs for tour {}", tourId);
+        } catch (Exception e) {
+            log.warn("PDF regeneration for tour {} failed: {}", tourId, e.getMessage());
+        }
+    }
+    
+    private String tourKey(Long tourId, List<ItineraryResponse> itineraries) {
+        return tourKey(tourId, itineraries.stream().map(i -> version(i.getId(), i.getUpdatedAt())));
+    }
+    
+    private String tourKey(Long tourId, Stream<String> versions) {
+        return contentKey("tour:" + tourId, versions);
+    }
+    
+    private String dayKey(ItineraryResponse itinerary) {
+        return contentKey("day:" + itinerary.getId(), Stream.of(version(itinerary.getId(), itinerary.getUpdatedAt())));
+    }
+    
+    private String contentKey(String subject, Stream<String> versions) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(templates.getFingerprint().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(subject.getBytes(StandardCharsets.UTF_8));
+        versions.sorted().forEach(version -> {
+            digest.update((byte) '\n');
+            digest.update(version.getBytes(StandardCharsets.UTF_8));
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private static String version(String id, LocalDateTime updatedAt) {
+        return id + "@" + (updatedAt != null ? updatedAt : "");
+    }
+    
+    private static String etag(String key) {
+        return "\"" + key + "\"";
+    }
+    
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static HttpHeaders pdfHeaders(String etag, String filename) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", filename);
+        headers.setETag(etag);
+        // Clients keep the file but revalidate, which costs a 304 when nothing changed
+        headers.setCacheControl(CacheControl.noCache());
+        return headers;
+    }
+    
+    private static void transfer(Path file, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        out.flush();
+    }
+}
@@ -3,16 +3,42 @@ package com.tourism.itinerary.service;
 import com.tourism.itinerary.dto.ItineraryGenerationRequest;
 import com.tourism.itinerary.dto.ItineraryRequest;
 import com.tourism.itinerary.dto.ItineraryResponse;
+import com.tourism.itinerary.dto.RouteOptimizationResponse;
+import com.tourism.itinerary.event.ItineraryChangedEvent;
 import com.tourism.itinerary.model.Activity;
+import com.tourism.itinerary.model.CatalogActivity;
 import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.patch.ItineraryPatch;
+import com.tourism.itinerary.patch.ItineraryPatchCompiler;
+import com.tourism.itinerary.planning.ActivityCatalog;
+import com.tourism.itinerary.planning.ItineraryPlan;
+import com.tourism.itinerary.planning.ItineraryPlanner;
+import com.tourism.itinerary.planning.KdTree;
+import com.tourism.itinerary.planning.RouteOptimizer;
+import com.tourism.itinerary.readmodel.TourItineraryReadModel;
 import com.tourism.itinerary.repository.ItineraryRepository;
+import com.tourism.common.dto.response.ItineraryChangesDTO;
+import com.tourism.common.dto.response.TourItineraryStatsDTO;
+import com.tourism.common.exception.DuplicateResourceException;
 import com.tourism.common.exception.ResourceNotFoundException;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
@@ -20,27 +46,50 @@ import java.util.ArrayList;
 public class ItineraryService {
     
     private final ItineraryRepository itineraryRepository;
+    private final ItineraryPlanner itineraryPlanner;
+    private final RouteOptimizer routeOptimizer;
+    private final ActivityCatalog activityCatalog;
+    private final TourItineraryReadModel readModel;
+    private final ItineraryPatchCompiler patchCompiler;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Nearby alternatives offered per activity, and how far away they may be
+    private static final int SUGGESTIONS_PER_ACTIVITY = 2;
+    private static final double SUGGESTION_RADIUS_KM = 2.0;
+    // Tours per batch stats request
+    private static final int MAX_STATS_BATCH = 500;
     
     @Autowired
-    public ItineraryService(ItineraryRepository itineraryRepository) {
+    public ItineraryService(ItineraryRepository itineraryRepository, ItineraryPlanner itineraryPlanner,
+                            RouteOptimizer routeOptimizer, ActivityCatalog activityCatalog,
+                            TourItineraryReadModel readModel, ItineraryPatchCompiler patchCompiler,
+                            ApplicationEventPublisher eventPublisher) {
         this.itineraryRepository = itineraryRepository;
+        this.itineraryPlanner = itineraryPlanner;
+        this.routeOptimizer = routeOptimizer;
+        this.activityCatalog = activityCatalog;
+        this.readModel = readModel;
+        this.patchCompiler = patchCompiler;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
      * Create a new itinerary
      */
     public ItineraryResponse createItinerary(ItineraryRequest request, String createdBy) {
-        // Check if itinerary already exists for this tour and day
-        if (itineraryRepository.existsByTourIdAndDayNumberAndActive(request.getTourId(), request.getDayNumber(), true)) {
-            throw new IllegalArgumentException("Itinerary already exists for tour " + request.getTourId() + " day " + request.getDayNumber());
-        }
-        
         Itinerary itinerary = convertToEntity(request);
         itinerary.setCreatedBy(createdBy);
         itinerary.setCreatedAt(LocalDateTime.now());
         itinerary.setUpdatedAt(LocalDateTime.now());
         
-        Itinerary saved = itineraryRepository.save(itinerary);
+        // The partial unique index on (tourId, dayNumber) rejects a second active day
+        Itinerary saved;
+        try {
+            saved = itineraryRepository.insert(itinerary);
+        } catch (DuplicateKeyException e) {
+            throw dayExists(request.getTourId(), request.getDayNumber());
+        }
+        publishChanged(saved.getTourId(), List.of(saved));
         return convertToResponse(saved);
     }
     
@@ -48,23 +97,41 @@ public class ItineraryService {
      * Update an existing itinerary
      */
     public ItineraryResponse updateItinerary(String id, ItineraryRequest request, String updatedBy) {
-        Itinerary existingItinerary = itineraryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found with id: " + id));
+        Itinerary values = convertToEntity(request);
+        values.setUpdatedAt(LocalDateTime.now());
         
-        // Check if updating to a different day number that already exists
-        if (!existingItinerary.getDayNumber().equals(request.getDayNumber())) {
-            if (itineraryRepository.existsByTourIdAndDayNumberAndActive(request.getTourId(), request.getDayNumber(), true)) {
-                throw new IllegalArgumentException("Itinerary already exists for tour " + request.getTourId() + " day " + request.getDayNumber());
-            }
+        Itinerary updated;
+        try {
+            updated = itineraryRepository.updateDay(id, values)
+                    .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found with id: " + id));
+        } catch (DuplicateKeyException e) {
+            throw dayExists(request.getTourId(), request.getDayNumber());
         }
         
-        updateEntityFromRequest(existingItinerary, request);
-        existingItinerary.setUpdatedAt(LocalDateTime.now());
-        
-        Itinerary updated = itineraryRepository.save(existingItinerary);
+        // The update returns the document as it was; apply the same changes for the response
+        Long previousTourId = updated.getTourId();
+        updateEntityFromRequest(updated, request);
+        updated.setUpdatedAt(values.getUpdatedAt());
+        updated.nextVersion();
+        if (!previousTourId.equals(updated.getTourId())) {
+            publishChanged(previousTourId, List.of());
+        }
+        publishChanged(updated.getTourId(), List.of(updated));
         return convertToResponse(updated);
     }
     
+    /**
+     * Apply a JSON Patch to a day as one targeted update; {@code expectedVersion} is checked when given
+     */
+    public ItineraryResponse patchItinerary(String id, JsonNode patch, Long expectedVersion) {
+        ItineraryPatch compiled = patchCompiler.compile(patch);
+        Itinerary patched = itineraryRepository.patchDay(id, expectedVersion, compiled)
+                .orElseThrow(() -> patchRejected(id, expectedVersion, compiled));
+        
+        publishChanged(patched.getTourId(), List.of(patched));
+        return convertToResponse(patched);
+    }
+    
     /**
      * Get itinerary by ID
      */
@@ -78,7 +145,9 @@ public class ItineraryService {
      * Get all itineraries for a tour
      */
     public List<ItineraryResponse> getItinerariesByTourId(Long tourId) {
-        List<Itinerary> itineraries = itineraryRepository.findByTourIdAndActiveOrderByDayNumber(tourId, true);
+        List<Itinerary> itineraries = readModel.isEnabled()
+                ? readModel.days(tourId)
+                : itineraryRepository.findByTourIdAndActiveOrderByDayNumber(tourId, true);
         return itineraries.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
@@ -97,61 +166,53 @@ public class ItineraryService {
      * Delete itinerary (soft delete)
      */
     public void deleteItinerary(String id) {
-        Itinerary itinerary = itineraryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found with id: " + id));
-        
-        itinerary.setActive(false);
-        itinerary.setUpdatedAt(LocalDateTime.now());
-        itineraryRepository.save(itinerary);
+        // One atomic update, so a concurrent edit of the day is neither lost nor resurrected
+        Itinerary deleted = itineraryRepository.deactivateDay(id).orElse(null);
+        if (deleted == null) {
+            // Deleting an already deleted day succeeds as before
+            if (!itineraryRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Itinerary not found with id: " + id);
+            }
+            return;
+        }
+        publishChanged(deleted.getTourId(), List.of());
     }
     
     /**
-     * Delete all itineraries for a tour
+     * Delete all itineraries for a tour (soft delete); returns how many days were active
      */
-    public void deleteItinerariesByTourId(Long tourId) {
-        List<Itinerary> itineraries = itineraryRepository.findByTourId(tourId);
-        itineraries.forEach(itinerary -> {
-            itinerary.setActive(false);
-            itinerary.setUpdatedAt(LocalDateTime.now());
-        });
-        itineraryRepository.saveAll(itineraries);
+    public long deleteItinerariesByTourId(Long tourId) {
+        long deactivated = itineraryRepository.deactivateTour(tourId);
+        publishChanged(tourId, List.of());
+        return deactivated;
     }
     
     /**
-     * Generate AI-suggested itinerary (placeholder implementation)
+     * Generate an itinerary from the activity catalog, scheduled by the planner
      */
     public List<ItineraryResponse> generateItinerary(ItineraryGenerationRequest request, String createdBy) {
+        ItineraryPlan plan = itineraryPlanner.plan(request);
+        if (itineraryRepository.countByTourIdAndActive(request.getTourId(), true) > 0) {
+            throw alreadyGenerated(request.getTourId());
+        }
         List<Itinerary> generatedItineraries = new ArrayList<>();
         
-        // This is a simplified implementation
-        // In a real application, this would integrate with AI services or have sophisticated logic
-        for (int day = 1; day <= request.getDuration(); day++) {
+        for (ItineraryPlan.PlannedDay day : plan.getDays()) {
             Itinerary itinerary = new Itinerary();
+            // Assigned up front so the days of a failed insert can be found again
+            itinerary.setId(new ObjectId().toHexString());
             itinerary.setTourId(request.getTourId());
-            itinerary.setDayNumber(day);
-            itinerary.setDayTitle("Day " + day + " - " + request.getDestination());
+            itinerary.setDayNumber(day.getDayNumber());
+            itinerary.setDayTitle(day.getTitle());
             itinerary.setCreatedBy(createdBy);
             itinerary.setCreatedAt(LocalDateTime.now());
             itinerary.setUpdatedAt(LocalDateTime.now());
             
-            // Add sample activities based on tour type
-            List<Activity> activities = generateSampleActivities(request, day);
-            itinerary.setActivities(activities);
-            
-            // Add meals
-            List<String> meals = new ArrayList<>();
-            if (day == 1) {
-                meals.add("LUNCH");
-                meals.add("DINNER");
-            } else if (day == request.getDuration()) {
-                meals.add("BREAKFAST");
-                meals.add("LUNCH");
-            } else {
-                meals.add("BREAKFAST");
-                meals.add("LUNCH");
-                meals.add("DINNER");
-            }
-            itinerary.setMeals(meals);
+            // The plan may be shared with other requests, so each itinerary gets its own copies
+            itinerary.setActivities(day.copyActivities());
+            Activity.assignIds(itinerary.getActivities());
+            itinerary.setMeals(day.getMeals());
+            itinerary.setVersion(1L);
             
             // Set accommodation
             itinerary.setAccommodation(request.getAccommodationType() + " accommodation in " + request.getDestination());
@@ -159,19 +220,90 @@ public class ItineraryService {
             // Set transport
             itinerary.setTransportDetails("Transport by " + request.getTransportMode());
             
+            if (request.getMealPreference() != null) {
+                itinerary.setNotes("Meal preference: " + request.getMealPreference());
+            }
+            
             generatedItineraries.add(itinerary);
         }
         
-        List<Itinerary> saved = itineraryRepository.saveAll(generatedItineraries);
+        List<Itinerary> saved;
+        try {
+            saved = itineraryRepository.insert(generatedItineraries);
+        } catch (DuplicateKeyException e) {
+            // A day was added concurrently; the ordered insert stopped there, so withdraw the days before it
+            List<String> ids = generatedItineraries.stream().map(Itinerary::getId).collect(Collectors.toList());
+            if (itineraryRepository.deactivateDays(ids) > 0) {
+                publishChanged(request.getTourId(), List.of());
+            }
+            throw alreadyGenerated(request.getTourId());
+        }
+        publishChanged(request.getTourId(), saved);
         return saved.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Reorder each day of a tour to cut travel between activities, optionally saving the result
+     */
+    public RouteOptimizationResponse optimizeTourRoutes(Long tourId, boolean apply) {
+        List<Itinerary> itineraries = itineraryRepository.findByTourIdAndActiveOrderByDayNumber(tourId, true);
+        if (itineraries.isEmpty()) {
+            throw new ResourceNotFoundException("No itineraries found for tour " + tourId);
+        }
+        
+        RouteOptimizationResponse response = new RouteOptimizationResponse(tourId, apply);
+        List<Itinerary> changed = new ArrayList<>();
+        for (Itinerary itinerary : itineraries) {
+            RouteOptimizer.Result result = routeOptimizer.optimize(itinerary.getActivities());
+            
+            RouteOptimizationResponse.DayOptimization day = new RouteOptimizationResponse.DayOptimization();
+            day.setItineraryId(itinerary.getId());
+            day.setDayNumber(itinerary.getDayNumber());
+            day.setDistanceBeforeKm(result.getDistanceBeforeKm());
+            day.setDistanceAfterKm(result.getDistanceAfterKm());
+            day.setReordered(result.isReordered());
+            day.setActivities(result.getActivities());
+            day.setSuggestions(nearbySuggestions(result.getActivities()));
+            response.getDays().add(day);
+            response.setDistanceBeforeKm(response.getDistanceBeforeKm() + result.getDistanceBeforeKm());
+            response.setDistanceAfterKm(response.getDistanceAfterKm() + result.getDistanceAfterKm());
+            
+            if (result.isReordered()) {
+                List<Activity> activities = new ArrayList<>(result.getActivities());
+                Activity.assignIds(activities);
+                itinerary.setActivities(activities);
+                changed.add(itinerary);
+            }
+        }
+        
+        if (apply && !changed.isEmpty()) {
+            // Each day is written only if nobody changed it since it was read for optimization
+            List<Itinerary> saved = new ArrayList<>();
+            try {
+                for (Itinerary itinerary : changed) {
+                    saved.add(itineraryRepository
+                            .replaceActivities(itinerary.getId(), itinerary.getVersion(), itinerary.getActivities())
+                            .orElseThrow(() -> new OptimisticLockingFailureException("Itinerary "
+                                    + itinerary.getId() + " was modified during route optimization")));
+                }
+            } finally {
+                if (!saved.isEmpty()) {
+                    publishChanged(tourId, saved);
+                }
+            }
+        }
+        return response;
+    }
+    
     /**
      * Get tour statistics
      */
     public long getTotalDaysForTour(Long tourId) {
+        if (readModel.isEnabled()) {
+            return readModel.totalDays(tourId);
+        }
         return itineraryRepository.countByTourIdAndActive(tourId, true);
     }
     
@@ -179,30 +311,111 @@ public class ItineraryService {
      * Check if tour has itinerary
      */
     public boolean tourHasItinerary(Long tourId) {
-        return itineraryRepository.countByTourIdAndActive(tourId, true) > 0;
+        return getTotalDaysForTour(tourId) > 0;
     }
     
-    // Helper methods
-    private List<Activity> generateSampleActivities(ItineraryGenerationRequest request, int day) {
-        List<Activity> activities = new ArrayList<>();
+    /**
+     * Statistics for many tours from one aggregation, in the order the tours were asked for
+     */
+    public List<TourItineraryStatsDTO> getTourStats(Collection<Long> tourIds) {
+        Set<Long> distinct = new LinkedHashSet<>(tourIds);
+        distinct.remove(null);
+        if (distinct.size() > MAX_STATS_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_STATS_BATCH + " tours can be requested at once");
+        }
+        if (distinct.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        if (day == 1) {
-            // Arrival day
-            activities.add(new Activity("10:00", "Arrival and Check-in", "Arrive at " + request.getDestination() + " and check into accommodation", 120, request.getDestination()));
-            activities.add(new Activity("14:00", "City Orientation Tour", "Get familiar with the city and local area", 180, "City Center"));
-            activities.add(new Activity("18:00", "Welcome Dinner", "Traditional local cuisine experience", 120, "Local Restaurant"));
-        } else if (day == request.getDuration()) {
-            // Departure day
-            activities.add(new Activity("09:00", "Final Sightseeing", "Last-minute shopping and sightseeing", 180, "City Center"));
-            activities.add(new Activity("14:00", "Check-out and Departure", "Check out from accommodation and departure", 60, request.getDestination()));
-        } else {
-            // Regular days
-            activities.add(new Activity("09:00", "Morning Exploration", "Explore local attractions and landmarks", 240, "Tourist Area"));
-            activities.add(new Activity("14:00", "Cultural Experience", "Immerse in local culture and traditions", 180, "Cultural Center"));
-            activities.add(new Activity("18:00", "Leisure Time", "Free time for personal activities", 120, "Hotel/Local Area"));
+        Map<Long, Long> days = itineraryRepository.countActiveDaysByTour(distinct);
+        return distinct.stream()
+                .map(tourId -> new TourItineraryStatsDTO(tourId, days.getOrDefault(tourId, 0L)))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Tours whose itineraries were written after the given epoch millis
+     */
+    public ItineraryChangesDTO getChangedTours(long sinceMillis) {
+        long asOf = System.currentTimeMillis();
+        List<Long> tourIds = itineraryRepository.findTourIdsUpdatedAfter(Instant.ofEpochMilli(sinceMillis));
+        return new ItineraryChangesDTO(tourIds, asOf);
+    }
+    
+    // Helper methods
+    /**
+     * Work out which of the patch's conditions failed; only called after the update matched nothing
+     */
+    private RuntimeException patchRejected(String id, Long expectedVersion, ItineraryPatch patch) {
+        Itinerary current = itineraryRepository.findById(id)
+                .filter(Itinerary::isActive)
+                .orElse(null);
+        if (current == null) {
+            return new ResourceNotFoundException("Itinerary not found with id: " + id);
+        }
+        long version = current.getVersion() != null ? current.getVersion() : 0L;
+        if (expectedVersion != null && version != expectedVersion) {
+            return new OptimisticLockingFailureException("Itinerary " + id + " is at version " + version
+                    + ", not " + expectedVersion);
+        }
+        Set<String> present = current.getActivities().stream()
+                .map(Activity::getActivityId)
+                .collect(Collectors.toSet());
+        for (String activityId : patch.getTargetedActivityIds()) {
+            if (!present.contains(activityId)) {
+                return new ResourceNotFoundException("Activity not found with id: " + activityId);
+            }
+        }
+        for (String activityId : patch.getAddedActivityIds()) {
+            if (present.contains(activityId)) {
+                return new DuplicateResourceException("Activity", "id", activityId);
+            }
+        }
+        // The document changed between the update and this read
+        return new OptimisticLockingFailureException("Itinerary " + id + " was modified concurrently");
+    }
+    
+    private DuplicateResourceException dayExists(Long tourId, Integer dayNumber) {
+        return new DuplicateResourceException("Itinerary already exists for tour " + tourId + " day " + dayNumber);
+    }
+    
+    private List<RouteOptimizationResponse.NearbySuggestion> nearbySuggestions(List<Activity> activities) {
+        Set<String> taken = new HashSet<>();
+        for (Activity activity : activities) {
+            taken.add(activity.getTitle());
         }
         
-        return activities;
+        List<RouteOptimizationResponse.NearbySuggestion> suggestions = new ArrayList<>();
+        for (Activity activity : activities) {
+            if (activity.isFixedTime() || !activity.hasCoordinates()) {
+                continue;
+            }
+            int offered = 0;
+            for (KdTree.Neighbor<CatalogActivity> neighbor : activityCatalog.nearby(activity.getLatitude(),
+                    activity.getLongitude(), SUGGESTIONS_PER_ACTIVITY + activities.size(), SUGGESTION_RADIUS_KM)) {
+                CatalogActivity candidate = neighbor.getItem();
+                if (offered == SUGGESTIONS_PER_ACTIVITY || !taken.add(candidate.getTitle())) {
+                    continue;
+                }
+                suggestions.add(new RouteOptimizationResponse.NearbySuggestion(activity.getTitle(),
+                        candidate.getId(), candidate.getTitle(), candidate.getActivityType(),
+                        neighbor.getDistanceKm()));
+                offered++;
+            }
+        }
+        return suggestions;
+    }
+    
+    private static DuplicateResourceException alreadyGenerated(Long tourId) {
+        return new DuplicateResourceException("Itinerary already exists for tour " + tourId
+                + "; delete its days before generating a new one");
+    }
+    
+    private void publishChanged(Long tourId, List<Itinerary> changed) {
+        List<String> ids = changed.stream()
+                .map(Itinerary::getId)
+                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new ItineraryChangedEvent(tourId, ids));
     }
     
     private Itinerary convertToEntity(ItineraryRequest request) {
@@ -216,6 +429,8 @@ public class ItineraryService {
         itinerary.setTransportDetails(request.getTransportDetails());
         itinerary.setNotes(request.getNotes());
         itinerary.setActive(true);
+        itinerary.setVersion(1L);
+        Activity.assignIds(itinerary.getActivities());
         return itinerary;
     }
     
@@ -245,6 +460,7 @@ public class ItineraryService {
         response.setUpdatedAt(itinerary.getUpdatedAt());
         response.setCreatedBy(itinerary.getCreatedBy());
         response.setActive(itinerary.isActive());
+        response.setVersion(itinerary.getVersion() != null ? itinerary.getVersion() : 0L);
         return response;
     }
 }
@@ -0,0 +1,298 @@
+package com.tourism.itinerary.service;
+
+import com.tourism.itinerary.dto.ItineraryResponse;
+import com.tourism.itinerary.dto.PdfExportRequest;
+import com.tourism.itinerary.model.Itinerary;
+import com.tourism.itinerary.pdf.PdfCache;
+import com.tourism.itinerary.pdf.PdfExportJob;
+import com.tourism.itinerary.pdf.PdfExportProperties;
+import com.tourism.itinerary.repository.ItineraryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk export of tour itinerary PDFs into a single ZIP archive.
+ *
+ * A job renders its tours in parallel on the shared export worker pool while
+ * its own thread appends each finished PDF to the archive, so only the PDFs in
+ * flight (at most a small window per job) exist at once, as files on disk.
+ * Tours whose current PDF is already in the {@link PdfCache} are hard-linked
+ * (or copied) from there instead of being rendered again, so eviction cannot
+ * remove the file while it waits for the archive. The archive is written under a
+ * temporary name and only becomes downloadable once complete.
+ *
+ * Job state is kept in memory; jobs and their archives are dropped after the
+ * configured retention.
+ */
+@Service
+public class PdfExportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PdfExportService.class);
+    
+    private final ItineraryService itineraryService;
+    private final ItineraryRepository itineraryRepository;
+    private final ItineraryPdfService itineraryPdfService;
+    private final PdfGenerationService pdfGenerationService;
+    private final PdfExportProperties properties;
+    private final TaskExecutor jobExecutor;
+    private final TaskExecutor workerExecutor;
+    private final Path directory;
+    
+    private final ConcurrentHashMap<String, PdfExportJob> jobs = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public PdfExportService(ItineraryService itineraryService, ItineraryRepository itineraryRepository,
+                            ItineraryPdfService itineraryPdfService, PdfGenerationService pdfGenerationService,
+                            PdfExportProperties properties,
+                            @Qualifier("pdfExportJobExecutor") TaskExecutor jobExecutor,
+                            @Qualifier("pdfExportWorkerExecutor") TaskExecutor workerExecutor) throws IOException {
+        this.itineraryService = itineraryService;
+        this.itineraryRepository = itineraryRepository;
+        this.itineraryPdfService = itineraryPdfService;
+        this.pdfGenerationService = pdfGenerationService;
+        this.properties = properties;
+        this.jobExecutor = jobExecutor;
+        this.workerExecutor = workerExecutor;
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath();
+        Files.createDirectories(directory);
+        // Jobs do not survive a restart, so neither do their archives and partial files
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            leftovers.forEach(PdfExportService::deleteQuietly);
+        }
+    }
+    
+    /**
+     * Queue an export job. Throws {@code TaskRejectedException} when the job queue is full.
+     */
+    public PdfExportJob startExport(PdfExportRequest request, String requestedBy) {
+        removeExpiredJobs();
+        
+        List<Long> tourIds = request.isAllActive()
+                ? itineraryRepository.findDistinctTourIds().stream()
+                        .map(Itinerary::getTourId)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .sorted()
+                        .toList()
+                : request.getTourIds().stream()
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList();
+        if (tourIds.isEmpty()) {
+            throw new IllegalArgumentException("No tours to export");
+        }
+        
+        PdfExportJob job = new PdfExportJob(tourIds, requestedBy);
+        jobs.put(job.getId(), job);
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        log.info("Queued PDF export {} of {} tours for {}", job.getId(), tourIds.size(), requestedBy);
+        return job;
+    }
+    
+    /**
+     * A job started by {@code requestedBy}; other users' jobs are reported as absent
+     */
+    public PdfExportJob getJob(String jobId, String requestedBy) {
+        PdfExportJob job = jobs.get(jobId);
+        return job != null && job.getRequestedBy().equals(requestedBy) ? job : null;
+    }
+    
+    private void run(PdfExportJob job) {
+        job.start();
+        Path part = directory.resolve(job.getId() + ".zip.part");
+        Path archive = directory.resolve(job.getId() + ".zip");
+        
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024))) {
+                // PDF content streams are already compressed
+                zip.setLevel(Deflater.BEST_SPEED);
+                writeTours(job, zip);
+            }
+            Files.move(part, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            job.complete(archive, Files.size(archive));
+            log.info("PDF export {} finished: {} of {} tours, {} bytes",
+                    job.getId(), job.getCompleted(), job.getTotal(), job.getSizeBytes());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            deleteQuietly(part);
+            log.warn("PDF export {} failed: {}", job.getId(), job.getError());
+        }
+    }
+    
+    private void writeTours(PdfExportJob job, ZipOutputStream zip) throws IOException, InterruptedException {
+        CompletionService<RenderedTour> completion = new ExecutorCompletionService<>(workerExecutor);
+        Iterator<Long> pending = job.getTourIds().iterator();
+        // Keep the workers busy without letting rendered files pile up ahead of the archive
+        int window = Math.max(2, properties.getWorkerThreads() * 2);
+        int inFlight = 0;
+        
+        while (inFlight < window && pending.hasNext()) {
+            Long tourId = pending.next();
+            completion.submit(() -> render(tourId));
+            inFlight++;
+        }
+        
+        while (inFlight > 0) {
+            Future<RenderedTour> next = completion.take();
+            inFlight--;
+            RenderedTour rendered;
+            try {
+                rendered = next.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Rendering failed", e.getCause());
+            }
+            
+            if (rendered.getError() != null) {
+                job.tourFailed(rendered.getTourId(), rendered.getError());
+            } else {
+                try {
+                    zip.putNextEntry(new ZipEntry("tour-" + rendered.getTourId() + "-itinerary.pdf"));
+                    Files.copy(rendered.getFile(), zip);
+                    zip.closeEntry();
+                    job.tourCompleted();
+                } finally {
+                    deleteQuietly(rendered.getFile());
+                }
+            }
+            
+            if (pending.hasNext()) {
+                Long tourId = pending.next();
+                completion.submit(() -> render(tourId));
+                inFlight++;
+            }
+        }
+    }
+    
+    /**
+     * Produce a tour's PDF as a file, reusing the PDF cache when it has the current version
+     */
+    private RenderedTour render(Long tourId) {
+        Path temp = null;
+        try {
+            List<ItineraryResponse> itineraries = itineraryService.getItinerariesByTourId(tourId);
+            if (itineraries.isEmpty()) {
+                return RenderedTour.failed(tourId, "no active itinerary");
+            }
+            
+            temp = Files.createTempFile(directory, "tour-" + tourId + "-", ".pdf");
+            PdfCache.CachedPdf cached = itineraryPdfService.findCachedTourPdf(tourId, itineraries);
+            if (cached != null && pin(cached.getFile(), temp)) {
+                return new RenderedTour(tourId, temp);
+            }
+            
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                pdfGenerationService.writeItineraryPdf(tourId, itineraries, out);
+            }
+            return new RenderedTour(tourId, temp);
+        } catch (Exception e) {
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+            return RenderedTour.failed(tourId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+    
+    /**
+     * Take a private copy of a cached PDF, a hard link where the file system allows, so the
+     * cache can evict it before the archive gets to it; false if it is already gone
+     */
+    private static boolean pin(Path cachedFile, Path temp) throws IOException {
+        try {
+            Files.delete(temp);
+            try {
+                Files.createLink(temp, cachedFile);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                Files.copy(cachedFile, temp);
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            // Evicted since the lookup; render it instead, which recreates the temp file
+            return false;
+        }
+    }
+    
+    private void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.getFinishedAt().isAfter(cutoff)) {
+                return false;
+            }
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return true;
+        });
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * One tour's rendered PDF, or the reason it could not be rendered
+     */
+    private static class RenderedTour {
+        
+        private final Long tourId;
+        private final Path file;
+        private final String error;
+        
+        RenderedTour(Long tourId, Path file) {
+            this(tourId, file, null);
+        }
+        
+        private RenderedTour(Long tourId, Path file, String error) {
+            this.tourId = tourId;
+            this.file = file;
+            this.error = error;
+        }
+        
+        static RenderedTour failed(Long tourId, String error) {
+            return new RenderedTour(tourId, null, error);
+        }
+        
+        Long getTourId() { return tourId; }
+        Path getFile() { return file; }
+        String getError() { return error; }
+    }
+}
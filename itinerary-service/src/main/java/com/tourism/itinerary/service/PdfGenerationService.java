@@ -1,155 +1,148 @@
 package com.tourism.itinerary.service;
 
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
 import com.tourism.itinerary.dto.ItineraryResponse;
 import com.tourism.itinerary.model.Activity;
+import com.tourism.itinerary.pdf.PdfTemplates;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+/**
+ * Renders itineraries to PDF with iText pdfHTML.
+ *
+ * Documents are written straight to the given stream as pages are laid out,
+ * never materialised as a byte array. The layout template, stylesheet and
+ * fonts come from {@link PdfTemplates} and are shared across renders.
+ *
+ * Output depends only on the itineraries and the template (the footer shows
+ * when the itinerary last changed, not when it was rendered), so rendered
+ * documents can be cached by content.
+ */
 @Service
 public class PdfGenerationService {
     
+    private static final DateTimeFormatter LAST_UPDATED = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+    
+    private final PdfTemplates templates;
+    
+    public PdfGenerationService(PdfTemplates templates) {
+        this.templates = templates;
+    }
+    
     /**
-     * Generate PDF for tour itinerary
+     * Write the PDF for a tour itinerary to {@code out}, which is left open
      */
-    public byte[] generateItineraryPdf(Long tourId, List<ItineraryResponse> itineraries) throws IOException {
-        // This is a simplified implementation using basic string formatting
-        // In a real application, you would use a proper PDF library like iText or Apache PDFBox
-        
-        StringBuilder content = new StringBuilder();
-        content.append("TOUR ITINERARY\n");
-        content.append("==============\n\n");
-        content.append("Tour ID: ").append(tourId).append("\n");
-        content.append("Total Days: ").append(itineraries.size()).append("\n\n");
-        
+    public void writeItineraryPdf(Long tourId, List<ItineraryResponse> itineraries, OutputStream out) throws IOException {
+        StringBuilder content = new StringBuilder(itineraries.size() * 2048);
         for (ItineraryResponse itinerary : itineraries) {
-            content.append("DAY ").append(itinerary.getDayNumber()).append(": ")
-                   .append(itinerary.getDayTitle() != null ? itinerary.getDayTitle() : "Day " + itinerary.getDayNumber())
-                   .append("\n");
-            content.append("=".repeat(50)).append("\n\n");
-            
-            // Activities
-            if (itinerary.getActivities() != null && !itinerary.getActivities().isEmpty()) {
-                content.append("ACTIVITIES:\n");
-                for (Activity activity : itinerary.getActivities()) {
-                    content.append("• ").append(activity.getTime()).append(" - ")
-                           .append(activity.getTitle()).append("\n");
-                    if (activity.getDescription() != null) {
-                        content.append("  ").append(activity.getDescription()).append("\n");
-                    }
-                    if (activity.getLocation() != null) {
-                        content.append("  Location: ").append(activity.getLocation()).append("\n");
-                    }
-                    if (activity.getDuration() != null) {
-                        content.append("  Duration: ").append(activity.getDuration()).append(" minutes\n");
-                    }
-                    content.append("\n");
-                }
-            }
-            
-            // Meals
-            if (itinerary.getMeals() != null && !itinerary.getMeals().isEmpty()) {
-                content.append("MEALS: ").append(String.join(", ", itinerary.getMeals())).append("\n\n");
-            }
-            
-            // Accommodation
-            if (itinerary.getAccommodation() != null) {
-                content.append("ACCOMMODATION: ").append(itinerary.getAccommodation()).append("\n\n");
-            }
-            
-            // Transport
-            if (itinerary.getTransportDetails() != null) {
-                content.append("TRANSPORT: ").append(itinerary.getTransportDetails()).append("\n\n");
-            }
-            
-            // Notes
-            if (itinerary.getNotes() != null) {
-                content.append("NOTES: ").append(itinerary.getNotes()).append("\n\n");
-            }
-            
-            content.append("-".repeat(50)).append("\n\n");
+            appendDay(content, itinerary);
         }
         
-        // Add footer
-        content.append("\nGenerated on: ")
-               .append(java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")))
-               .append("\n");
-        content.append("Tourism Management System\n");
-        
-        // Convert to bytes (in a real implementation, you would use a proper PDF library)
-        return content.toString().getBytes();
+        Map<String, String> model = new HashMap<>();
+        model.put("title", "Tour Itinerary");
+        model.put("subtitle", "Tour " + tourId + " &middot; " + itineraries.size()
+                + (itineraries.size() == 1 ? " day" : " days"));
+        model.put("content", content.toString());
+        model.put("lastUpdated", formatLastUpdated(itineraries));
+        render(model, "Tour " + tourId + " Itinerary", out);
     }
     
     /**
-     * Generate PDF for a single day itinerary
+     * Write the PDF for a single day itinerary to {@code out}, which is left open
      */
-    public byte[] generateDayItineraryPdf(ItineraryResponse itinerary) throws IOException {
-        StringBuilder content = new StringBuilder();
-        content.append("DAY ITINERARY\n");
-        content.append("=============\n\n");
-        content.append("Tour ID: ").append(itinerary.getTourId()).append("\n");
-        content.append("Day: ").append(itinerary.getDayNumber()).append("\n");
-        content.append("Title: ").append(itinerary.getDayTitle() != null ? itinerary.getDayTitle() : "Day " + itinerary.getDayNumber()).append("\n\n");
+    public void writeDayItineraryPdf(ItineraryResponse itinerary, OutputStream out) throws IOException {
+        StringBuilder content = new StringBuilder(2048);
+        appendDay(content, itinerary);
+        
+        Map<String, String> model = new HashMap<>();
+        model.put("title", "Day Itinerary");
+        model.put("subtitle", "Tour " + itinerary.getTourId() + " &middot; Day " + itinerary.getDayNumber());
+        model.put("content", content.toString());
+        model.put("lastUpdated", formatLastUpdated(List.of(itinerary)));
+        render(model, "Tour " + itinerary.getTourId() + " Day " + itinerary.getDayNumber() + " Itinerary", out);
+    }
+    
+    private void render(Map<String, String> model, String documentTitle, OutputStream out) throws IOException {
+        String html = templates.getLayout().render(model);
+        
+        PdfWriter writer = new PdfWriter(out);
+        // The caller owns the stream (usually the servlet response)
+        writer.setCloseStream(false);
+        PdfDocument pdf = new PdfDocument(writer);
+        pdf.getDocumentInfo().setTitle(documentTitle);
+        pdf.getDocumentInfo().setCreator("Tourism Management System");
+        
+        // Closes the document, flushing the remaining pages to the stream
+        HtmlConverter.convertToPdf(html, pdf, templates.converterProperties());
+        out.flush();
+    }
+    
+    private String formatLastUpdated(List<ItineraryResponse> itineraries) {
+        return itineraries.stream()
+                .map(ItineraryResponse::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .map(LAST_UPDATED::format)
+                .orElse("-");
+    }
+    
+    private void appendDay(StringBuilder html, ItineraryResponse itinerary) {
+        String title = itinerary.getDayTitle() != null ? itinerary.getDayTitle() : "Day " + itinerary.getDayNumber();
+        html.append("<section class=\"day\"><h2>Day ").append(itinerary.getDayNumber())
+            .append(": ").append(escape(title)).append("</h2>");
         
         // Activities
         if (itinerary.getActivities() != null && !itinerary.getActivities().isEmpty()) {
-            content.append("ACTIVITIES:\n");
-            content.append("-".repeat(20)).append("\n");
+            html.append("<h3>Activities</h3><table class=\"activities\"><thead><tr>")
+                .append("<th>Time</th><th>Activity</th><th>Location</th><th>Duration</th>")
+                .append("</tr></thead><tbody>");
             for (Activity activity : itinerary.getActivities()) {
-                content.append("Time: ").append(activity.getTime()).append("\n");
-                content.append("Activity: ").append(activity.getTitle()).append("\n");
+                html.append("<tr><td class=\"time\">").append(escape(activity.getTime())).append("</td><td>")
+                    .append(escape(activity.getTitle()));
                 if (activity.getDescription() != null) {
-                    content.append("Description: ").append(activity.getDescription()).append("\n");
-                }
-                if (activity.getLocation() != null) {
-                    content.append("Location: ").append(activity.getLocation()).append("\n");
+                    html.append("<div class=\"description\">").append(escape(activity.getDescription())).append("</div>");
                 }
+                html.append("</td><td>").append(escape(activity.getLocation())).append("</td><td class=\"duration\">");
                 if (activity.getDuration() != null) {
-                    content.append("Duration: ").append(activity.getDuration()).append(" minutes\n");
+                    html.append(activity.getDuration()).append(" min");
                 }
-                content.append("\n");
+                html.append("</td></tr>");
             }
+            html.append("</tbody></table>");
         }
         
         // Meals
         if (itinerary.getMeals() != null && !itinerary.getMeals().isEmpty()) {
-            content.append("MEALS:\n");
-            content.append("-".repeat(20)).append("\n");
-            for (String meal : itinerary.getMeals()) {
-                content.append("• ").append(meal).append("\n");
-            }
-            content.append("\n");
-        }
-        
-        // Accommodation
-        if (itinerary.getAccommodation() != null) {
-            content.append("ACCOMMODATION:\n");
-            content.append("-".repeat(20)).append("\n");
-            content.append(itinerary.getAccommodation()).append("\n\n");
+            html.append("<h3>Meals</h3><p class=\"detail\">")
+                .append(escape(String.join(", ", itinerary.getMeals()))).append("</p>");
         }
         
-        // Transport
-        if (itinerary.getTransportDetails() != null) {
-            content.append("TRANSPORT:\n");
-            content.append("-".repeat(20)).append("\n");
-            content.append(itinerary.getTransportDetails()).append("\n\n");
-        }
+        appendDetail(html, "Accommodation", itinerary.getAccommodation());
+        appendDetail(html, "Transport", itinerary.getTransportDetails());
+        appendDetail(html, "Notes", itinerary.getNotes());
         
-        // Notes
-        if (itinerary.getNotes() != null) {
-            content.append("NOTES:\n");
-            content.append("-".repeat(20)).append("\n");
-            content.append(itinerary.getNotes()).append("\n\n");
+        html.append("</section>");
+    }
+    
+    private void appendDetail(StringBuilder html, String heading, String value) {
+        if (value != null) {
+            html.append("<h3>").append(heading).append("</h3><p class=\"detail\">")
+                .append(escape(value)).append("</p>");
         }
-        
-        // Add footer
-        content.append("\nGenerated on: ")
-               .append(java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")))
-               .append("\n");
-        content.append("Tourism Management System\n");
-        
-        return content.toString().getBytes();
+    }
+    
+    private static String escape(String value) {
+        return value != null ? HtmlUtils.htmlEscape(value) : "";
     }
 }
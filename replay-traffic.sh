@@ -0,0 +1,20 @@
+#!/bin/bash
+
+# Tourism Management System - Replay captured gateway traffic
+#
+# Capture first by starting the gateway with gateway.capture.enabled=true
+# (and optionally gateway.capture.sample-rate), then replay the file:
+#
+#   ./replay-traffic.sh --file api-gateway/captures/gateway-traffic.jsonl --speed 2
+#   ./replay-traffic.sh --file api-gateway/captures/gateway-traffic.jsonl --rate 200 --token "$JWT"
+
+GATEWAY_JAR=$(ls api-gateway/target/api-gateway-*.jar 2>/dev/null | grep -v original | head -n 1)
+
+if [ -z "$GATEWAY_JAR" ]; then
+    echo "❌ Gateway jar not found. Build it first: mvn -pl api-gateway -am package -DskipTests"
+    exit 1
+fi
+
+exec java -cp "$GATEWAY_JAR" \
+    -Dloader.main=com.tourism.gateway.capture.TrafficReplay \
+    org.springframework.boot.loader.PropertiesLauncher "$@"
@@ -0,0 +1,30 @@
+package com.tourism.common.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tours whose itineraries changed after a point in time. {@code asOf} is the
+ * itinerary service's clock when the query ran, to be sent back as the next
+ * {@code since}.
+ */
+public class ItineraryChangesDTO {
+    
+    private List<Long> tourIds = new ArrayList<>();
+    private long asOf;
+    
+    // Constructors
+    public ItineraryChangesDTO() {}
+    
+    public ItineraryChangesDTO(List<Long> tourIds, long asOf) {
+        this.tourIds = tourIds;
+        this.asOf = asOf;
+    }
+    
+    // Getters and Setters
+    public List<Long> getTourIds() { return tourIds; }
+    public void setTourIds(List<Long> tourIds) { this.tourIds = tourIds; }
+    
+    public long getAsOf() { return asOf; }
+    public void setAsOf(long asOf) { this.asOf = asOf; }
+}
@@ -0,0 +1,27 @@
+package com.tourism.common.dto.response;
+
+public class TourItineraryStatsDTO {
+    
+    private Long tourId;
+    private long totalDays;
+    private boolean hasItinerary;
+    
+    // Constructors
+    public TourItineraryStatsDTO() {}
+    
+    public TourItineraryStatsDTO(Long tourId, long totalDays) {
+        this.tourId = tourId;
+        this.totalDays = totalDays;
+        this.hasItinerary = totalDays > 0;
+    }
+    
+    // Getters and Setters
+    public Long getTourId() { return tourId; }
+    public void setTourId(Long tourId) { this.tourId = tourId; }
+    
+    public long getTotalDays() { return totalDays; }
+    public void setTotalDays(long totalDays) { this.totalDays = totalDays; }
+    
+    public boolean isHasItinerary() { return hasItinerary; }
+    public void setHasItinerary(boolean hasItinerary) { this.hasItinerary = hasItinerary; }
+}
@@ -18,6 +18,9 @@ public class TourResponseDTO {
     private int maxCapacity;
     private int availableSlots;
     private java.util.List<com.tourism.common.dto.response.PackageResponseDTO> packages;
+    // Null when the itinerary service could not be reached
+    private Boolean hasItinerary;
+    private Long itineraryDays;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -80,6 +83,12 @@ public class TourResponseDTO {
     public java.util.List<com.tourism.common.dto.response.PackageResponseDTO> getPackages() { return packages; }
     public void setPackages(java.util.List<com.tourism.common.dto.response.PackageResponseDTO> packages) { this.packages = packages; }
     
+    public Boolean getHasItinerary() { return hasItinerary; }
+    public void setHasItinerary(Boolean hasItinerary) { this.hasItinerary = hasItinerary; }
+    
+    public Long getItineraryDays() { return itineraryDays; }
+    public void setItineraryDays(Long itineraryDays) { this.itineraryDays = itineraryDays; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -0,0 +1,143 @@
+package com.tourism.common.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live load and health figures for one service instance.
+ *
+ * All updates are lock-free. Latency is a peak-sensitive EWMA: a slower
+ * sample than the current average is adopted immediately, faster samples
+ * pull it down gradually, so an instance that starts pausing is avoided at
+ * once but has to prove itself before getting traffic back.
+ */
+public class InstanceStats {
+
+    private final LoadBalancerProperties properties;
+    private final double decayNanos;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicInteger ejections = new AtomicInteger();
+
+    // Doubles stored as raw long bits so they can be updated with CAS
+    private final AtomicLong latencyBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong errorRateBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong lastUpdateNanos = new AtomicLong(System.nanoTime());
+
+    private volatile long warmingSinceNanos = System.nanoTime();
+    private volatile long ejectedUntilNanos;
+
+    public InstanceStats(LoadBalancerProperties properties) {
+        this.properties = properties;
+        this.decayNanos = Math.max(1, properties.getDecayTime().toNanos());
+    }
+
+    public void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Record a finished request
+     *
+     * @param latencyNanos time taken, or a negative value when unknown
+     */
+    public void onComplete(long latencyNanos, boolean failed) {
+        outstanding.updateAndGet(current -> Math.max(0, current - 1));
+        requests.incrementAndGet();
+
+        long now = System.nanoTime();
+        double weight = Math.exp(-Math.max(0, now - lastUpdateNanos.getAndSet(now)) / decayNanos);
+        if (latencyNanos >= 0) {
+            updatePeakEwma(latencyBits, latencyNanos, weight);
+        }
+        updateEwma(errorRateBits, failed ? 1.0 : 0.0, weight);
+
+        if (!failed) {
+            consecutiveFailures.set(0);
+            return;
+        }
+        int failures = consecutiveFailures.incrementAndGet();
+        boolean tooManyFailures = failures >= properties.getConsecutiveFailures();
+        boolean errorRateTooHigh = requests.get() >= properties.getMinRequests()
+                && getErrorRate() >= properties.getErrorRateThreshold();
+        if ((tooManyFailures || errorRateTooHigh) && !isEjected(now)) {
+            requestEjection(now);
+        }
+    }
+
+    /**
+     * Cost of sending one more request here: lower is better
+     */
+    public double cost(long nowNanos) {
+        double latency = getLatencyNanos();
+        // Unmeasured instances are assumed fast so they get sampled
+        double base = latency > 0 ? latency : 1.0;
+        return base * (outstanding.get() + 1) / warmUpWeight(nowNanos);
+    }
+
+    /**
+     * Share of full traffic an instance should receive while warming, between 0.1 and 1
+     */
+    public double warmUpWeight(long nowNanos) {
+        long window = properties.getSlowStartWindow().toNanos();
+        if (window <= 0) {
+            return 1.0;
+        }
+        double progress = (nowNanos - warmingSinceNanos) / (double) window;
+        return Math.min(1.0, Math.max(0.1, progress));
+    }
+
+    public boolean isEjected(long nowNanos) {
+        return nowNanos < ejectedUntilNanos;
+    }
+
+    /**
+     * Mark the instance as ejected; the balancer enforces the ejection cap
+     */
+    private void requestEjection(long nowNanos) {
+        int count = ejections.incrementAndGet();
+        long base = properties.getBaseEjectionTime().toNanos();
+        long duration = Math.min(properties.getMaxEjectionTime().toNanos(), base << Math.min(count - 1, 10));
+        ejectedUntilNanos = nowNanos + duration;
+        // Returning instances warm up again and start with a clean error record
+        warmingSinceNanos = ejectedUntilNanos;
+        consecutiveFailures.set(0);
+        errorRateBits.set(Double.doubleToRawLongBits(0.0));
+        requests.set(0);
+    }
+
+    /**
+     * Cancel an ejection the balancer could not honour
+     */
+    void lift() {
+        ejectedUntilNanos = 0;
+    }
+
+    private static void updatePeakEwma(AtomicLong bits, double sample, double weight) {
+        long current;
+        long next;
+        do {
+            current = bits.get();
+            double value = Double.longBitsToDouble(current);
+            double updated = sample > value ? sample : value * weight + sample * (1 - weight);
+            next = Double.doubleToRawLongBits(updated);
+        } while (!bits.compareAndSet(current, next));
+    }
+
+    private static void updateEwma(AtomicLong bits, double sample, double weight) {
+        long current;
+        long next;
+        do {
+            current = bits.get();
+            double value = Double.longBitsToDouble(current);
+            next = Double.doubleToRawLongBits(value * weight + sample * (1 - weight));
+        } while (!bits.compareAndSet(current, next));
+    }
+
+    public int getOutstanding() { return outstanding.get(); }
+    public double getLatencyNanos() { return Double.longBitsToDouble(latencyBits.get()); }
+    public double getErrorRate() { return Double.longBitsToDouble(errorRateBits.get()); }
+    public int getEjections() { return ejections.get(); }
+}
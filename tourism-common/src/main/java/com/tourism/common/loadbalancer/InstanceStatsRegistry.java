@@ -0,0 +1,52 @@
+package com.tourism.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance statistics for every load-balanced service, shared between
+ * the balancers (which read them) and the lifecycle callback (which feeds them).
+ */
+public class InstanceStatsRegistry {
+
+    private final LoadBalancerProperties properties;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, InstanceStats>> services = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(LoadBalancerProperties properties) {
+        this.properties = properties;
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return forService(instance.getServiceId())
+                .computeIfAbsent(key(instance), k -> new InstanceStats(properties));
+    }
+
+    /**
+     * Forget instances that are no longer registered
+     */
+    public void retain(String serviceId, Collection<ServiceInstance> instances) {
+        Map<String, InstanceStats> stats = forService(serviceId);
+        if (stats.size() <= instances.size()) {
+            return;
+        }
+        Set<String> live = instances.stream().map(InstanceStatsRegistry::key).collect(Collectors.toSet());
+        stats.keySet().retainAll(live);
+    }
+
+    public Map<String, InstanceStats> forService(String serviceId) {
+        return services.computeIfAbsent(serviceId.toLowerCase(), id -> new ConcurrentHashMap<>());
+    }
+
+    public Set<String> getServiceIds() {
+        return services.keySet();
+    }
+
+    static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,98 @@
+package com.tourism.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices load balancer.
+ *
+ * Two healthy instances are picked at random and the request goes to the one
+ * with the lower cost, where cost is latency EWMA times outstanding requests,
+ * scaled up while an instance is still warming. Comparing just two random
+ * candidates avoids the herd behaviour of always choosing the global minimum.
+ * Ejected instances are skipped, but never more than the configured share of
+ * the service, and never all of it.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceStatsRegistry registry;
+    private final LoadBalancerProperties properties;
+
+    public LatencyAwareLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    InstanceStatsRegistry registry, LoadBalancerProperties properties) {
+        this.serviceId = serviceId;
+        this.supplierProvider = supplierProvider;
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        registry.retain(serviceId, instances);
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        long now = System.nanoTime();
+        List<ServiceInstance> candidates = healthy(instances, now);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(first));
+        }
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(registry.get(a).cost(now) <= registry.get(b).cost(now) ? a : b);
+    }
+
+    /**
+     * Instances that are not ejected, within the ejection cap
+     */
+    private List<ServiceInstance> healthy(List<ServiceInstance> instances, long now) {
+        int maxEjected = (int) Math.floor(instances.size() * properties.getMaxEjectionPercent() / 100.0);
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        int ejected = 0;
+        for (ServiceInstance instance : instances) {
+            InstanceStats stats = registry.get(instance);
+            if (stats.isEjected(now)) {
+                if (ejected < maxEjected) {
+                    ejected++;
+                    continue;
+                }
+                // Over the cap: this instance has to keep serving
+                stats.lift();
+            }
+            healthy.add(instance);
+        }
+        return healthy.isEmpty() ? instances : healthy;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tourism.common.loadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Replaces round robin with {@link LatencyAwareLoadBalancer} for every
+ * load-balanced client in services that use Spring Cloud LoadBalancer: the
+ * gateway's {@code lb://} routes and Feign clients alike.
+ */
+@AutoConfiguration
+@ConditionalOnClass(ReactorServiceInstanceLoadBalancer.class)
+@ConditionalOnProperty(prefix = "app.loadbalancer", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LatencyAwareLoadBalancerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InstanceStatsRegistry instanceStatsRegistry(LoadBalancerProperties properties) {
+        return new InstanceStatsRegistry(properties);
+    }
+
+    @Bean
+    public LatencyAwareLoadBalancerLifecycle latencyAwareLoadBalancerLifecycle(InstanceStatsRegistry registry) {
+        return new LatencyAwareLoadBalancerLifecycle(registry);
+    }
+}
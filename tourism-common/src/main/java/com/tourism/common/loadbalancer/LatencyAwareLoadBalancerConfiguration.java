@@ -0,0 +1,29 @@
+package com.tourism.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-client load balancer configuration, applied to every service through
+ * {@code @LoadBalancerClients(defaultConfiguration = ...)}.
+ *
+ * Deliberately not annotated with {@code @Configuration}: it must only be
+ * loaded into the load balancer's child contexts, never component-scanned.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(
+            Environment environment,
+            ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+            InstanceStatsRegistry registry,
+            LoadBalancerProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(serviceId, supplierProvider, registry, properties);
+    }
+}
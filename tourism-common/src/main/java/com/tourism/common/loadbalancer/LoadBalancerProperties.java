@@ -0,0 +1,76 @@
+package com.tourism.common.loadbalancer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Latency-aware load balancer settings, bound from {@code app.loadbalancer.*}.
+ */
+@ConfigurationProperties(prefix = "app.loadbalancer")
+public class LoadBalancerProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How quickly the latency and error averages forget old samples
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * Consecutive failures that eject an instance
+     */
+    private int consecutiveFailures = 5;
+
+    /**
+     * Error rate (0-1) that ejects an instance once it has served {@code minRequests}
+     */
+    private double errorRateThreshold = 0.5;
+
+    private int minRequests = 20;
+
+    /**
+     * First ejection lasts this long; repeat ejections double it up to {@code maxEjectionTime}
+     */
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    /**
+     * Never eject more than this share of a service's instances
+     */
+    private double maxEjectionPercent = 50;
+
+    /**
+     * New and returning instances ramp up to full share over this window
+     */
+    private Duration slowStartWindow = Duration.ofSeconds(30);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getDecayTime() { return decayTime; }
+    public void setDecayTime(Duration decayTime) { this.decayTime = decayTime; }
+
+    public int getConsecutiveFailures() { return consecutiveFailures; }
+    public void setConsecutiveFailures(int consecutiveFailures) { this.consecutiveFailures = consecutiveFailures; }
+
+    public double getErrorRateThreshold() { return errorRateThreshold; }
+    public void setErrorRateThreshold(double errorRateThreshold) { this.errorRateThreshold = errorRateThreshold; }
+
+    public int getMinRequests() { return minRequests; }
+    public void setMinRequests(int minRequests) { this.minRequests = minRequests; }
+
+    public Duration getBaseEjectionTime() { return baseEjectionTime; }
+    public void setBaseEjectionTime(Duration baseEjectionTime) { this.baseEjectionTime = baseEjectionTime; }
+
+    public Duration getMaxEjectionTime() { return maxEjectionTime; }
+    public void setMaxEjectionTime(Duration maxEjectionTime) { this.maxEjectionTime = maxEjectionTime; }
+
+    public double getMaxEjectionPercent() { return maxEjectionPercent; }
+    public void setMaxEjectionPercent(double maxEjectionPercent) { this.maxEjectionPercent = maxEjectionPercent; }
+
+    public Duration getSlowStartWindow() { return slowStartWindow; }
+    public void setSlowStartWindow(Duration slowStartWindow) { this.slowStartWindow = slowStartWindow; }
+}
@@ -0,0 +1,17 @@
+package com.tourism.common.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the identity headers the gateway attaches to verified
+ * requests, bound from {@code app.identity.*}.
+ */
+@ConfigurationProperties(prefix = "app.identity")
+public class IdentityHeaderProperties {
+
+    private String secret = "tourismIdentityHeaderSigningSecretThatIsLongEnoughForHmacSha256";
+
+    // Getters and Setters
+    public String getSecret() { return secret; }
+    public void setSecret(String secret) { this.secret = secret; }
+}
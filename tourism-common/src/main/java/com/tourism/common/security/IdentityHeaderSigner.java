@@ -0,0 +1,87 @@
+package com.tourism.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signs and verifies the gateway's identity headers with HMAC-SHA256.
+ *
+ * Verification is a single MAC over four short strings, which is far cheaper
+ * than parsing and verifying the original JWT in every downstream service.
+ */
+public class IdentityHeaderSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public IdentityHeaderSigner(IdentityHeaderProperties properties) {
+        this.key = new SecretKeySpec(properties.getSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Signature for the {@link IdentityHeaders#SIGNATURE} header
+     */
+    public String sign(IdentityHeaders identity) {
+        return sign(
+                String.valueOf(identity.getUserId()),
+                identity.getUsername(),
+                identity.getRole(),
+                String.valueOf(identity.getExpiresAt().getEpochSecond())
+        );
+    }
+
+    /**
+     * Check raw header values and return the identity they assert, or empty if
+     * any header is missing, the signature does not match or the token behind
+     * it has expired
+     */
+    public Optional<IdentityHeaders> verify(String userId, String username, String role,
+                                            String expires, String signature) {
+        if (userId == null || username == null || role == null || expires == null || signature == null) {
+            return Optional.empty();
+        }
+
+        byte[] expected = sign(userId, username, role, expires).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+            return Optional.empty();
+        }
+
+        IdentityHeaders identity;
+        try {
+            identity = new IdentityHeaders(
+                    "null".equals(userId) ? null : Long.valueOf(userId),
+                    username,
+                    role,
+                    Instant.ofEpochSecond(Long.parseLong(expires))
+            );
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        return identity.isExpired() ? Optional.empty() : Optional.of(identity);
+    }
+
+    private String sign(String userId, String username, String role, String expires) {
+        String payload = userId + '\n' + username + '\n' + role + '\n' + expires;
+        byte[] mac = macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tourism.common.security;
+
+import java.time.Instant;
+
+/**
+ * Identity asserted by the gateway for a request whose token it has already
+ * verified. Downstream services check the HMAC signature instead of parsing
+ * the JWT again.
+ */
+public final class IdentityHeaders {
+    
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_NAME = "X-User-Name";
+    public static final String USER_ROLE = "X-User-Role";
+    public static final String TOKEN_EXPIRES = "X-Token-Expires";
+    public static final String SIGNATURE = "X-Identity-Signature";
+    
+    public static final String[] ALL = { USER_ID, USER_NAME, USER_ROLE, TOKEN_EXPIRES, SIGNATURE };
+    
+    private final Long userId;
+    private final String username;
+    private final String role;
+    private final Instant expiresAt;
+    
+    public IdentityHeaders(Long userId, String username, String role, Instant expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+    
+    public static IdentityHeaders from(TokenClaims claims) {
+        return new IdentityHeaders(claims.getUserId(), claims.getSubject(), claims.getRole(), claims.getExpiresAt());
+    }
+    
+    public boolean isExpired() {
+        return expiresAt == null || !expiresAt.isAfter(Instant.now());
+    }
+    
+    // Getters
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getRole() { return role; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,41 @@
+package com.tourism.common.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of the claims carried by a verified access token.
+ */
+public final class TokenClaims {
+    
+    private final String subject;
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final String keyId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    
+    public TokenClaims(String subject, Long userId, String email, String role,
+                       String keyId, Instant issuedAt, Instant expiresAt) {
+        this.subject = subject;
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.keyId = keyId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    public boolean isExpired() {
+        return expiresAt != null && !expiresAt.isAfter(Instant.now());
+    }
+    
+    // Getters
+    public String getSubject() { return subject; }
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public String getKeyId() { return keyId; }
+    public Instant getIssuedAt() { return issuedAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,210 @@
+package com.tourism.common.security;
+
+import com.tourism.common.exception.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single JWT implementation shared by the core service, the itinerary service
+ * and the gateway.
+ *
+ * Signing keys and the parser are built once at construction time. The key
+ * used to verify a token is picked from its {@code kid} header, so older keys
+ * can stay valid for verification while new tokens use the active key.
+ * Verified claims are cached per token until they expire, which makes repeated
+ * checks of the same token a map lookup.
+ */
+public class TokenCodec {
+
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLE = "role";
+
+    private final String activeKeyId;
+    private final SecretKey activeKey;
+    private final Map<String, SecretKey> verificationKeys;
+    private final long expirationMillis;
+    private final JwtParser parser;
+    private final int claimsCacheSize;
+    private final ConcurrentHashMap<String, TokenClaims> claimsCache = new ConcurrentHashMap<>();
+
+    public TokenCodec(TokenCodecProperties properties) {
+        this.activeKeyId = properties.getKeyId();
+        this.activeKey = toKey(properties.getSecret());
+        this.expirationMillis = properties.getExpiration();
+        this.claimsCacheSize = Math.max(0, properties.getClaimsCacheSize());
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        properties.getPreviousKeys().forEach((kid, secret) -> keys.put(kid, toKey(secret)));
+        keys.put(activeKeyId, activeKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Issue a signed token for the given user
+     */
+    public String generateToken(String subject, Long userId, String email, String role) {
+        long now = System.currentTimeMillis();
+
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setSubject(subject)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_EMAIL, email)
+                .claim(CLAIM_ROLE, role)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMillis))
+                .signWith(activeKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Verify a token and return its claims
+     *
+     * @throws InvalidTokenException if the token is malformed, unsigned, signed
+     *         with an unknown key, expired or has no expiry
+     */
+    public TokenClaims parse(String token) {
+        if (token == null || token.isBlank()) {
+            throw new InvalidTokenException("Token is empty");
+        }
+
+        TokenClaims cached = claimsCache.get(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            claimsCache.remove(token);
+            throw new InvalidTokenException("Token is expired");
+        }
+
+        TokenClaims claims;
+        try {
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            claims = toTokenClaims(jws);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token: " + e.getMessage(), e);
+        }
+
+        cache(token, claims);
+        return claims;
+    }
+
+    /**
+     * Verify a token, returning empty instead of throwing when it is not valid
+     */
+    public Optional<TokenClaims> tryParse(String token) {
+        try {
+            return Optional.of(parse(token));
+        } catch (InvalidTokenException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isValid(String token) {
+        return tryParse(token).isPresent();
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    private Key resolveKey(String keyId) {
+        // Tokens issued before key ids were introduced carry no kid header
+        if (keyId == null) {
+            return activeKey;
+        }
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new InvalidTokenException("Unknown signing key: " + keyId);
+        }
+        return key;
+    }
+
+    private TokenClaims toTokenClaims(Jws<Claims> jws) {
+        Claims body = jws.getBody();
+        // Every token we issue expires; one that never does would also stay cached forever
+        if (body.getExpiration() == null) {
+            throw new InvalidTokenException("Token has no expiry");
+        }
+        return new TokenClaims(
+                body.getSubject(),
+                body.get(CLAIM_USER_ID, Long.class),
+                body.get(CLAIM_EMAIL, String.class),
+                body.get(CLAIM_ROLE, String.class),
+                jws.getHeader().getKeyId(),
+                body.getIssuedAt() != null ? body.getIssuedAt().toInstant() : null,
+                body.getExpiration().toInstant()
+        );
+    }
+
+    private void cache(String token, TokenClaims claims) {
+        if (claimsCacheSize == 0) {
+            return;
+        }
+        if (claimsCache.size() >= claimsCacheSize) {
+            evict();
+        }
+        claimsCache.put(token, claims);
+    }
+
+    /**
+     * Drop expired entries first; if the cache is still full, drop the tenth
+     * that expires soonest, as those have the least use left. Cheaper than LRU
+     * bookkeeping on every read.
+     */
+    private synchronized void evict() {
+        if (claimsCache.size() < claimsCacheSize) {
+            // Another thread evicted while this one waited
+            return;
+        }
+        Instant now = Instant.now();
+        claimsCache.values().removeIf(c -> !c.getExpiresAt().isAfter(now));
+
+        int excess = claimsCache.size() - claimsCacheSize + Math.max(1, claimsCacheSize / 10);
+        if (excess <= 0) {
+            return;
+        }
+        claimsCache.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.comparing(TokenClaims::getExpiresAt)))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(claimsCache::remove);
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,28 @@
+package com.tourism.common.security;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers the shared {@link TokenCodec} and {@link IdentityHeaderSigner} in
+ * every service that depends on tourism-common, without requiring component
+ * scanning of this module.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties({ TokenCodecProperties.class, IdentityHeaderProperties.class })
+public class TokenCodecAutoConfiguration {
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenCodec tokenCodec(TokenCodecProperties properties) {
+        return new TokenCodec(properties);
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public IdentityHeaderSigner identityHeaderSigner(IdentityHeaderProperties properties) {
+        return new IdentityHeaderSigner(properties);
+    }
+}
@@ -0,0 +1,43 @@
+package com.tourism.common.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token settings shared by every service, bound from {@code app.jwt.*}.
+ *
+ * New tokens are always signed with {@code secret} under {@code key-id}.
+ * Keys listed in {@code previous-keys} are only used for verification, so a
+ * secret can be rotated without invalidating tokens that are still live.
+ */
+@ConfigurationProperties(prefix = "app.jwt")
+public class TokenCodecProperties {
+
+    private String secret = "tourismSecretKeyThatIsVeryLongAndSecureForJWTTokenGeneration";
+
+    private String keyId = "default";
+
+    private long expiration = 86400000; // 24 hours in milliseconds
+
+    private Map<String, String> previousKeys = new LinkedHashMap<>();
+
+    private int claimsCacheSize = 10000;
+
+    // Getters and Setters
+    public String getSecret() { return secret; }
+    public void setSecret(String secret) { this.secret = secret; }
+
+    public String getKeyId() { return keyId; }
+    public void setKeyId(String keyId) { this.keyId = keyId; }
+
+    public long getExpiration() { return expiration; }
+    public void setExpiration(long expiration) { this.expiration = expiration; }
+
+    public Map<String, String> getPreviousKeys() { return previousKeys; }
+    public void setPreviousKeys(Map<String, String> previousKeys) { this.previousKeys = previousKeys; }
+
+    public int getClaimsCacheSize() { return claimsCacheSize; }
+    public void setClaimsCacheSize(int claimsCacheSize) { this.claimsCacheSize = claimsCacheSize; }
+}
@@ -0,0 +1,215 @@
+package com.tourism.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a Feign client's calls on a dedicated, bounded pool so a slow
+ * downstream service can tie up at most that pool, not the request threads.
+ *
+ * When the pool and its queue are full the call fails immediately with an
+ * {@link IOException}. Each call is also given its method's read timeout, and
+ * the caller stops waiting once connect plus read timeout has passed,
+ * including time spent queued.
+ */
+public class BulkheadCapability implements Capability, DisposableBean {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Duration> methodTimeouts;
+
+    private final Counter rejected;
+    private final Counter timedOut;
+    private final Timer queueWait;
+
+    public BulkheadCapability(String name, int maxConcurrentCalls, int queueCapacity,
+                              Map<String, Duration> methodTimeouts, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.methodTimeouts = methodTimeouts;
+
+        int threads = Math.max(1, maxConcurrentCalls);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, name + "-call-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("feign.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("client", name)
+                .description("Calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("feign.bulkhead.queued", executor, pool -> pool.getQueue().size())
+                .tag("client", name)
+                .description("Calls waiting for a free slot")
+                .register(meterRegistry);
+        Gauge.builder("feign.bulkhead.max", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .tag("client", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("feign.bulkhead.rejected")
+                .tag("client", name)
+                .description("Calls refused because the bulkhead was full")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("feign.bulkhead.timeouts")
+                .tag("client", name)
+                .description("Calls abandoned after their time budget")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("feign.bulkhead.wait")
+                .tag("client", name)
+                .description("Time calls spent queued before running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> execute(client, request, options);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        Request.Options effective = optionsFor(request, options);
+        long submittedAt = System.nanoTime();
+
+        // Whoever sets this first owns the response: the caller by receiving it, or the
+        // pool thread by closing it because the caller has already given up
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<Response> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                Response response = client.execute(request, effective);
+                if (!claimed.compareAndSet(false, true)) {
+                    // Socket reads ignore interrupts, so late responses still arrive; release their connection
+                    response.close();
+                    return null;
+                }
+                return response;
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new IOException("Too many concurrent calls to " + name);
+        }
+
+        long budgetMillis = effective.connectTimeoutMillis() + effective.readTimeoutMillis();
+        try {
+            return future.get(budgetMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(true);
+                timedOut.increment();
+                throw new SocketTimeoutException("Call to " + name + " took longer than " + budgetMillis + " ms");
+            }
+            // The response was claimed while timing out; hand it over rather than leak its connection
+            return completed(future);
+        } catch (InterruptedException e) {
+            if (!claimed.compareAndSet(false, true)) {
+                closeQuietly(future);
+            }
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling " + name);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private Request.Options optionsFor(Request request, Request.Options options) {
+        Duration readTimeout = methodTimeouts.get(methodName(request));
+        if (readTimeout == null) {
+            return options;
+        }
+        return new Request.Options(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                readTimeout.toMillis(), TimeUnit.MILLISECONDS, options.isFollowRedirects());
+    }
+
+    /**
+     * Client method name from a config key such as {@code ItineraryServiceClient#getChangedTours(long)}
+     */
+    private static String methodName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.methodMetadata() == null) {
+            return null;
+        }
+        String configKey = template.methodMetadata().configKey();
+        int start = configKey.indexOf('#');
+        int end = configKey.indexOf('(', start);
+        return start >= 0 && end > start ? configKey.substring(start + 1, end) : null;
+    }
+
+    private static Response completed(Future<Response> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while collecting response");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Close a delivered response the caller will no longer read
+     */
+    private static void closeQuietly(Future<Response> future) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            Response response = future.get();
+            if (response != null) {
+                response.close();
+            }
+        } catch (InterruptedException | ExecutionException | RuntimeException ignored) {
+            // Nothing was delivered, so there is nothing to release
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(cause);
+    }
+}
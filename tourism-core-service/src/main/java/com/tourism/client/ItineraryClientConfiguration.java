@@ -0,0 +1,18 @@
+package com.tourism.client;
+
+import com.tourism.core.config.ItineraryClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration of {@link ItineraryServiceClient} only. Kept outside
+ * the component-scanned packages so it does not apply to other clients.
+ */
+public class ItineraryClientConfiguration {
+
+    @Bean
+    public BulkheadCapability itineraryBulkhead(ItineraryClientProperties properties, MeterRegistry meterRegistry) {
+        return new BulkheadCapability("itinerary-service", properties.getMaxConcurrentCalls(),
+                properties.getQueueCapacity(), properties.getMethodTimeouts(), meterRegistry);
+    }
+}
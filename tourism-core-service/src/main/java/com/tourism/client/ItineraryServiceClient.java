@@ -1,9 +1,12 @@
 package com.tourism.client;
 
 import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.common.dto.response.ItineraryChangesDTO;
+import com.tourism.common.dto.response.TourItineraryStatsDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -11,7 +14,7 @@ import io.github.resilience4j.retry.annotation.Retry;
 import java.util.List;
 import java.util.Map;
 
-@FeignClient(name = "itinerary-service")
+@FeignClient(name = "itinerary-service", configuration = ItineraryClientConfiguration.class)
 public interface ItineraryServiceClient {
     
     @GetMapping("/api/itineraries/tour/{tourId}")
@@ -24,6 +27,15 @@ public interface ItineraryServiceClient {
     @Retry(name = "itinerary-service")
     ApiResponse<Map<String, Object>> getTourItineraryStats(@PathVariable Long tourId);
     
+    @GetMapping("/api/itineraries/tour/stats")
+    @CircuitBreaker(name = "itinerary-service", fallbackMethod = "getStatsBatchFallback")
+    @Retry(name = "itinerary-service")
+    ApiResponse<List<TourItineraryStatsDTO>> getToursItineraryStats(@RequestParam("tourIds") List<Long> tourIds);
+    
+    @GetMapping("/api/itineraries/tour/changes")
+    @CircuitBreaker(name = "itinerary-service", fallbackMethod = "getChangesFallback")
+    ApiResponse<ItineraryChangesDTO> getChangedTours(@RequestParam("since") long since);
+    
     // Fallback methods
     default ApiResponse<List<Object>> getItinerariesFallback(Long tourId, Exception ex) {
         return ApiResponse.error("Itinerary service is currently unavailable. Please try again later.");
@@ -32,4 +44,12 @@ public interface ItineraryServiceClient {
     default ApiResponse<Map<String, Object>> getStatsFallback(Long tourId, Exception ex) {
         return ApiResponse.error("Itinerary statistics service is currently unavailable.");
     }
+    
+    default ApiResponse<List<TourItineraryStatsDTO>> getStatsBatchFallback(List<Long> tourIds, Exception ex) {
+        return ApiResponse.error("Itinerary statistics service is currently unavailable.");
+    }
+    
+    default ApiResponse<ItineraryChangesDTO> getChangesFallback(long since, Exception ex) {
+        return ApiResponse.error("Itinerary service is currently unavailable.");
+    }
 }
@@ -0,0 +1,86 @@
+package com.tourism.core.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks public catalogue reads as cacheable so the gateway's response cache
+ * can keep them. Without an explicit header Spring Security would send
+ * "no-store" on every response. Error responses on the same paths, such as
+ * the 404 for an unknown tour, are sent with "no-store" instead.
+ */
+@Configuration
+public class CatalogCacheConfig {
+
+    private static final String NO_STORE = CacheControl.noStore().getHeaderValue();
+
+    @Value("${app.catalog.cache-max-age-seconds:30}")
+    private long cacheMaxAgeSeconds;
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> catalogCacheFilter() {
+        String cacheControl = CacheControl.maxAge(cacheMaxAgeSeconds, TimeUnit.SECONDS)
+                .cachePublic()
+                .getHeaderValue();
+
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                if (!"GET".equals(request.getMethod())) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+                chain.doFilter(request, new ErrorsNotCachedResponse(response));
+            }
+        };
+
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/v1/tours", "/api/v1/tours/*", "/api/v1/packages", "/api/v1/packages/*");
+        return registration;
+    }
+
+    /**
+     * Replaces the public Cache-Control with "no-store" once an error status is set
+     */
+    private static class ErrorsNotCachedResponse extends HttpServletResponseWrapper {
+
+        ErrorsNotCachedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setStatus(int status) {
+            super.setStatus(status);
+            if (status >= 400) {
+                setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+            }
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+            super.sendError(status, message);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tourism.core.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Calls to the itinerary service, bound from {@code app.itinerary-client.*}.
+ *
+ * Connection pooling, compression and the default timeouts are configured
+ * under {@code spring.cloud.openfeign}; these settings cover the bulkhead and
+ * the per-method read timeouts.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.itinerary-client")
+public class ItineraryClientProperties {
+
+    /**
+     * Calls in flight at once
+     */
+    private int maxConcurrentCalls = 20;
+
+    /**
+     * Calls waiting for a free slot before new ones are rejected
+     */
+    private int queueCapacity = 50;
+
+    /**
+     * Read timeouts keyed by client method name, overriding the client's default
+     */
+    private Map<String, Duration> methodTimeouts = new HashMap<>();
+
+    // Getters and Setters
+    public int getMaxConcurrentCalls() { return maxConcurrentCalls; }
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Map<String, Duration> getMethodTimeouts() { return methodTimeouts; }
+    public void setMethodTimeouts(Map<String, Duration> methodTimeouts) { this.methodTimeouts = methodTimeouts; }
+}
@@ -0,0 +1,19 @@
+package com.tourism.core.exception;
+
+/**
+ * Exception thrown when the password hashing pool is saturated and an
+ * authentication request has to be shed.
+ */
+public class AuthenticationThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AuthenticationThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
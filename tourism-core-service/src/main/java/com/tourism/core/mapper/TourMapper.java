@@ -24,6 +24,8 @@ public interface TourMapper {
     @Mapping(target = "availableSlots", expression = "java(calculateAvailableSlots(tour))")
     @Mapping(target = "itinerary", constant = "")
     @Mapping(target = "packages", ignore = true)
+    @Mapping(target = "hasItinerary", ignore = true)
+    @Mapping(target = "itineraryDays", ignore = true)
     TourResponseDTO toResponseDTO(Tour tour);
     
     @Mapping(target = "id", ignore = true)
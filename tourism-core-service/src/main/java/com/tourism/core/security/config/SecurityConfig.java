@@ -1,9 +1,11 @@
 package com.tourism.core.security.config;
 
+import com.tourism.core.security.crypto.BoundedPasswordEncoder;
 import com.tourism.core.security.jwt.JwtAuthenticationEntryPoint;
 import com.tourism.core.security.jwt.JwtAuthenticationFilter;
 import com.tourism.core.security.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,7 +17,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -39,6 +40,18 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+    
+    @Value("${app.security.password.pool-size:0}") // 0 = one worker per CPU core
+    private int hashingPoolSize;
+    
+    @Value("${app.security.password.queue-capacity:64}")
+    private int hashingQueueCapacity;
+    
+    @Value("${app.security.password.timeout-ms:5000}")
+    private long hashingTimeoutMs;
+    
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
         return new JwtAuthenticationFilter();
@@ -46,7 +59,7 @@ public class SecurityConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(bcryptStrength, hashingPoolSize, hashingQueueCapacity, hashingTimeoutMs);
     }
     
     @Bean
@@ -54,6 +67,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
     
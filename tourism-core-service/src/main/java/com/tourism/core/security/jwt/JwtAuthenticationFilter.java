@@ -1,5 +1,9 @@
 package com.tourism.core.security.jwt;
 
+import com.tourism.common.security.IdentityHeaderSigner;
+import com.tourism.common.security.IdentityHeaders;
+import com.tourism.common.security.TokenClaims;
+import com.tourism.core.security.service.CustomUserDetailsService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,13 +12,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.lang.NonNull;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter that processes JWT tokens in requests
@@ -25,7 +29,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
+    
+    @Autowired
+    private IdentityHeaderSigner identityHeaderSigner;
     
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -33,12 +40,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
         
         try {
-            String jwt = getJwtFromRequest(request);
+            UserDetails userDetails = null;
             
-            if (StringUtils.hasText(jwt) && jwtUtils.validateToken(jwt)) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Requests routed through the gateway carry an identity it has already
+            // verified; checking its HMAC is much cheaper than parsing the JWT again
+            Optional<IdentityHeaders> identity = getIdentityFromRequest(request);
+            if (identity.isPresent() && identity.get().getUserId() != null) {
+                userDetails = userDetailsService.loadUserById(identity.get().getUserId());
+            } else {
+                String jwt = getJwtFromRequest(request);
+                Optional<TokenClaims> claims = StringUtils.hasText(jwt) ? jwtUtils.parseToken(jwt) : Optional.empty();
+                if (claims.isPresent()) {
+                    userDetails = userDetailsService.loadUserByUsername(claims.get().getSubject());
+                }
+            }
+            
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -52,6 +69,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Extract the gateway-signed identity, if present and valid
+     */
+    private Optional<IdentityHeaders> getIdentityFromRequest(HttpServletRequest request) {
+        return identityHeaderSigner.verify(
+            request.getHeader(IdentityHeaders.USER_ID),
+            request.getHeader(IdentityHeaders.USER_NAME),
+            request.getHeader(IdentityHeaders.USER_ROLE),
+            request.getHeader(IdentityHeaders.TOKEN_EXPIRES),
+            request.getHeader(IdentityHeaders.SIGNATURE)
+        );
+    }
+    
     /**
      * Extract JWT token from Authorization header
      */
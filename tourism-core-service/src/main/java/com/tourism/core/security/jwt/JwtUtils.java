@@ -1,27 +1,34 @@
 package com.tourism.core.security.jwt;
 
 import com.tourism.common.enums.UserRole;
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import com.tourism.common.exception.InvalidTokenException;
+import com.tourism.common.security.TokenClaims;
+import com.tourism.common.security.TokenCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
 
 /**
- * JWT utility class for token generation, validation, and extraction
+ * JWT utility class for token generation, validation, and extraction.
+ * Delegates to the shared {@link TokenCodec} so that every service signs and
+ * verifies tokens the same way.
  */
 @Component
 public class JwtUtils {
-    
-    @Value("${app.jwt.secret:tourismSecretKeyThatIsVeryLongAndSecureForJWTTokenGeneration}")
-    private String jwtSecret;
-    
-    @Value("${app.jwt.expiration:86400000}") // 24 hours in milliseconds
-    private long jwtExpiration;
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+
+    private final TokenCodec tokenCodec;
+
+    public JwtUtils(TokenCodec tokenCodec) {
+        this.tokenCodec = tokenCodec;
+    }
+
     /**
      * Generate JWT token from user authentication
      */
@@ -29,118 +36,78 @@ public class JwtUtils {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         return generateTokenFromUserDetails(userPrincipal);
     }
-    
+
     /**
      * Generate JWT token from user details
      */
     public String generateTokenFromUserDetails(UserPrincipal userPrincipal) {
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpiration);
-        
-        return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .claim("userId", userPrincipal.getId())
-                .claim("email", userPrincipal.getEmail())
-                .claim("role", userPrincipal.getRole().name())
-                .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return tokenCodec.generateToken(
+                userPrincipal.getUsername(),
+                userPrincipal.getId(),
+                userPrincipal.getEmail(),
+                userPrincipal.getRole().name()
+        );
+    }
+
+    /**
+     * Verify a token once and return all of its claims
+     */
+    public Optional<TokenClaims> parseToken(String token) {
+        try {
+            return Optional.of(tokenCodec.parse(token));
+        } catch (InvalidTokenException e) {
+            logger.debug("Rejected JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
-    
+
     /**
      * Get username from JWT token
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getSubject();
+        return tokenCodec.parse(token).getSubject();
     }
-    
+
     /**
      * Get user ID from JWT token
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("userId", Long.class);
+        return tokenCodec.parse(token).getUserId();
     }
-    
+
     /**
      * Get user role from JWT token
      */
     public UserRole getUserRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        String role = claims.get("role", String.class);
-        return UserRole.valueOf(role);
+        return UserRole.valueOf(tokenCodec.parse(token).getRole());
     }
-    
+
     /**
-     * Get expiration date from JWT token
+     * Get expiration date from JWT token, or null if it has none
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getExpiration();
+        Instant expiresAt = tokenCodec.parse(token).getExpiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
-    
+
     /**
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
-        } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
-        }
-        return false;
+        return parseToken(token).isPresent();
     }
-    
+
     /**
      * Check if JWT token is expired
      */
     public boolean isTokenExpired(String token) {
-        Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-    
-    /**
-     * Get signing key for JWT
-     */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return parseToken(token).map(TokenClaims::isExpired).orElse(true);
     }
-    
+
     /**
      * Get JWT expiration time
      */
     public long getJwtExpiration() {
-        return jwtExpiration;
+        return tokenCodec.getExpirationMillis();
     }
 }
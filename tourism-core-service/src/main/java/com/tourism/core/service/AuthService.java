@@ -89,16 +89,13 @@ public class AuthService {
         
         User savedUser = userRepository.save(user);
         
-        // Authenticate the newly registered user
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                registerRequest.getUsername(),
-                registerRequest.getPassword()
-            )
+        // Issue the token straight from the saved user; re-authenticating would
+        // pay for a second BCrypt round on a password we just hashed
+        UserPrincipal userPrincipal = UserPrincipal.create(savedUser);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities())
         );
-        
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateToken(authentication);
+        String jwt = jwtUtils.generateTokenFromUserDetails(userPrincipal);
         
         return new AuthResponse(
             jwt,
@@ -0,0 +1,189 @@
+package com.tourism.core.service;
+
+import com.tourism.client.ItineraryServiceClient;
+import com.tourism.common.dto.response.ApiResponse;
+import com.tourism.common.dto.response.ItineraryChangesDTO;
+import com.tourism.common.dto.response.TourItineraryStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Itinerary statistics per tour, kept locally so tour listings need no
+ * per-tour call to the itinerary service.
+ *
+ * Misses are loaded together through the batch stats endpoint. Entries are
+ * evicted when the itinerary service's change feed lists their tour, and
+ * expire after a TTL in case the feed could not be read. A load that raced
+ * with the eviction of one of its tours does not cache that tour, while the
+ * rest of the batch is still cached. When the itinerary service is down,
+ * tours that are not cached simply have no statistics.
+ */
+@Component
+public class ItineraryStatsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ItineraryStatsCache.class);
+
+    // Keeps each stats request within the itinerary service's batch limit
+    private static final int BATCH_SIZE = 500;
+
+    // Evictions remembered individually before they are folded into the horizon
+    private static final int MAX_TRACKED_EVICTIONS = 10_000;
+
+    private final ItineraryServiceClient itineraryServiceClient;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Orders evictions against loads: a load may cache a tour only if it was not evicted after the load began
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> evictedAt = new ConcurrentHashMap<>();
+    // Evictions at or before this point are no longer tracked per tour, so loads begun before it cache nothing
+    private volatile long horizon;
+    private volatile long changesAsOf = -1;
+
+    @Value("${app.itinerary-stats.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.itinerary-stats.poll-overlap-ms:5000}")
+    private long pollOverlapMillis;
+
+    public ItineraryStatsCache(ItineraryServiceClient itineraryServiceClient) {
+        this.itineraryServiceClient = itineraryServiceClient;
+    }
+
+    /**
+     * Statistics of one tour, or null when they cannot be obtained
+     */
+    public TourItineraryStatsDTO get(Long tourId) {
+        return getAll(List.of(tourId)).get(tourId);
+    }
+
+    /**
+     * Statistics of the given tours; tours the itinerary service could not answer for are absent
+     */
+    public Map<Long, TourItineraryStatsDTO> getAll(Collection<Long> tourIds) {
+        Map<Long, TourItineraryStatsDTO> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        for (Long tourId : tourIds) {
+            if (tourId == null) {
+                continue;
+            }
+            Entry entry = entries.get(tourId);
+            if (entry != null && entry.expiresAt > now) {
+                result.put(tourId, entry.stats);
+            } else {
+                missing.add(tourId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            result.putAll(load(new ArrayList<>(missing)));
+        }
+        return result;
+    }
+
+    /**
+     * Drop cached statistics of the given tours
+     */
+    public void invalidate(Collection<Long> tourIds) {
+        for (Long tourId : tourIds) {
+            // Recorded before removing, so a load storing concurrently either sees it or is undone by the removal
+            evictedAt.put(tourId, sequence.incrementAndGet());
+            entries.remove(tourId);
+        }
+        if (evictedAt.size() > MAX_TRACKED_EVICTIONS) {
+            horizon = sequence.get();
+            evictedAt.clear();
+        }
+    }
+
+    public void invalidateAll() {
+        horizon = sequence.incrementAndGet();
+        evictedAt.clear();
+        entries.clear();
+    }
+
+    /**
+     * Evict tours listed by the itinerary service's change feed since the last poll
+     */
+    @Scheduled(fixedDelayString = "${app.itinerary-stats.poll-interval-ms:10000}")
+    public void pollChanges() {
+        // Overlap the previous window so writes committed around its end are not missed
+        long since = changesAsOf < 0 ? System.currentTimeMillis() : changesAsOf;
+        try {
+            ApiResponse<ItineraryChangesDTO> response = itineraryServiceClient.getChangedTours(since - pollOverlapMillis);
+            if (!response.isSuccess() || response.getData() == null) {
+                return;
+            }
+            ItineraryChangesDTO changes = response.getData();
+            if (!changes.getTourIds().isEmpty()) {
+                invalidate(changes.getTourIds());
+                log.debug("Evicted itinerary stats of {} changed tours", changes.getTourIds().size());
+            }
+            changesAsOf = changes.getAsOf();
+        } catch (RuntimeException e) {
+            log.debug("Could not read itinerary changes: {}", e.getMessage());
+        }
+    }
+
+    private Map<Long, TourItineraryStatsDTO> load(List<Long> tourIds) {
+        Map<Long, TourItineraryStatsDTO> loaded = new HashMap<>();
+        long started = sequence.get();
+
+        for (int from = 0; from < tourIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = tourIds.subList(from, Math.min(from + BATCH_SIZE, tourIds.size()));
+            try {
+                ApiResponse<List<TourItineraryStatsDTO>> response = itineraryServiceClient.getToursItineraryStats(batch);
+                if (!response.isSuccess() || response.getData() == null) {
+                    log.debug("Itinerary stats unavailable: {}", response.getMessage());
+                    break;
+                }
+                for (TourItineraryStatsDTO stats : response.getData()) {
+                    loaded.put(stats.getTourId(), stats);
+                }
+            } catch (RuntimeException e) {
+                log.debug("Could not fetch itinerary stats for {} tours: {}", batch.size(), e.getMessage());
+                break;
+            }
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        loaded.forEach((tourId, stats) -> {
+            if (!unchangedSince(tourId, started)) {
+                return;
+            }
+            Entry entry = new Entry(stats, expiresAt);
+            entries.put(tourId, entry);
+            if (!unchangedSince(tourId, started)) {
+                entries.remove(tourId, entry);
+            }
+        });
+        return loaded;
+    }
+
+    private boolean unchangedSince(Long tourId, long started) {
+        return started >= horizon && evictedAt.getOrDefault(tourId, 0L) <= started;
+    }
+
+    private static class Entry {
+        private final TourItineraryStatsDTO stats;
+        private final long expiresAt;
+
+        Entry(TourItineraryStatsDTO stats, long expiresAt) {
+            this.stats = stats;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
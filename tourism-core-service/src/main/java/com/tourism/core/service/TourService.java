@@ -2,6 +2,7 @@ package com.tourism.core.service;
 
 import com.tourism.common.dto.request.TourCreateRequest;
 import com.tourism.common.dto.request.TourUpdateRequest;
+import com.tourism.common.dto.response.TourItineraryStatsDTO;
 import com.tourism.common.dto.response.TourResponseDTO;
 import com.tourism.common.exception.ResourceNotFoundException;
 import com.tourism.common.exception.BusinessLogicException;
@@ -9,7 +10,6 @@ import com.tourism.core.entity.Tour;
 import com.tourism.core.repository.TourRepository;
 import com.tourism.core.mapper.TourMapper;
 import com.tourism.common.enums.TourStatus;
-// import com.tourism.client.ItineraryServiceClient; // Temporarily disabled
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,7 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
- 
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,13 +27,14 @@ public class TourService {
     private final TourRepository tourRepository;
     private final TourMapper tourMapper;
     private final com.tourism.core.repository.PackageRepository packageRepository;
-    // private final ItineraryServiceClient itineraryServiceClient; // Temporarily disabled
+    private final ItineraryStatsCache itineraryStatsCache;
     
-    public TourService(TourRepository tourRepository, TourMapper tourMapper, com.tourism.core.repository.PackageRepository packageRepository) {
+    public TourService(TourRepository tourRepository, TourMapper tourMapper, com.tourism.core.repository.PackageRepository packageRepository,
+                       ItineraryStatsCache itineraryStatsCache) {
         this.tourRepository = tourRepository;
         this.tourMapper = tourMapper;
         this.packageRepository = packageRepository;
-        // this.itineraryServiceClient = itineraryServiceClient; // Temporarily disabled
+        this.itineraryStatsCache = itineraryStatsCache;
     }
     
     /**
@@ -110,6 +111,7 @@ public class TourService {
         } catch (Exception e) {
             // non-fatal
         }
+        attachItineraryStats(List.of(dto));
         return dto;
     }
     
@@ -134,7 +136,7 @@ public class TourService {
             tours = tourRepository.findAll(pageable);
         }
         
-        return tours.map(t -> {
+        Page<TourResponseDTO> page = tours.map(t -> {
             TourResponseDTO dto = tourMapper.toResponseDTO(t);
             // Attach packages for each tour (lightweight mapping)
             try {
@@ -159,6 +161,8 @@ public class TourService {
             } catch (Exception ignored) {}
             return dto;
         });
+        attachItineraryStats(page.getContent());
+        return page;
     }
     
     /**
@@ -168,10 +172,10 @@ public class TourService {
     public List<TourResponseDTO> searchTours(String query, int limit) {
         List<Tour> tours = tourRepository.searchTours(query);
         
-        return tours.stream()
+        return attachItineraryStats(tours.stream()
                 .limit(limit)
                 .map(tourMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
@@ -180,9 +184,9 @@ public class TourService {
     @Transactional(readOnly = true)
     public List<TourResponseDTO> getToursByDestination(String destination) {
         List<Tour> tours = tourRepository.findByDestinationContainingIgnoreCaseAndStatus(destination, TourStatus.ACTIVE);
-        return tours.stream()
+        return attachItineraryStats(tours.stream()
                 .map(tourMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
@@ -191,10 +195,10 @@ public class TourService {
     @Transactional(readOnly = true)
     public List<TourResponseDTO> getAvailableTours() {
         List<Tour> tours = tourRepository.findByStatus(TourStatus.ACTIVE);
-        return tours.stream()
+        return attachItineraryStats(tours.stream()
                 .filter(tour -> tour.getStartDate().isAfter(LocalDate.now()))
                 .map(tourMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
@@ -206,20 +210,7 @@ public class TourService {
                 .orElseThrow(() -> new ResourceNotFoundException("Tour not found with id: " + id));
         
         TourResponseDTO tourResponse = tourMapper.toResponseDTO(tour);
-        
-        // Fetch itinerary statistics from itinerary service - temporarily disabled
-        /*
-        try {
-            ApiResponse<Map<String, Object>> statsResponse = itineraryServiceClient.getTourItineraryStats(id);
-            if (statsResponse.isSuccess() && statsResponse.getData() != null) {
-                Map<String, Object> stats = statsResponse.getData();
-                System.out.println("Tour " + id + " has itinerary with " + stats.get("totalDays") + " days");
-            }
-        } catch (Exception e) {
-            System.err.println("Could not fetch itinerary stats for tour " + id + ": " + e.getMessage());
-        }
-        */
-        
+        attachItineraryStats(List.of(tourResponse));
         return tourResponse;
     }
     
@@ -228,18 +219,27 @@ public class TourService {
      */
     @Transactional(readOnly = true)
     public boolean tourHasItinerary(Long tourId) {
-        // Temporarily disabled until itinerary service integration
-        /*
-        try {
-            ApiResponse<Map<String, Object>> statsResponse = itineraryServiceClient.getTourItineraryStats(tourId);
-            if (statsResponse.isSuccess() && statsResponse.getData() != null) {
-                return (Boolean) statsResponse.getData().getOrDefault("hasItinerary", false);
+        TourItineraryStatsDTO stats = itineraryStatsCache.get(tourId);
+        return stats != null && stats.isHasItinerary();
+    }
+    
+    /**
+     * Fill in itinerary statistics from the cache, without a remote call per tour
+     */
+    private List<TourResponseDTO> attachItineraryStats(List<TourResponseDTO> tours) {
+        if (tours.isEmpty()) {
+            return tours;
+        }
+        Map<Long, TourItineraryStatsDTO> stats = itineraryStatsCache.getAll(
+                tours.stream().map(TourResponseDTO::getTourId).collect(Collectors.toList()));
+        for (TourResponseDTO tour : tours) {
+            TourItineraryStatsDTO tourStats = stats.get(tour.getTourId());
+            if (tourStats != null) {
+                tour.setHasItinerary(tourStats.isHasItinerary());
+                tour.setItineraryDays(tourStats.getTotalDays());
             }
-        } catch (Exception e) {
-            System.err.println("Could not check itinerary for tour " + tourId + ": " + e.getMessage());
         }
-        */
-        return false;
+        return tours;
     }
     
     /**